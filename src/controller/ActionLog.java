@@ -0,0 +1,295 @@
+package controller;
+
+import fungorium.GameConfig;
+import fungorium.GameEngine;
+import fungorium.Insect;
+import fungorium.MushBody;
+import fungorium.MushThread;
+import fungorium.Mushroom;
+import fungorium.Tecton;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Csak hozzáfűzhető, bináris lépésnapló. A játék kezdetén kiírja a kiinduló
+ * állapot leírását (beállítások, térkép, véletlengenerátorok állapota), utána
+ * minden sikeres lépést, kör továbbadást és kör végét egy-egy rövid rekordként.
+ * A rekordok pufferelve kerülnek a fájlba; a puffer minden kör végén ürül, így
+ * összeomlás esetén legfeljebb az utolsó kör lépései vesznek el.
+ *
+ * <p>
+ * A naplóból az {@link ActionLogReplayer} építi újra a játékot.
+ * </p>
+ */
+public class ActionLog implements GameActionListener, NewTectonListener, Closeable {
+    /**
+     * A fájl elején álló azonosító ("FGLG").
+     */
+    static final int MAGIC = 0x46474C47;
+    static final int VERSION = 2;
+
+    static final byte FIRE_SPORE = 1;
+    static final byte GROW_THREAD = 2;
+    static final byte GROW_MUSH_BODY = 3;
+    static final byte EAT_INSECT = 4;
+    static final byte MOVE_INSECT = 5;
+    static final byte CUT_THREAD = 6;
+    static final byte EAT_SPORE = 7;
+    static final byte NEXT = 8;
+    static final byte ROUND = 9;
+    static final byte CRACK = 10;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final GameEngine engine;
+    private final DataOutputStream out;
+
+    private ActionLog(GameEngine engine, DataOutputStream out) {
+        this.engine = engine;
+        this.out = out;
+    }
+
+    /**
+     * Elindítja a naplózást egy még el nem kezdett játékra: kiírja a kiinduló
+     * állapotot, majd feliratkozik a motor eseményeire. A szomszédságokat a
+     * térkép összekötése után kell elindítani.
+     *
+     * @param engine a játékmotor
+     * @param file   a naplófájl (felülíródik)
+     * @return a napló, amelyet a játék végén le kell zárni
+     * @throws IOException           ha a fájl nem írható
+     * @throws IllegalStateException ha a játékban már történt lépés
+     */
+    public static ActionLog start(GameEngine engine, File file) throws IOException {
+        if (engine.getTurnCount() != 0) {
+            throw new IllegalStateException("A lépésnaplót a játék kezdetén kell elindítani.");
+        }
+        DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE));
+        ActionLog log = new ActionLog(engine, out);
+        try {
+            log.writeHeader();
+        } catch (IOException e) {
+            out.close();
+            throw e;
+        }
+        engine.addGameActionListener(log);
+        engine.addNewTectonListener(log);
+        return log;
+    }
+
+    /**
+     * Kiírja a kiinduló állapotot: a beállításokat, a tectonok azonosítóját,
+     * típusát és törési idejét (ellenőrzéshez), a szomszédsági listákat és a
+     * véletlengenerátorok állapotát.
+     */
+    private void writeHeader() throws IOException {
+        GameConfig config = engine.getConfig();
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeLong(config.getSeed());
+        writeVarInt(engine.getRound());
+        writeVarInt(config.getTectonNumber());
+        writeVarInt(config.getPlayerNumber());
+        writeVarInt(config.getSporesPerRound());
+        writeVarInt(config.getMaturitySpores());
+        writeVarInt(config.getMaxFireCount());
+        writeVarInt(config.getMushBodySporeCost());
+        String currentPlayer = engine.getCurrentPlayer();
+        out.writeUTF(currentPlayer == null ? "" : currentPlayer);
+
+        List<Tecton> tectons = engine.getTectons();
+        writeVarInt(tectons.size());
+        for (Tecton tecton : tectons) {
+            writeVarInt(tecton.getId());
+            out.writeUTF(tecton.getType());
+            writeVarInt(tecton.getCrackTime());
+        }
+        for (Tecton tecton : tectons) {
+            writeNeighbors(tecton);
+        }
+
+        long[] randomState = engine.getRandomState();
+        writeVarInt(randomState.length);
+        for (long state : randomState) {
+            out.writeLong(state);
+        }
+    }
+
+    @Override
+    public void onFireSpore(Mushroom mushroom, MushBody body, Tecton target, int amount) {
+        try {
+            out.writeByte(FIRE_SPORE);
+            writeBody(mushroom, body);
+            writeVarInt(target.getId());
+            writeVarInt(amount);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void onGrowThread(Mushroom mushroom, MushBody body, Tecton target) {
+        try {
+            out.writeByte(GROW_THREAD);
+            writeBody(mushroom, body);
+            writeVarInt(target.getId());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void onGrowMushBody(Mushroom mushroom, Tecton target) {
+        try {
+            out.writeByte(GROW_MUSH_BODY);
+            writeVarInt(engine.getMushrooms().indexOf(mushroom));
+            writeVarInt(target.getId());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void onEatInsect(Mushroom mushroom, MushBody body, Tecton target) {
+        try {
+            out.writeByte(EAT_INSECT);
+            writeBody(mushroom, body);
+            writeVarInt(target.getId());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void onMoveInsect(Insect insect, Tecton target) {
+        try {
+            out.writeByte(MOVE_INSECT);
+            out.writeUTF(insect.getName());
+            writeVarInt(target.getId());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void onCutThread(Insect insect, MushThread thread) {
+        // A fonal annak a tectonnak a listájában van, amelyiken létrehozták
+        Tecton holder = thread.getStart().getThreads().contains(thread) ? thread.getStart() : thread.getEnd();
+        try {
+            out.writeByte(CUT_THREAD);
+            out.writeUTF(insect.getName());
+            writeVarInt(holder.getId());
+            writeVarInt(holder.getThreads().indexOf(thread));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void onEatSpore(Insect insect) {
+        try {
+            out.writeByte(EAT_SPORE);
+            out.writeUTF(insect.getName());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void onNext(long turn) {
+        try {
+            out.writeByte(NEXT);
+            writeVarLong(turn);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void onRoundEnd(int remainingRounds) {
+        try {
+            out.writeByte(ROUND);
+            writeVarInt(Math.max(0, remainingRounds));
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Törés után a szomszédságokat a nézet a képernyőn elfoglalt hely alapján
+     * osztja szét, ezért a törésben érintett tectonok szomszédsági listái
+     * teljes egészükben a naplóba kerülnek. A szétosztás az esemény előtt, a
+     * modellben történik, így a listák már a szétosztás utáni állapotot
+     * tükrözik.
+     */
+    @Override
+    public void onNewTectonAdded(Tecton original, Tecton newTecton) {
+        List<Tecton> affected = new ArrayList<>();
+        affected.add(original);
+        affected.add(newTecton);
+        for (Tecton neighbor : newTecton.getNeighbors()) {
+            if (!affected.contains(neighbor))
+                affected.add(neighbor);
+        }
+        try {
+            out.writeByte(CRACK);
+            writeVarInt(original.getId());
+            writeVarInt(newTecton.getId());
+            writeVarInt(affected.size());
+            for (Tecton tecton : affected) {
+                writeVarInt(tecton.getId());
+                writeNeighbors(tecton);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Leiratkozik a lépésekről, kiírja a pufferben lévő rekordokat és lezárja a
+     * fájlt.
+     */
+    @Override
+    public void close() throws IOException {
+        engine.removeGameActionListener(this);
+        engine.removeNewTectonListener(this);
+        out.close();
+    }
+
+    private void writeBody(Mushroom mushroom, MushBody body) throws IOException {
+        writeVarInt(engine.getMushrooms().indexOf(mushroom));
+        writeVarInt(mushroom.getMushBodies().indexOf(body));
+    }
+
+    private void writeNeighbors(Tecton tecton) throws IOException {
+        List<Tecton> neighbors = tecton.getNeighbors();
+        writeVarInt(neighbors.size());
+        for (Tecton neighbor : neighbors) {
+            writeVarInt(neighbor.getId());
+        }
+    }
+
+    /**
+     * Nemnegatív egész kiírása 7 bites csoportokban (kis értékekre 1 bájt).
+     */
+    private void writeVarInt(int value) throws IOException {
+        writeVarLong(value & 0xFFFFFFFFL);
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+}
@@ -0,0 +1,335 @@
+package controller;
+
+import fungorium.GameConfig;
+import fungorium.GameEngine;
+import fungorium.Insect;
+import fungorium.MushBody;
+import fungorium.MushThread;
+import fungorium.Mushroom;
+import fungorium.Tecton;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Az {@link ActionLog} által írt lépésnaplóból újraépíti a játékot.
+ *
+ * <p>
+ * A kiinduló térképet és a játékosokat a naplóban tárolt kezdőértékből
+ * generálja újra, a szomszédságokat a naplóból állítja be, majd a lépéseket a
+ * modell ugyanazon metódusaival hajtja végre, mint a játék. Minden lépésnél
+ * ellenőrzi, hogy a modell ugyanazt a lépést hajtotta-e végre, mint a
+ * naplózott játékban; eltérés esetén IllegalStateException-t dob. Csonka
+ * (pl. összeomláskor félbemaradt) napló esetén az utolsó teljes rekordig
+ * állítja vissza az állapotot.
+ * </p>
+ */
+public class ActionLogReplayer implements GameActionListener, NewTectonListener {
+    private final DataInputStream in;
+    private GameEngine engine;
+    /**
+     * A modell által legutóbb jelzett lépés típusa (ActionLog rekordkódja).
+     */
+    private byte lastAction;
+
+    private ActionLogReplayer(DataInputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Lejátssza a naplót.
+     *
+     * @param file a naplófájl
+     * @return a napló végének megfelelő állapotú játékmotor
+     * @throws IOException           ha a fájl nem olvasható vagy nem lépésnapló
+     * @throws IllegalStateException ha a lejátszás eltér a naplózott játéktól
+     */
+    public static GameEngine replay(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 64 * 1024))) {
+            ActionLogReplayer replayer = new ActionLogReplayer(in);
+            replayer.readHeader();
+            replayer.readActions();
+            return replayer.engine;
+        }
+    }
+
+    /**
+     * Beolvassa a kiinduló állapotot, és felépíti belőle a játékot.
+     */
+    private void readHeader() throws IOException {
+        if (in.readInt() != ActionLog.MAGIC) {
+            throw new IOException("A fájl nem lépésnapló.");
+        }
+        int version = in.readShort();
+        if (version != ActionLog.VERSION) {
+            throw new IOException("Nem támogatott lépésnapló verzió: " + version);
+        }
+        GameConfig config = new GameConfig();
+        config.setSeed(in.readLong());
+        config.setRoundNumber(readVarInt());
+        config.setTectonNumber(readVarInt());
+        config.setPlayerNumber(readVarInt());
+        config.setSporesPerRound(readVarInt());
+        config.setMaturitySpores(readVarInt());
+        config.setMaxFireCount(readVarInt());
+        config.setMushBodySporeCost(readVarInt());
+        String currentPlayer = in.readUTF();
+
+        engine = GameEngine.create(config);
+        engine.createMap();
+        List<Tecton> tectons = engine.getTectons();
+        int tectonCount = readVarInt();
+        if (tectonCount != tectons.size()) {
+            throw new IllegalStateException("A napló " + tectonCount + " tectont tartalmaz, a generált térkép "
+                    + tectons.size() + "-t.");
+        }
+        for (Tecton tecton : tectons) {
+            int id = readVarInt();
+            String type = in.readUTF();
+            int crackTime = readVarInt();
+            if (tecton.getId() != id || !tecton.getType().equals(type) || tecton.getCrackTime() != crackTime) {
+                throw new IllegalStateException("A generált tecton (" + tecton.getId() + ", " + tecton.getType()
+                        + ") eltér a naplóban szereplőtől (" + id + ", " + type + ").");
+            }
+        }
+        engine.generatePlayers();
+        for (Tecton tecton : tectons) {
+            readNeighbors(tecton);
+        }
+
+        long[] randomState = new long[readVarInt()];
+        for (int i = 0; i < randomState.length; i++) {
+            randomState[i] = in.readLong();
+        }
+        engine.restoreRandomState(randomState);
+        if (!currentPlayer.isEmpty()) {
+            engine.setCurrentPlayer(currentPlayer);
+        }
+        engine.addGameActionListener(this);
+        engine.addNewTectonListener(this);
+    }
+
+    /**
+     * Végrehajtja a naplózott lépéseket a napló végéig.
+     */
+    private void readActions() throws IOException {
+        try {
+            while (true) {
+                int opcode;
+                try {
+                    opcode = in.readByte();
+                } catch (EOFException e) {
+                    break;
+                }
+                replayRecord((byte) opcode);
+            }
+        } catch (EOFException e) {
+            // Csonka utolsó rekord: az addig visszaállított állapot marad
+        } catch (UncheckedIOException e) {
+            if (!(e.getCause() instanceof EOFException))
+                throw e;
+        } finally {
+            engine.removeGameActionListener(this);
+            engine.removeNewTectonListener(this);
+        }
+    }
+
+    private void replayRecord(byte opcode) throws IOException {
+        switch (opcode) {
+            case ActionLog.FIRE_SPORE -> {
+                Mushroom mushroom = readMushroom();
+                MushBody body = readBody(mushroom);
+                Tecton target = readTecton();
+                int amount = readVarInt();
+                lastAction = 0;
+                engine.completeAction(mushroom.fireSpore(body, target, amount));
+            }
+            case ActionLog.GROW_THREAD -> {
+                Mushroom mushroom = readMushroom();
+                MushBody body = readBody(mushroom);
+                Tecton target = readTecton();
+                lastAction = 0;
+                engine.completeAction(mushroom.growThread(target, body));
+            }
+            case ActionLog.GROW_MUSH_BODY -> {
+                Mushroom mushroom = readMushroom();
+                Tecton target = readTecton();
+                lastAction = 0;
+                engine.completeAction(mushroom.growMushBody(target));
+            }
+            case ActionLog.EAT_INSECT -> {
+                Mushroom mushroom = readMushroom();
+                MushBody body = readBody(mushroom);
+                Tecton target = readTecton();
+                lastAction = 0;
+                engine.completeAction(mushroom.eatInsectWithThread(body, target));
+            }
+            case ActionLog.MOVE_INSECT -> {
+                Insect insect = readInsect();
+                Tecton target = readTecton();
+                lastAction = 0;
+                engine.completeAction(insect.moveInsect(target));
+            }
+            case ActionLog.CUT_THREAD -> {
+                Insect insect = readInsect();
+                Tecton holder = readTecton();
+                MushThread thread = holder.getThreads().get(readVarInt());
+                lastAction = 0;
+                engine.completeAction(insect.cutThread(thread));
+            }
+            case ActionLog.EAT_SPORE -> {
+                Insect insect = readInsect();
+                lastAction = 0;
+                engine.completeAction(insect.eatSpore() != null);
+            }
+            case ActionLog.NEXT -> {
+                long turn = readVarLong();
+                // A sikeres lépések után a kör már továbbadódott; csak a passzolást kell pótolni
+                if (engine.getTurnCount() < turn)
+                    engine.next();
+                return;
+            }
+            case ActionLog.ROUND -> {
+                int remaining = readVarInt();
+                if (Math.max(0, engine.getRound()) != remaining)
+                    throw new IllegalStateException("A napló szerint " + remaining + " kör van hátra, a lejátszás szerint "
+                            + engine.getRound() + ".");
+                return;
+            }
+            default -> throw new IllegalStateException("Váratlan rekord a lépésnaplóban: " + opcode);
+        }
+        if (lastAction != opcode)
+            throw new IllegalStateException("A lejátszott lépés (" + opcode + ") nem sikerült a naplóval egyezően.");
+    }
+
+    private Mushroom readMushroom() throws IOException {
+        return engine.getMushrooms().get(readVarInt());
+    }
+
+    private MushBody readBody(Mushroom mushroom) throws IOException {
+        return mushroom.getMushBodies().get(readVarInt());
+    }
+
+    private Tecton readTecton() throws IOException {
+        int id = readVarInt();
+        Tecton tecton = engine.getTectonById(id);
+        if (tecton == null)
+            throw new IllegalStateException("Ismeretlen tecton a lépésnaplóban: " + id);
+        return tecton;
+    }
+
+    private Insect readInsect() throws IOException {
+        String name = in.readUTF();
+        Insect insect = engine.getInsectByName(name);
+        if (insect == null)
+            throw new IllegalStateException("Ismeretlen rovar a lépésnaplóban: " + name);
+        return insect;
+    }
+
+    /**
+     * Beolvas egy szomszédsági listát, és a tecton szomszédait pontosan erre
+     * (ugyanebben a sorrendben) állítja.
+     */
+    private void readNeighbors(Tecton tecton) throws IOException {
+        int count = readVarInt();
+        List<Tecton> neighbors = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            neighbors.add(readTecton());
+        }
+        tecton.setNeighbors(neighbors);
+    }
+
+    @Override
+    public void onFireSpore(Mushroom mushroom, MushBody body, Tecton target, int amount) {
+        lastAction = ActionLog.FIRE_SPORE;
+    }
+
+    @Override
+    public void onGrowThread(Mushroom mushroom, MushBody body, Tecton target) {
+        lastAction = ActionLog.GROW_THREAD;
+    }
+
+    @Override
+    public void onGrowMushBody(Mushroom mushroom, Tecton target) {
+        lastAction = ActionLog.GROW_MUSH_BODY;
+    }
+
+    @Override
+    public void onEatInsect(Mushroom mushroom, MushBody body, Tecton target) {
+        lastAction = ActionLog.EAT_INSECT;
+    }
+
+    @Override
+    public void onMoveInsect(Insect insect, Tecton target) {
+        lastAction = ActionLog.MOVE_INSECT;
+    }
+
+    @Override
+    public void onCutThread(Insect insect, MushThread thread) {
+        lastAction = ActionLog.CUT_THREAD;
+    }
+
+    @Override
+    public void onEatSpore(Insect insect) {
+        lastAction = ActionLog.EAT_SPORE;
+    }
+
+    @Override
+    public void onNext(long turn) {
+    }
+
+    @Override
+    public void onRoundEnd(int remainingRounds) {
+    }
+
+    /**
+     * A lejátszás közbeni törésnél a naplóból állítja be az érintett tectonok
+     * szomszédságait (a játékban ezeket a nézet osztotta szét).
+     */
+    @Override
+    public void onNewTectonAdded(Tecton original, Tecton newTecton) {
+        try {
+            // A kört továbbadó lépés NEXT rekordja a törés előtt áll
+            byte opcode = in.readByte();
+            while (opcode == ActionLog.NEXT) {
+                readVarLong();
+                opcode = in.readByte();
+            }
+            if (opcode != ActionLog.CRACK)
+                throw new IllegalStateException("A lejátszás során a " + original.getId()
+                        + " tecton eltört, a naplóban nem.");
+            int originalId = readVarInt();
+            int newId = readVarInt();
+            if (originalId != original.getId() || newId != newTecton.getId())
+                throw new IllegalStateException("A lejátszás során a " + original.getId() + " tecton tört el, a naplóban a "
+                        + originalId + ".");
+            int affected = readVarInt();
+            for (int i = 0; i < affected; i++) {
+                readNeighbors(readTecton());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int readVarInt() throws IOException {
+        return (int) readVarLong();
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+        throw new IOException("Hibás szám a lépésnaplóban.");
+    }
+}
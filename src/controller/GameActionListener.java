@@ -0,0 +1,43 @@
+package controller;
+
+import fungorium.Insect;
+import fungorium.MushBody;
+import fungorium.MushThread;
+import fungorium.Mushroom;
+import fungorium.Tecton;
+
+/**
+ * A játékosok sikeres lépéseiről és a kör váltásairól értesülő figyelő
+ * (pl. a lépésnapló). A lépés metódusai a lépés végrehajtása után, de a kör
+ * továbbadása előtt hívódnak; a fonalvágás a fonal megszüntetése előtt, hogy
+ * a fonal végpontjai még lekérdezhetők legyenek.
+ */
+public interface GameActionListener {
+    void onFireSpore(Mushroom mushroom, MushBody body, Tecton target, int amount);
+
+    void onGrowThread(Mushroom mushroom, MushBody body, Tecton target);
+
+    void onGrowMushBody(Mushroom mushroom, Tecton target);
+
+    void onEatInsect(Mushroom mushroom, MushBody body, Tecton target);
+
+    void onMoveInsect(Insect insect, Tecton target);
+
+    void onCutThread(Insect insect, MushThread thread);
+
+    void onEatSpore(Insect insect);
+
+    /**
+     * A kör továbbadása (GameEngine.next()).
+     *
+     * @param turn a továbbadás sorszáma a játék kezdete óta
+     */
+    void onNext(long turn);
+
+    /**
+     * Egy kör vége, a kör végi feldolgozás után.
+     *
+     * @param remainingRounds a hátralévő körök száma
+     */
+    void onRoundEnd(int remainingRounds);
+}
@@ -85,15 +85,14 @@ public class GameController {
         Tecton selectedTecton = selectedTectonView.getTecton();
 
         try {
-            currentMushroom.growMushBody(selectedTecton);
+            engine.completeAction(currentMushroom.growMushBody(selectedTecton));
             infoBoard.setLog("Attempted to grow mushroom on tecton: " + selectedTecton.getId());
         } catch (Exception e) {
             infoBoard.setLog("Error during growing mushroom: " + e.getMessage());
             e.printStackTrace();
         }
 
-        gameBoard.update();
-        // gameBoard.repaint();
+        gameBoard.repaint();
         infoBoard.repaint();
     }
 
@@ -124,9 +123,9 @@ public class GameController {
         for (MushBody body : currentMushroom.getMushBodies()) {
             // Check if thread can be grown to the selected tecton
             for (Tecton neighbor : targetTecton.getNeighbors()) {
-                if (neighbor.checkIfConnectedByThread(body.getLocation()) != -1) {
+                if (neighbor.isConnectedByThread(body.getLocation())) {
                     // Found a mushbody that can grow a thread to selected tecton
-                    currentMushroom.growThread(targetTecton, body);
+                    engine.completeAction(currentMushroom.growThread(targetTecton, body));
                     infoBoard.setLog("Thread grown from " + body.getName() + " to tecton " + targetTecton.getId());
                     threadGrown = true;
                     break;
@@ -140,8 +139,7 @@ public class GameController {
             infoBoard.setLog("No MushBody found that can grow a thread to tecton " + targetTecton.getId());
         }
 
-        gameBoard.update();
-        // gameBoard.repaint();
+        gameBoard.repaint();
         infoBoard.repaint();
     }
 
@@ -193,7 +191,7 @@ public class GameController {
         try {
             // Fire spores a kiválasztott tecton-ra
             Tecton targetTecton = selectedTectonView.getTecton();
-            currentMushroom.fireSpore(currentMushroom.getMushBodies().get(0), targetTecton, amount);
+            engine.completeAction(currentMushroom.fireSpore(currentMushroom.getMushBodies().get(0), targetTecton, amount));
 
             infoBoard.setLog("Fired " + amount + " spores on tecton: " + targetTecton.getId());
         } catch (Exception e) {
@@ -201,8 +199,7 @@ public class GameController {
         }
 
         // Frissítés
-        // gameBoard.repaint();
-        gameBoard.update();
+        gameBoard.repaint();
         infoBoard.repaint();
     }
 
@@ -240,7 +237,7 @@ public class GameController {
                     .anyMatch(thread -> thread.getMushBody().equals(musbody));
 
             if (hasThread) {
-                currentMushroom.eatInsectWithThread(musbody, selectedTecton);
+                engine.completeAction(currentMushroom.eatInsectWithThread(musbody, selectedTecton));
                 infoBoard.setLog("Attempted to eat insect at tecton: " + selectedTecton.getId());
                 actionPerformed = true;
                 break; // feltételezve, hogy elég egy fonál
@@ -251,8 +248,7 @@ public class GameController {
             infoBoard.setLog("No valid MushThread found to eat insect at tecton: " + selectedTecton.getId());
         }
 
-        // gameBoard.repaint();
-        gameBoard.update();
+        gameBoard.repaint();
         infoBoard.repaint();
     }
 
@@ -270,7 +266,7 @@ public class GameController {
             if (i.getName().equals(insectName)) selected=i;
         }
         if (selected!=null){
-            selected.moveInsect(selectedTectonView.getTecton());
+            engine.completeAction(selected.moveInsect(selectedTectonView.getTecton()));
         }
 
         /*for (Insect i : engine.getInsects()) {
@@ -282,7 +278,7 @@ public class GameController {
                 return;
             }
         }*/
-        gameBoard.update();
+        gameBoard.repaint();
         infoBoard.repaint();
         selectedTectonView.setSelected(false);
         selectedTectonView = null;
@@ -309,25 +305,21 @@ public class GameController {
 
         // Feltételezzük, hogy csak az aktuális játékos irányíthat rovart
         String playerName = infoBoard.getPlayerTextField().getText();*/
-        Insect currentInsect = engine.getInsects().stream()
-                .filter(i -> i.getName().equals(infoBoard.getSelectedComboBoxItem()))
-                .findFirst()
-                .orElse(null);
+        Insect currentInsect = engine.getInsectByName(infoBoard.getSelectedComboBoxItem());
 
         if (!currentInsect.getPosition().equals(selectedTecton)) {
             infoBoard.setLog("No matching insect for player " + infoBoard.getSelectedComboBoxItem().substring(0,2) + " on the selected Tecton.");
             return;
         }
 
-        int gainedScore = currentInsect.eatSpore();
-        if (gainedScore > 0) {
-            infoBoard.setLog(infoBoard.getSelectedComboBoxItem().substring(0,2) + " ate a spore and gained " + gainedScore + " points!");
+        MushSpore eatenSpore = currentInsect.eatSpore();
+        if (engine.completeAction(eatenSpore != null)) {
+            infoBoard.setLog(infoBoard.getSelectedComboBoxItem().substring(0,2) + " ate a spore and gained " + eatenSpore.getValue() + " points!");
         } else {
             infoBoard.setLog("No spores to eat on the selected Tecton.");
         }
 
-        // gameBoard.repaint();
-        gameBoard.update();
+        gameBoard.repaint();
         infoBoard.repaint();
     }
 
@@ -351,10 +343,7 @@ public class GameController {
         }
 
         // --- A név alapján megkeressük az Insect objektumot ---
-        Insect currentInsect = engine.getInsects().stream()
-                .filter(i -> i.getName().equals(selectedInsectName))
-                .findFirst()
-                .orElse(null);
+        Insect currentInsect = engine.getInsectByName(selectedInsectName);
 
         if (currentInsect == null) {
             infoBoard.setLog("Selected insect not found.");
@@ -369,7 +358,7 @@ public class GameController {
         allThreads.addAll(selectedTecton.getThreads());
         for (MushThread thread : allThreads) {
             if (thread.getEnd().equals(selectedTecton) || thread.getStart().equals(selectedTecton)) {
-                currentInsect.cutThread(thread);
+                engine.completeAction(currentInsect.cutThread(thread));
                 found = true;
                 break;
             }
@@ -379,7 +368,7 @@ public class GameController {
             infoBoard.setLog("There's no thread between your insect and the selected tecton.");
         }
 
-        gameBoard.update();
+        gameBoard.repaint();
         infoBoard.repaint();
     }
 
@@ -481,17 +470,15 @@ public class GameController {
 
         // Insect info kiírása
         adatok += "Insects: \n";
-        for (Insect insect : GameEngine.getInstance().getInsects()) {
-            if (insect.getPosition().getId() == selectedTectonView.getTecton().getId()) {
-                adatok += "   " + insect.getName();
-                if (insect.getCutSkill() == false) {
-                    adatok += ", nem tud vágni";
-                } else {
-                    adatok += ", tud vágni";
-                }
-                adatok += ", sebesség:" + insect.getSpeed();
-                adatok += "\n";
+        for (Insect insect : selectedTectonView.getTecton().getInsects()) {
+            adatok += "   " + insect.getName();
+            if (insect.getCutSkill() == false) {
+                adatok += ", nem tud vágni";
+            } else {
+                adatok += ", tud vágni";
             }
+            adatok += ", sebesség:" + insect.getSpeed();
+            adatok += "\n";
         }
 
         // Mushbody info kiírása
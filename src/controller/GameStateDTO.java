@@ -20,4 +20,5 @@ public class GameStateDTO {
     public List<SporeView> spores;
     public int round;
     public List<Mushroom> mushrooms;
+    public long[] randomState;
 }
\ No newline at end of file
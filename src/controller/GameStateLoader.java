@@ -15,9 +15,10 @@ public class GameStateLoader {
      * Betölti a játék állapotát egy JSON fájlból.
      * 
      * @param fileName a fájl neve vagy elérési útja, ahonnan be kell olvasni
+     * @param engine   a játékmotor, amelybe az állapot betöltődik
      * @return a beolvasott játékállapot DTO objektumként
      */
-    public static GameStateDTO loadFromFile(String fileName) {
+    public static GameStateDTO loadFromFile(String fileName, GameEngine engine) {
         GameStateDTO gameState = new GameStateDTO();
 
         try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
@@ -32,11 +33,14 @@ public class GameStateLoader {
             // Round érték kiolvasása
             gameState.round = parseIntValue(json, "\"round\":");
 
+            // Véletlengenerátorok állapota (régebbi mentésekben nincs)
+            gameState.randomState = parseLongArray(json, "\"randomState\":");
+
             // TectonView lista beolvasása
-            gameState.tectons = parseTectons(json);
+            gameState.tectons = parseTectons(json, engine);
 
             // Insects lista beolvasása
-            gameState.insects = parseInsects(json);
+            gameState.insects = parseInsects(json, engine);
 
         } catch (IOException e) {
             e.printStackTrace();
@@ -64,12 +68,35 @@ public class GameStateLoader {
     }
 
     /**
-     * Beolvassa a TectonView objektumokat egy JSON sztringből.
+     * Kiolvas egy long értékekből álló tömböt egy JSON sztringből egy adott kulcs
+     * alapján.
      * 
      * @param json a JSON sztring
+     * @param key a keresett kulcs, pl. "\"randomState\":"
+     * @return a tömb elemei, vagy null, ha a kulcs nem található
+     */
+    private static long[] parseLongArray(String json, String key) {
+        int idx = json.indexOf(key);
+        if (idx == -1)
+            return null;
+        int start = json.indexOf("[", idx + key.length()) + 1;
+        int end = json.indexOf("]", start);
+        String[] items = json.substring(start, end).split(",");
+        long[] values = new long[items.length];
+        for (int i = 0; i < items.length; i++) {
+            values[i] = Long.parseLong(items[i].trim());
+        }
+        return values;
+    }
+
+    /**
+     * Beolvassa a TectonView objektumokat egy JSON sztringből.
+     * 
+     * @param json   a JSON sztring
+     * @param engine a játékmotor, amelyhez a tectonok tartoznak
      * @return a TectonView objektumok listája
      */
-    private static List<TectonView> parseTectons(String json) {
+    private static List<TectonView> parseTectons(String json, GameEngine engine) {
         List<TectonView> tectons = new ArrayList<>();
 
         String tectonArrayStart = "\"tectons\":[";
@@ -90,7 +117,9 @@ public class GameStateLoader {
             int x = parseIntValue(tectonJson, "\"x\":");
             int y = parseIntValue(tectonJson, "\"y\":");
 
-            Tecton tecton = new SoloTecton(crackTime);
+            Tecton tecton = new SoloTecton(engine, crackTime);
+            tecton.setId(id);
+            engine.addTecton(tecton);
             tecton.setCracked(cracked);
             tecton.setCrackTime(crackTime);
 
@@ -106,10 +135,11 @@ public class GameStateLoader {
     /**
      * Beolvassa az Insect objektumokat egy JSON sztringből.
      * 
-     * @param json a JSON sztring
+     * @param json   a JSON sztring
+     * @param engine a játékmotor, amelyhez a rovarok tartoznak
      * @return az Insect objektumok listája
      */
-    private static List<Insect> parseInsects(String json) {
+    private static List<Insect> parseInsects(String json, GameEngine engine) {
         List<Insect> insects = new ArrayList<>();
 
         String insectArrayStart = "\"insects\":[";
@@ -130,9 +160,8 @@ public class GameStateLoader {
             boolean cutSkill = parseBooleanValue(insectJson, "\"cutSkill\":");
 
             int positionId = parseIntValue(insectJson, "\"id\":");
-            GameEngine engine = GameEngine.getInstance();
             Tecton position = engine.getTectonById(positionId);
-            Insect insect = new Insect(name, score, speed, cutSkill, position);
+            Insect insect = new Insect(engine, name, score, speed, cutSkill, position);
             insect.setScore(score);
             insects.add(insect);
         }
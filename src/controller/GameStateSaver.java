@@ -26,6 +26,16 @@ public class GameStateSaver {
             StringBuilder jsonBuilder = new StringBuilder();
             jsonBuilder.append("{\n");
             jsonBuilder.append("\"round\": ").append(gameState.round).append(",\n");
+            // Véletlengenerátorok állapota, hogy a betöltött játék ugyanúgy folytatódjon
+            if (gameState.randomState != null) {
+                jsonBuilder.append("\"randomState\": [");
+                for (int i = 0; i < gameState.randomState.length; i++) {
+                    jsonBuilder.append(gameState.randomState[i]);
+                    if (i < gameState.randomState.length - 1)
+                        jsonBuilder.append(", ");
+                }
+                jsonBuilder.append("],\n");
+            }
             // Tectonok kiírása
             jsonBuilder.append("\"tectons\": [\n");
             List<TectonView> tectonViews = gameState.tectons;
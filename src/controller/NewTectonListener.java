@@ -1,7 +1,19 @@
 package controller;
 
 import fungorium.Tecton;
+import fungorium.TectonCrack;
 
 public interface NewTectonListener {
     void onNewTectonAdded(Tecton orginal, Tecton newTecton);
+
+    /**
+     * Egy tecton kettétörésekor hívódik, a szomszédságok szétosztása után. Az
+     * alapértelmezés az onNewTectonAdded-et hívja; a mozgatott éleket is
+     * felhasználó figyelők ezt írják felül.
+     *
+     * @param crack a törés eredménye
+     */
+    default void onTectonCracked(TectonCrack crack) {
+        onNewTectonAdded(crack.getOriginal(), crack.getNewTecton());
+    }
 }
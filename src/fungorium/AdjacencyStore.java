@@ -0,0 +1,332 @@
+package fungorium;
+
+import java.util.Arrays;
+
+/**
+ * A tectonok szomszédsági kapcsolatainak tömör tárolója (CSR jellegű
+ * elrendezés): minden tecton szomszédai egy közös int tömb egy összefüggő
+ * szakaszában állnak, a tecton sorszámával (slot) hivatkozva. A szomszédok
+ * bejárása és a szomszédság vizsgálata így néhány egymás melletti int
+ * olvasása, objektumlétrehozás nélkül.
+ *
+ * <p>
+ * A kapcsolatok irányítottak (a {@link Tecton#removeNeighbor(Tecton)} csak az
+ * egyik oldalról töröl), és a felvétel sorrendjében maradnak, mert a játék
+ * véletlen választásai a szomszédok sorrendjére épülnek. Minden szakasznak van
+ * tartaléka; ha betelik, a szakasz kétszeres mérettel a tömb végére költözik,
+ * így a törésekkel járó módosítások is konstans amortizált idejűek. Ha a
+ * kiürült helyek aránya túl nagy lesz, a tömb tömörödik.
+ * </p>
+ *
+ * <p>
+ * Minden szakasznak van egy rendezett másolata is (ugyanott a sorted
+ * tömbben), így a szomszédság vizsgálata bináris kereséssel, két tecton közös
+ * szomszédjának keresése pedig a két rendezett lista összefésülésével megy.
+ * A két lépésben elérhető tectonok halmaza igény szerint számolódik, és a
+ * következő szomszédsági változásig megmarad.
+ * </p>
+ *
+ * <p>
+ * Nem szálbiztos: a kör végi párhuzamos számítás csak olvassa, a módosítások a
+ * soros végrehajtási fázisban történnek.
+ * </p>
+ */
+final class AdjacencyStore {
+    /**
+     * Egy szakasz első lefoglalt mérete.
+     */
+    private static final int INITIAL_CAPACITY = 4;
+
+    private Tecton[] nodes = new Tecton[64];
+    private int[] start = new int[64];
+    private int[] degree = new int[64];
+    private int[] capacity = new int[64];
+    private int nodeCount;
+
+    private int[] targets = new int[256];
+    /**
+     * A szakaszok növekvő sorrendbe rendezett másolata, a targets-szel azonos
+     * elrendezésben.
+     */
+    private int[] sorted = new int[256];
+    /**
+     * A targets tömb használt (lefoglalt szakaszokkal fedett) eleje.
+     */
+    private int used;
+    /**
+     * Az elköltözött szakaszok után üresen maradt helyek száma.
+     */
+    private int garbage;
+    /**
+     * A szomszédsági változások sorszáma.
+     */
+    private long version;
+
+    /**
+     * Tectononként a két lépésben elérhető tectonok rendezett sorszámai, és a
+     * version, amelynél számolódtak (igény szerint lefoglalva).
+     */
+    private int[][] twoHop;
+    private long[] twoHopVersion;
+    private int[] twoHopScratch = new int[64];
+
+    /**
+     * Felvesz egy tectont, szomszédok nélkül.
+     *
+     * @param tecton a tecton
+     * @return a tecton sorszáma a tárolóban
+     */
+    int register(Tecton tecton) {
+        if (nodeCount == nodes.length) {
+            int size = nodes.length * 2;
+            nodes = Arrays.copyOf(nodes, size);
+            start = Arrays.copyOf(start, size);
+            degree = Arrays.copyOf(degree, size);
+            capacity = Arrays.copyOf(capacity, size);
+        }
+        nodes[nodeCount] = tecton;
+        return nodeCount++;
+    }
+
+    /**
+     * @return a felvett tectonok száma
+     */
+    int size() {
+        return nodeCount;
+    }
+
+    /**
+     * @param slot a tecton sorszáma
+     * @return a tecton
+     */
+    Tecton node(int slot) {
+        return nodes[slot];
+    }
+
+    /**
+     * @param slot a tecton sorszáma
+     * @return a szomszédok száma
+     */
+    int degree(int slot) {
+        return degree[slot];
+    }
+
+    /**
+     * @param slot a tecton sorszáma
+     * @param k    a szomszéd sorszáma (0 és degree(slot) - 1 között)
+     * @return a k. szomszéd
+     */
+    Tecton neighbor(int slot, int k) {
+        return nodes[targets[start[slot] + k]];
+    }
+
+    /**
+     * @param slot a tecton sorszáma
+     * @param k    a szomszéd sorszáma (0 és degree(slot) - 1 között)
+     * @return a k. szomszéd sorszáma
+     */
+    int neighborSlot(int slot, int k) {
+        return targets[start[slot] + k];
+    }
+
+    /**
+     * @param from a kiinduló tecton sorszáma
+     * @param to   a keresett szomszéd sorszáma
+     * @return true, ha from szomszédai között szerepel to
+     */
+    boolean contains(int from, int to) {
+        int base = start[from];
+        return Arrays.binarySearch(sorted, base, base + degree[from], to) >= 0;
+    }
+
+    /**
+     * @param a az egyik tecton sorszáma
+     * @param b a másik tecton sorszáma
+     * @return true, ha a két tecton szomszédai között van közös
+     */
+    boolean hasCommonNeighbor(int a, int b) {
+        int i = start[a];
+        int endA = i + degree[a];
+        int j = start[b];
+        int endB = j + degree[b];
+        while (i < endA && j < endB) {
+            int x = sorted[i];
+            int y = sorted[j];
+            if (x == y) {
+                return true;
+            }
+            if (x < y) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A tecton szomszédainak szomszédai (a tectont magát is beleértve, ha van
+     * szomszédja), növekvő sorrendben, ismétlés nélkül. A következő
+     * szomszédsági változásig ugyanazt a tömböt adja vissza; a hívó nem
+     * módosíthatja.
+     *
+     * @param slot a tecton sorszáma
+     * @return a két lépésben elérhető tectonok sorszámai
+     */
+    int[] twoHop(int slot) {
+        if (twoHop == null || twoHop.length < nodes.length) {
+            int size = nodes.length;
+            twoHop = twoHop == null ? new int[size][] : Arrays.copyOf(twoHop, size);
+            twoHopVersion = twoHopVersion == null ? new long[size] : Arrays.copyOf(twoHopVersion, size);
+        }
+        if (twoHop[slot] != null && twoHopVersion[slot] == version) {
+            return twoHop[slot];
+        }
+        int count = 0;
+        int end = start[slot] + degree[slot];
+        for (int i = start[slot]; i < end; i++) {
+            int neighbor = targets[i];
+            int size = degree[neighbor];
+            if (count + size > twoHopScratch.length) {
+                twoHopScratch = Arrays.copyOf(twoHopScratch, Math.max(count + size, twoHopScratch.length * 2));
+            }
+            System.arraycopy(sorted, start[neighbor], twoHopScratch, count, size);
+            count += size;
+        }
+        Arrays.sort(twoHopScratch, 0, count);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || twoHopScratch[unique - 1] != twoHopScratch[i]) {
+                twoHopScratch[unique++] = twoHopScratch[i];
+            }
+        }
+        twoHop[slot] = Arrays.copyOf(twoHopScratch, unique);
+        twoHopVersion[slot] = version;
+        return twoHop[slot];
+    }
+
+    /**
+     * Felveszi a from → to kapcsolatot from szomszédainak végére, ha még nincs
+     * meg.
+     *
+     * @param from a kiinduló tecton sorszáma
+     * @param to   a szomszéd sorszáma
+     * @return true, ha a kapcsolat új
+     */
+    boolean add(int from, int to) {
+        if (contains(from, to)) {
+            return false;
+        }
+        ensureRoom(from);
+        int base = start[from];
+        int count = degree[from];
+        targets[base + count] = to;
+        int position = -Arrays.binarySearch(sorted, base, base + count, to) - 1;
+        System.arraycopy(sorted, position, sorted, position + 1, base + count - position);
+        sorted[position] = to;
+        degree[from]++;
+        version++;
+        return true;
+    }
+
+    /**
+     * Törli a from → to kapcsolatot (a fordítottját nem); a többi szomszéd
+     * sorrendje megmarad.
+     *
+     * @param from a kiinduló tecton sorszáma
+     * @param to   a törlendő szomszéd sorszáma
+     * @return true, ha a kapcsolat létezett
+     */
+    boolean remove(int from, int to) {
+        int index = indexOf(from, to);
+        if (index < 0) {
+            return false;
+        }
+        int base = start[from];
+        int end = base + degree[from];
+        System.arraycopy(targets, base + index + 1, targets, base + index, degree[from] - index - 1);
+        int position = Arrays.binarySearch(sorted, base, end, to);
+        System.arraycopy(sorted, position + 1, sorted, position, end - position - 1);
+        degree[from]--;
+        version++;
+        return true;
+    }
+
+    /**
+     * Törli a tecton összes kimenő kapcsolatát (a lefoglalt helye megmarad).
+     *
+     * @param slot a tecton sorszáma
+     */
+    void clear(int slot) {
+        degree[slot] = 0;
+        version++;
+    }
+
+    private int indexOf(int from, int to) {
+        int base = start[from];
+        int end = base + degree[from];
+        for (int i = base; i < end; i++) {
+            if (targets[i] == to) {
+                return i - base;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gondoskodik róla, hogy a tecton szakaszában legyen még egy szabad hely:
+     * ha a szakasz a tömb végén áll, helyben bővül, különben kétszeres mérettel
+     * a végére költözik.
+     */
+    private void ensureRoom(int slot) {
+        int cap = capacity[slot];
+        if (degree[slot] < cap) {
+            return;
+        }
+        int newCap = Math.max(INITIAL_CAPACITY, cap * 2);
+        if (cap > 0 && start[slot] + cap == used) {
+            reserve(newCap - cap);
+            used += newCap - cap;
+        } else {
+            if (garbage > used / 2 && garbage > 1024) {
+                compact();
+            }
+            reserve(newCap);
+            System.arraycopy(targets, start[slot], targets, used, degree[slot]);
+            System.arraycopy(sorted, start[slot], sorted, used, degree[slot]);
+            garbage += cap;
+            start[slot] = used;
+            used += newCap;
+        }
+        capacity[slot] = newCap;
+    }
+
+    private void reserve(int extra) {
+        if (used + extra > targets.length) {
+            int size = Math.max(targets.length * 2, used + extra);
+            targets = Arrays.copyOf(targets, size);
+            sorted = Arrays.copyOf(sorted, size);
+        }
+    }
+
+    /**
+     * Sorszám szerinti sorrendben egymás mellé másolja a szakaszokat (a
+     * tartalékukkal együtt), és eldobja az elköltözések után maradt üres
+     * helyeket.
+     */
+    private void compact() {
+        int[] packed = new int[Math.max(256, used - garbage)];
+        int[] packedSorted = new int[packed.length];
+        int pos = 0;
+        for (int slot = 0; slot < nodeCount; slot++) {
+            System.arraycopy(targets, start[slot], packed, pos, degree[slot]);
+            System.arraycopy(sorted, start[slot], packedSorted, pos, degree[slot]);
+            start[slot] = pos;
+            pos += capacity[slot];
+        }
+        targets = packed;
+        sorted = packedSorted;
+        used = pos;
+        garbage = 0;
+    }
+}
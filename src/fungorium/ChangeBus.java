@@ -0,0 +1,146 @@
+package fungorium;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A játékmotor központi változásgyűjtője. A modell módosító műveletei a
+ * megváltozott objektumon jelzőbiteket állítanak (ez csak az első
+ * változáskor jár a függő objektumok listájába való felvétellel), a
+ * feliratkozók pedig lépésenként egyszer, {@link #flush()}-kor egyetlen
+ * összevont {@link ChangeSet}-et kapnak. Amíg nincs feliratkozó (pl.
+ * szimulációban), a jelzés semmibe sem kerül.
+ *
+ * <p>
+ * Nem szálbiztos: jelzés csak a soros műveletekből érkezhet. A kör végi
+ * feldolgozás idejére a gyűjtés szünetel, helyette a kör egésze egy
+ * {@link #ROUND} jelzést ad.
+ * </p>
+ */
+public final class ChangeBus {
+    /**
+     * Az objektum egyéb állapota változott (pontszám, sebesség, érettség,
+     * elvágás stb.).
+     */
+    public static final int STATE = 1;
+    /**
+     * Az objektum helye változott (rovar lépése, tecton koordinátái).
+     */
+    public static final int POSITION = 1 << 1;
+    /**
+     * Az objektum spórái változtak.
+     */
+    public static final int SPORES = 1 << 2;
+    /**
+     * A tecton fonalai változtak.
+     */
+    public static final int THREADS = 1 << 3;
+    /**
+     * Gombatest jelent meg vagy tűnt el (a tectonon, illetve a gombánál).
+     */
+    public static final int MUSH_BODY = 1 << 4;
+    /**
+     * A tecton szomszédsága változott.
+     */
+    public static final int TOPOLOGY = 1 << 5;
+    /**
+     * Az objektum bekerült a játékba.
+     */
+    public static final int ADDED = 1 << 6;
+    /**
+     * Az objektum kikerült a játékból.
+     */
+    public static final int REMOVED = 1 << 7;
+    /**
+     * Lezajlott egy kör végi feldolgozás (csak globális jelzés): bármi
+     * megváltozhatott.
+     */
+    public static final int ROUND = 1 << 8;
+
+    private static final ChangeTracked[] NONE = new ChangeTracked[0];
+
+    private final List<ChangeListener> listeners = new ArrayList<>();
+    private ChangeTracked[] pending = new ChangeTracked[16];
+    private int pendingCount;
+    private int globalFlags;
+    private boolean suspended;
+
+    /**
+     * @param listener a feliratkozó figyelő
+     */
+    public void addListener(ChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * @param listener a leiratkozó figyelő
+     */
+    public void removeListener(ChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Feljegyzi az objektum változását. Ugyanannak az objektumnak a
+     * következő kézbesítésig jelzett változásai összeadódnak.
+     *
+     * @param entity a megváltozott objektum
+     * @param flags  a változás bitjei
+     */
+    void mark(ChangeTracked entity, int flags) {
+        if (suspended || listeners.isEmpty()) {
+            return;
+        }
+        if (entity.changeFlags == 0) {
+            if (pendingCount == pending.length) {
+                pending = Arrays.copyOf(pending, pendingCount * 2);
+            }
+            pending[pendingCount++] = entity;
+        }
+        entity.changeFlags |= flags;
+    }
+
+    /**
+     * Feljegyzi az egész játékot érintő változást.
+     *
+     * @param flags a változás bitjei
+     */
+    void markGlobal(int flags) {
+        if (!listeners.isEmpty()) {
+            globalFlags |= flags;
+        }
+    }
+
+    /**
+     * Szünetelteti vagy újraindítja az objektumonkénti gyűjtést (a kör végi
+     * párhuzamos feldolgozás idejére).
+     *
+     * @param suspended true, ha a jelzéseket figyelmen kívül kell hagyni
+     */
+    void setSuspended(boolean suspended) {
+        this.suspended = suspended;
+    }
+
+    /**
+     * Kézbesíti a feliratkozóknak az összegyűlt változásokat, és törli a
+     * jelzéseket. Ha nem volt változás, nem hív senkit.
+     */
+    public void flush() {
+        if (pendingCount == 0 && globalFlags == 0) {
+            return;
+        }
+        ChangeTracked[] entities = pendingCount == 0 ? NONE : Arrays.copyOf(pending, pendingCount);
+        int[] flags = new int[pendingCount];
+        for (int i = 0; i < pendingCount; i++) {
+            flags[i] = pending[i].changeFlags;
+            pending[i].changeFlags = 0;
+            pending[i] = null;
+        }
+        ChangeSet changes = new ChangeSet(entities, flags, globalFlags);
+        pendingCount = 0;
+        globalFlags = 0;
+        for (ChangeListener listener : new ArrayList<>(listeners)) {
+            listener.onChanges(changes);
+        }
+    }
+}
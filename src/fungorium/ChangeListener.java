@@ -0,0 +1,15 @@
+package fungorium;
+
+/**
+ * A modell összegyűjtött változásairól értesülő figyelő (pl. a grafikus
+ * nézet). A játékmotor {@link ChangeBus}-ára iratkozik fel, és lépésenként
+ * egyszer kapja meg az addig összegyűlt változásokat.
+ */
+public interface ChangeListener {
+    /**
+     * Kézbesíti a legutóbbi kézbesítés óta összegyűlt változásokat.
+     *
+     * @param changes a változások, objektumonként egyszer
+     */
+    void onChanges(ChangeSet changes);
+}
@@ -0,0 +1,70 @@
+package fungorium;
+
+/**
+ * Egy kézbesítésnyi összevont változás: a megváltozott objektumok
+ * (mindegyik egyszer, az első változás sorrendjében) és a rajtuk jelzett
+ * változások bitjei, valamint az egész játékot érintő jelzések (pl. kör
+ * vége).
+ */
+public final class ChangeSet {
+    private final ChangeTracked[] entities;
+    private final int[] flags;
+    private final int globalFlags;
+    private final int allFlags;
+
+    /**
+     * @param entities    a megváltozott objektumok
+     * @param flags       az objektumok változásbitjei
+     * @param globalFlags az egész játékot érintő változások bitjei
+     */
+    ChangeSet(ChangeTracked[] entities, int[] flags, int globalFlags) {
+        this.entities = entities;
+        this.flags = flags;
+        this.globalFlags = globalFlags;
+        int all = globalFlags;
+        for (int f : flags) {
+            all |= f;
+        }
+        this.allFlags = all;
+    }
+
+    /**
+     * @return a megváltozott objektumok száma
+     */
+    public int size() {
+        return entities.length;
+    }
+
+    /**
+     * @param index a sorszám (0 és size() - 1 között)
+     * @return az index. megváltozott objektum
+     */
+    public ChangeTracked get(int index) {
+        return entities[index];
+    }
+
+    /**
+     * @param index a sorszám (0 és size() - 1 között)
+     * @return az index. objektum változásbitjei
+     */
+    public int getFlags(int index) {
+        return flags[index];
+    }
+
+    /**
+     * @return az egész játékot érintő változások bitjei (pl.
+     *         {@link ChangeBus#ROUND})
+     */
+    public int getGlobalFlags() {
+        return globalFlags;
+    }
+
+    /**
+     * @param mask változásbitek
+     * @return true, ha bármelyik objektumon vagy az egész játékon jelezve van
+     *         a megadott bitek valamelyike
+     */
+    public boolean has(int mask) {
+        return (allFlags & mask) != 0;
+    }
+}
@@ -0,0 +1,27 @@
+package fungorium;
+
+/**
+ * A modell azon objektumainak őse, amelyek változásait a játékmotor
+ * {@link ChangeBus}-a gyűjti (tecton, gombatest, fonal, rovar, gomba). Az
+ * objektum csak a még kézbesítetlen változásainak jelzőbitjeit tárolja,
+ * megfigyelőlistát nem.
+ */
+public abstract class ChangeTracked {
+    /**
+     * A legutóbbi kézbesítés óta jelzett változások (a ChangeBus kezeli).
+     */
+    int changeFlags;
+
+    /**
+     * Feljegyzi a motor változásgyűjtőjében, hogy az objektum megváltozott.
+     *
+     * @param engine a játékmotor, amelyhez az objektum tartozik (null esetén
+     *               nem történik semmi)
+     * @param flags  a változás jellege (a {@link ChangeBus} konstansai)
+     */
+    protected final void markChanged(GameEngine engine, int flags) {
+        if (engine != null) {
+            engine.getChangeBus().mark(this, flags);
+        }
+    }
+}
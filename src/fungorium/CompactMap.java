@@ -0,0 +1,177 @@
+package fungorium;
+
+/**
+ * Tömör, primitív tömbökben tárolt térkép: tectononként egy típuskód és egy
+ * törési idő, a szomszédságok pedig egyetlen közös tömbben (CSR formátum: a
+ * i. tecton szomszédai a neighbors tömb offsets[i] és offsets[i + 1] közötti
+ * része, növekvő sorrendben).
+ *
+ * <p>
+ * Egymillió tectonnál is csak néhányszor tíz megabájt, mert nincs
+ * tectononkénti objektum. {@link Tecton} példány csak a
+ * {@link #materialize(GameEngine, int)} hívásakor jön létre; azonosítója a
+ * tömbbeli indexénél eggyel nagyobb, mint a {@link GameEngine#createMap()}
+ * által létrehozott tectonoknál.
+ * </p>
+ */
+public final class CompactMap {
+    public static final byte SOLO = 0;
+    public static final byte ZERO = 1;
+    public static final byte MULTI = 2;
+    public static final byte DRY = 3;
+    public static final byte NUTRI = 4;
+    /**
+     * A típuskódok száma.
+     */
+    public static final int TYPE_COUNT = 5;
+
+    private final int width;
+    private final byte[] types;
+    private final byte[] crackTimes;
+    private final int[] offsets;
+    private final int[] neighbors;
+
+    /**
+     * A tömböket a hívó tölti ki (lásd {@link MapGenerator}); a térkép nem
+     * másolja őket.
+     *
+     * @param width      a rács szélessége (a tectonok soronként)
+     * @param types      a tectonok típuskódja
+     * @param crackTimes a tectonok törési ideje
+     * @param offsets    a szomszédsági listák kezdete (types.length + 1 elem)
+     * @param neighbors  a szomszédok indexei egymás után
+     */
+    CompactMap(int width, byte[] types, byte[] crackTimes, int[] offsets, int[] neighbors) {
+        this.width = width;
+        this.types = types;
+        this.crackTimes = crackTimes;
+        this.offsets = offsets;
+        this.neighbors = neighbors;
+    }
+
+    /**
+     * @return a tectonok száma
+     */
+    public int size() {
+        return types.length;
+    }
+
+    /**
+     * @return a rács szélessége
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @param index a tecton indexe
+     * @return a tecton típuskódja (SOLO, ZERO, MULTI, DRY vagy NUTRI)
+     */
+    public byte getTypeCode(int index) {
+        return types[index];
+    }
+
+    /**
+     * @param index a tecton indexe
+     * @return a tecton törési ideje
+     */
+    public int getCrackTime(int index) {
+        return crackTimes[index];
+    }
+
+    /**
+     * @param index a tecton indexe
+     * @return a tecton szomszédainak száma
+     */
+    public int getDegree(int index) {
+        return offsets[index + 1] - offsets[index];
+    }
+
+    /**
+     * @param index a tecton indexe
+     * @param k     a szomszéd sorszáma (0 és getDegree(index) - 1 között)
+     * @return a k. szomszéd indexe
+     */
+    public int getNeighbor(int index, int k) {
+        return neighbors[offsets[index] + k];
+    }
+
+    /**
+     * @return az irányított szomszédsági élek száma (minden kapcsolat kétszer)
+     */
+    public int getEdgeCount() {
+        return neighbors.length;
+    }
+
+    /**
+     * Megadja a típuskódhoz tartozó típusnevet (a {@link Tecton#getType()}
+     * értékét).
+     *
+     * @param code a típuskód
+     * @return a típus neve
+     * @throws IllegalArgumentException ismeretlen kód esetén
+     */
+    public static String typeName(byte code) {
+        return TectonType.fromCode(code).getTypeName();
+    }
+
+    /**
+     * Létrehozza (ha még nem létezik) az adott indexű tectont a motorban
+     * (index + 1 azonosítóval), és összeköti a már létrehozott
+     * szomszédaival. Így a térkép bármely része igény szerint, bármilyen
+     * sorrendben betölthető, és a létrehozott tectonok szomszédsága mindig
+     * megegyezik a tömör térképével. Az első hívás lefoglalja a motorban a
+     * térkép összes azonosítóját, így a közben kettétört tectonok új része
+     * nem kaphat még be nem töltött tectonhoz tartozó azonosítót.
+     *
+     * @param engine a játékmotor (a tectonjait ebből a térképből kell kapja)
+     * @param index  a tecton indexe
+     * @return a tecton
+     */
+    public Tecton materialize(GameEngine engine, int index) {
+        engine.reserveTectonIds(types.length);
+        Tecton tecton = engine.getTectonById(index + 1);
+        if (tecton != null) {
+            return tecton;
+        }
+        int crackTime = crackTimes[index];
+        tecton = TectonType.fromCode(types[index]).create(engine, crackTime);
+        tecton.setId(index + 1);
+        tecton.setPartition(partitionOf(index));
+        engine.addTecton(tecton);
+        for (int k = offsets[index]; k < offsets[index + 1]; k++) {
+            Tecton neighbor = engine.getTectonById(neighbors[k] + 1);
+            if (neighbor != null) {
+                tecton.addNeighbor(neighbor);
+            }
+        }
+        return tecton;
+    }
+
+    /**
+     * A rács egymást követő soraiból álló sávok adják a kör végi feldolgozás
+     * tectonrészeit, így a részek összefüggők és a betöltés sorrendjétől
+     * függetlenek.
+     *
+     * @param index a tecton indexe
+     * @return a tecton tectonrészének azonosítója
+     */
+    int partitionOf(int index) {
+        int rowsPerPartition = Math.max(1, RoundProcessor.PARTITION_SIZE / width);
+        return index / width / rowsPerPartition;
+    }
+
+    /**
+     * Létrehozza az összes tectont a motorban index szerinti sorrendben (a
+     * szomszédsági listák így a tömör térképével azonos, növekvő sorrendűek
+     * lesznek), és a motor tectonszámát a térkép méretére állítja.
+     *
+     * @param engine egy még üres térképű játékmotor
+     */
+    public void materializeAll(GameEngine engine) {
+        for (int i = 0; i < types.length; i++) {
+            materialize(engine, i);
+        }
+        engine.setTectonNumber(types.length);
+    }
+}
@@ -0,0 +1,20 @@
+package fungorium;
+
+import java.util.List;
+
+/**
+ * Eldönti, hogy egy tecton kettétörésekor mely szomszédai kerüljenek át az új
+ * tectonhoz. A játékmotorban beállítható (pl. a grafikus felület a tectonok
+ * képernyőn elfoglalt helye alapján osztja szét őket); ha nincs beállítva,
+ * minden szomszéd az eredeti tectonnál marad.
+ */
+public interface CrackPartitioner {
+    /**
+     * Kiválasztja az új tectonhoz átkerülő szomszédokat. Az eredeti tecton
+     * ekkor még nem szomszédja az újnak.
+     *
+     * @param original a kettétörő tecton
+     * @param out      ebbe a listába kerülnek az átkerülő szomszédok
+     */
+    void selectMovedNeighbors(Tecton original, List<Tecton> out);
+}
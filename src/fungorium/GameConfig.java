@@ -0,0 +1,193 @@
+package fungorium;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Egy játékmotor (GameEngine) indulási beállításait összefogó osztály.
+ * Minden GameEngine példány a saját másolatát kapja, így ugyanabból a
+ * beállításból több egymástól független játék is indítható.
+ */
+public class GameConfig {
+    /**
+     * A játék köreinek száma.
+     */
+    private int roundNumber;
+    /**
+     * A generálandó tectonok száma.
+     */
+    private int tectonNumber;
+    /**
+     * A játékosok (gombászok és rovarászok) száma.
+     */
+    private int playerNumber;
+    /**
+     * A játék véletlenszám-generátorainak kezdőértéke. Azonos kezdőértékkel
+     * és azonos lépésekkel a játék ugyanúgy zajlik le.
+     */
+    private long seed;
+    /**
+     * Egy gombatest által körönként termelt spórák száma.
+     */
+    private int sporesPerRound = 5;
+    /**
+     * Ennyi spórától válik éretté egy gombatest.
+     */
+    private int maturitySpores = 8;
+    /**
+     * Ennyi spóralövés után pusztul el egy gombatest.
+     */
+    private int maxFireCount = 3;
+    /**
+     * Ennyi spóra kell egy tectonon új gombatest növesztéséhez.
+     */
+    private int mushBodySporeCost = 10;
+
+    /**
+     * Alapértelmezett beállítások: 10 kör, 20 tecton, 1 játékos, véletlen
+     * kezdőérték.
+     */
+    public GameConfig() {
+        this(10, 20, 1);
+    }
+
+    /**
+     * Konstruktor a beállítások megadásához.
+     *
+     * @param roundNumber  a körök száma
+     * @param tectonNumber a tectonok száma
+     * @param playerNumber a játékosok száma
+     */
+    public GameConfig(int roundNumber, int tectonNumber, int playerNumber) {
+        this.roundNumber = roundNumber;
+        this.tectonNumber = tectonNumber;
+        this.playerNumber = playerNumber;
+        this.seed = ThreadLocalRandom.current().nextLong();
+    }
+
+    /**
+     * Másoló konstruktor.
+     *
+     * @param other a lemásolandó beállítások
+     */
+    public GameConfig(GameConfig other) {
+        this(other.roundNumber, other.tectonNumber, other.playerNumber);
+        this.seed = other.seed;
+        this.sporesPerRound = other.sporesPerRound;
+        this.maturitySpores = other.maturitySpores;
+        this.maxFireCount = other.maxFireCount;
+        this.mushBodySporeCost = other.mushBodySporeCost;
+    }
+
+    /**
+     * @return a körök száma
+     */
+    public int getRoundNumber() {
+        return roundNumber;
+    }
+
+    /**
+     * @param roundNumber a körök száma
+     */
+    public void setRoundNumber(int roundNumber) {
+        this.roundNumber = roundNumber;
+    }
+
+    /**
+     * @return a tectonok száma
+     */
+    public int getTectonNumber() {
+        return tectonNumber;
+    }
+
+    /**
+     * @param tectonNumber a tectonok száma
+     */
+    public void setTectonNumber(int tectonNumber) {
+        this.tectonNumber = tectonNumber;
+    }
+
+    /**
+     * @return a játékosok száma
+     */
+    public int getPlayerNumber() {
+        return playerNumber;
+    }
+
+    /**
+     * @param playerNumber a játékosok száma
+     */
+    public void setPlayerNumber(int playerNumber) {
+        this.playerNumber = playerNumber;
+    }
+
+    /**
+     * @return a véletlenszám-generátorok kezdőértéke
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @param seed a véletlenszám-generátorok kezdőértéke
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * @return egy gombatest által körönként termelt spórák száma
+     */
+    public int getSporesPerRound() {
+        return sporesPerRound;
+    }
+
+    /**
+     * @param sporesPerRound egy gombatest által körönként termelt spórák száma
+     */
+    public void setSporesPerRound(int sporesPerRound) {
+        this.sporesPerRound = sporesPerRound;
+    }
+
+    /**
+     * @return ennyi spórától válik éretté egy gombatest
+     */
+    public int getMaturitySpores() {
+        return maturitySpores;
+    }
+
+    /**
+     * @param maturitySpores ennyi spórától válik éretté egy gombatest
+     */
+    public void setMaturitySpores(int maturitySpores) {
+        this.maturitySpores = maturitySpores;
+    }
+
+    /**
+     * @return ennyi spóralövés után pusztul el egy gombatest
+     */
+    public int getMaxFireCount() {
+        return maxFireCount;
+    }
+
+    /**
+     * @param maxFireCount ennyi spóralövés után pusztul el egy gombatest
+     */
+    public void setMaxFireCount(int maxFireCount) {
+        this.maxFireCount = maxFireCount;
+    }
+
+    /**
+     * @return ennyi spóra kell egy tectonon új gombatest növesztéséhez
+     */
+    public int getMushBodySporeCost() {
+        return mushBodySporeCost;
+    }
+
+    /**
+     * @param mushBodySporeCost ennyi spóra kell egy tectonon új gombatest
+     *                          növesztéséhez
+     */
+    public void setMushBodySporeCost(int mushBodySporeCost) {
+        this.mushBodySporeCost = mushBodySporeCost;
+    }
+}
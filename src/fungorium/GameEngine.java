@@ -2,33 +2,101 @@ package fungorium;
 
 import controller.*;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
 import java.util.Scanner;
-import view.Observer;
+import java.util.function.Consumer;
 
 /**
- * A játék motorját (GameEngine) megvalósító Singleton osztály.
+ * A játék motorját (GameEngine) megvalósító osztály.
  * Ez az osztály kezeli a játék állapotát, a térképet, a játékosokat (gombák és
  * rovarok),
  * valamint a játékmenetet.
+ * 
+ * <p>
+ * Minden példány egy önálló játékot képvisel saját entitáslistákkal,
+ * azonosító-kiosztással és figyelőkkel, így egy JVM-en belül tetszőleges
+ * számú játék futhat egymás mellett. Új példány a {@link #create(GameConfig)}
+ * metódussal hozható létre.
+ * </p>
  */
 public final class GameEngine {
-    private static volatile GameEngine instance;
-    private static int roundNumber = 10;
-    private static int tectonNumber = 20;
-    private static int playerNumber = 1;
+    private final GameConfig config;
+    private int roundNumber;
+    /**
+     * A következő új Tectonnak kiosztandó azonosító.
+     */
+    private int idCount = 1;
     private List<Tecton> tectons;
+    /**
+     * Azonosító szerint indexelt tömb a regisztrált tectonokról, a
+     * {@link #getTectonById(int)} konstans idejű kereséséhez. Az azonosítók
+     * sűrűn, 1-től kerülnek kiosztásra, így egy egyszerű tömb elegendő.
+     */
+    private Tecton[] tectonIndex = new Tecton[64];
     private List<Mushroom> mushrooms;
     private List<Insect> insects;
-    private final Random random;
+    /**
+     * A rovarász játékosok nyilvántartásai a játékos kétkarakteres neve
+     * szerint (pl. "i0"), az első rovaruk felvételének sorrendjében.
+     */
+    private final Map<String, PlayerRoster> rosters = new LinkedHashMap<>();
+    /**
+     * A következő játékba felvett rovar felvételi sorszáma (lásd
+     * {@link Insect#getRegistration()}).
+     */
+    private int insectRegistrations;
+    /**
+     * A tectonok bejárásainak sorszáma; minden bejárás új értéket kap, így a
+     * látogatási jeleket nem kell visszaállítani.
+     */
+    private int visitEpoch;
+    /**
+     * Alrendszerenként egy-egy független véletlenszám-generátor
+     * ({@link RandomStream} sorrendjében), mind a config kezdőértékéből
+     * származtatva.
+     */
+    private final GameRandom[] randoms;
+    /**
+     * A kör végi feldolgozást végző objektum.
+     */
+    private final RoundProcessor roundProcessor = new RoundProcessor(this);
+    /**
+     * A tectonok szomszédságai tömör, tömbös formában.
+     */
+    private final AdjacencyStore adjacency = new AdjacencyStore();
+    /**
+     * A tectonok kör végi állapota oszlopos, tömbös formában.
+     */
+    private final TectonTable tectonTable = new TectonTable();
+    /**
+     * A fonalak által összekötött tectoncsoportok nyilvántartása.
+     */
+    private final ThreadConnectivity threadConnectivity = new ThreadConnectivity(adjacency);
 
     private final List<GameStatusListener> listeners = new ArrayList<>();
     private final List<NewTectonListener> newTectonListeners = new ArrayList<>();
+    /**
+     * Töréskor az új tectonhoz kerülő szomszédokat választja ki (null: egyik
+     * sem kerül át).
+     */
+    private CrackPartitioner crackPartitioner;
+    private final List<GameActionListener> actionListeners = new ArrayList<>();
 
-    private String currentPlayer;
+    /**
+     * A lépési sorrendet és a kör végét kezelő ütemező.
+     */
+    private final TurnScheduler scheduler = new TurnScheduler();
+    /**
+     * A gombák listája és a játékosszám, amelyből az ütemező sora legutóbb
+     * készült; ha ezek változnak, a sor újraépül.
+     */
+    private List<Mushroom> scheduledMushrooms;
+    private int scheduledMushroomCount = -1;
+    private int scheduledInsectCount = -1;
 
     public void addGameStatusListener(GameStatusListener listener) {
         listeners.add(listener);
@@ -44,76 +112,300 @@ public final class GameEngine {
         newTectonListeners.add(tectonListener);
     }
 
-    private void notifyNewTectonListener(Tecton original, Tecton newTecton) {
+    public void removeNewTectonListener(NewTectonListener tectonListener) {
+        newTectonListeners.remove(tectonListener);
+    }
+
+    private void notifyNewTectonListener(TectonCrack crack) {
         for (NewTectonListener tectonListener : newTectonListeners) {
-            tectonListener.onNewTectonAdded(original, newTecton);
+            tectonListener.onTectonCracked(crack);
         }
     }
 
-    private List<Observer> observers = new ArrayList<>();
+    /**
+     * Beállítja, hogy töréskor mely szomszédok kerüljenek az új tectonhoz.
+     * 
+     * @param partitioner A szétosztás módja, vagy null, ha minden szomszéd az
+     *                    eredeti tectonnál marad
+     */
+    public void setCrackPartitioner(CrackPartitioner partitioner) {
+        this.crackPartitioner = partitioner;
+    }
+
+    /**
+     * @return A törésnél a szomszédokat szétosztó objektum, vagy null
+     */
+    public CrackPartitioner getCrackPartitioner() {
+        return crackPartitioner;
+    }
 
-    public void addObserver(Observer observer) {
-        observers.add(observer);
+    public void addGameActionListener(GameActionListener listener) {
+        actionListeners.add(listener);
     }
 
-    public void removeObserver(Observer observer) {
-        observers.remove(observer);
+    public void removeGameActionListener(GameActionListener listener) {
+        actionListeners.remove(listener);
     }
 
-    public void notifyObservers() {
-        for (Observer observer : observers) {
-            observer.update();
+    /**
+     * Értesíti a lépésfigyelőket; a Mushroom és az Insect hívja a sikeres
+     * lépései után.
+     * 
+     * @param event A figyelőn meghívandó értesítés
+     */
+    void notifyActionListeners(Consumer<GameActionListener> event) {
+        for (GameActionListener listener : actionListeners) {
+            event.accept(listener);
         }
     }
 
     /**
-     * Privát konstruktor a Singleton minta miatt.
-     * Inicializálja a játék környezetét és elindítja a játékot.
+     * A modell változásait gyűjtő és lépésenként kézbesítő központi
+     * értesítő.
+     */
+    private final ChangeBus changeBus = new ChangeBus();
+
+    /**
+     * @return a modell változásait gyűjtő értesítő (pl. a nézetek
+     *         feliratkozásához)
+     */
+    public ChangeBus getChangeBus() {
+        return changeBus;
+    }
+
+    /**
+     * Privát konstruktor, példányt a {@link #create(GameConfig)} ad vissza.
+     * Inicializálja a játék környezetét.
      * 
-     * @param round        A kezdő kör száma
-     * @param tectonNumber A tecton objektumok száma
+     * @param config A játék beállításai (a motor saját másolata)
      */
-    private GameEngine(int r, int t, int p) {
-        random = new Random();
-        roundNumber = r;
-        tectonNumber = t;
-        playerNumber = p;
+    private GameEngine(GameConfig config) {
+        this.config = config;
+        RandomStream[] streams = RandomStream.values();
+        randoms = new GameRandom[streams.length];
+        for (RandomStream stream : streams) {
+            randoms[stream.ordinal()] = new GameRandom(GameRandom.deriveSeed(config.getSeed(), stream.ordinal()));
+        }
+        roundNumber = config.getRoundNumber();
         this.tectons = new ArrayList<>();
         this.mushrooms = new ArrayList<>();
         this.insects = new ArrayList<>();
 
+        scheduler.addTurnHook(() -> {
+            for (GameActionListener listener : actionListeners) {
+                listener.onNext(scheduler.getTurnCount());
+            }
+        });
+        scheduler.addRoundEndHook(() -> {
+            roundNumber--;
+            roundProcessor.processRound();
+            for (GameActionListener listener : actionListeners) {
+                listener.onRoundEnd(roundNumber);
+            }
+        });
     }
 
     /**
-     * Singleton példány lekérése.
-     * Ha még nincs példány létrehozva, létrehozza azt biztonságosan, dupla
-     * ellenőrzéssel.
+     * Létrehoz egy új, a többitől független játékmotort a megadott
+     * beállításokkal. A beállításokról másolat készül, így ugyanaz a
+     * GameConfig több motorhoz is felhasználható.
      * 
-     * @return A GameEngine egyetlen példánya
+     * @param config A játék beállításai
+     * @return Az új GameEngine példány
      */
-    @SuppressWarnings("DoubleCheckedLocking")
-    public static GameEngine getInstance() {
-        if (instance == null) {
-            synchronized (GameEngine.class) {
-                if (instance == null) {
-                    instance = new GameEngine(roundNumber, tectonNumber, playerNumber);
-                }
-            }
+    public static GameEngine create(GameConfig config) {
+        return new GameEngine(new GameConfig(config));
+    }
+
+    /**
+     * Létrehoz egy új játékmotort az alapértelmezett beállításokkal.
+     * 
+     * @return Az új GameEngine példány
+     */
+    public static GameEngine create() {
+        return create(new GameConfig());
+    }
+
+    /**
+     * Kiosztja a következő szabad Tecton azonosítót.
+     * 
+     * @return Az új Tecton azonosítója
+     */
+    int nextTectonId() {
+        return idCount++;
+    }
+
+    /**
+     * Lefoglalja az 1..count azonosítókat (pl. egy tömör térkép tectonjainak),
+     * így az ezután létrejövő tectonok, például a törésből keletkezők, ezeknél
+     * nagyobb azonosítót kapnak.
+     * 
+     * @param count A lefoglalandó azonosítók száma
+     */
+    void reserveTectonIds(int count) {
+        if (idCount <= count) {
+            idCount = count + 1;
+        }
+    }
+
+    /**
+     * Új bejárási sorszámot ad a tectonok látogatási jeleihez.
+     * 
+     * @return A bejárás sorszáma
+     */
+    int nextVisitEpoch() {
+        return ++visitEpoch;
+    }
+
+    /**
+     * @return A tectonok szomszédságait tároló objektum
+     */
+    AdjacencyStore getAdjacency() {
+        return adjacency;
+    }
+
+    /**
+     * @return A tectonok típusát, időzítőit és állapotbitjeit tároló tábla
+     */
+    TectonTable getTectonTable() {
+        return tectonTable;
+    }
+
+    /**
+     * @return A fonalhálózat összefüggőségét nyilvántartó objektum
+     */
+    ThreadConnectivity getThreadConnectivity() {
+        return threadConnectivity;
+    }
+
+    /**
+     * @return Hányszor szolgálta ki a fonaltávolság-gyorsítótár a kérést
+     *         bejárás nélkül
+     */
+    public long getThreadDistanceCacheHits() {
+        return threadConnectivity.getCacheHits();
+    }
+
+    /**
+     * @return Hányszor kellett a fonaltávolságokhoz új bejárást végezni
+     */
+    public long getThreadDistanceCacheMisses() {
+        return threadConnectivity.getCacheMisses();
+    }
+
+    /**
+     * Lefuttatja a kör végi feldolgozást a hátralévő körök számának
+     * csökkentése nélkül (a tesztesetek körlezárásához).
+     */
+    void processRound() {
+        roundProcessor.processRound();
+    }
+
+    /**
+     * @return A legutóbbi kör végi feldolgozás tectonrészenkénti mérései
+     */
+    public RoundPartitionStats getLastRoundPartitionStats() {
+        return roundProcessor.getLastStats();
+    }
+
+    /**
+     * @return A motor beállításai
+     */
+    public GameConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Visszaadja a megadott alrendszer véletlenszám-generátorát.
+     * 
+     * @param stream Az alrendszer
+     * @return Az alrendszerhez tartozó generátor
+     */
+    public GameRandom getRandom(RandomStream stream) {
+        return randoms[stream.ordinal()];
+    }
+
+    /**
+     * Lekérdezi az összes véletlenszám-generátor állapotát mentéshez.
+     * 
+     * @return A generátorok állapota {@link RandomStream} sorrendben
+     */
+    public long[] getRandomState() {
+        long[] state = new long[randoms.length];
+        for (int i = 0; i < randoms.length; i++) {
+            state[i] = randoms[i].getState();
         }
-        return instance;
+        return state;
     }
 
+    /**
+     * Visszaállítja a véletlenszám-generátorok korábban mentett állapotát, így
+     * a betöltött játék ugyanazokat a véletlen eseményeket kapja.
+     * 
+     * @param state A {@link #getRandomState()} által visszaadott tömb
+     * @throws IllegalArgumentException ha a tömb hossza nem megfelelő
+     */
+    public void restoreRandomState(long[] state) {
+        if (state.length != randoms.length) {
+            throw new IllegalArgumentException("Hibás véletlengenerátor-állapot.");
+        }
+        for (int i = 0; i < randoms.length; i++) {
+            randoms[i].setState(state[i]);
+        }
+    }
+
+    /**
+     * Visszaadja a megadott azonosítójú tectont konstans időben.
+     * 
+     * @param id A keresett tecton azonosítója
+     * @return A tecton, vagy null, ha nincs ilyen azonosítójú tecton a játékban
+     */
     public Tecton getTectonById(int id) {
-        for (Tecton tecton : tectons) {
-            if (tecton.getId() == id) {
-                return tecton;
-            }
+        if (id < 0 || id >= tectonIndex.length) {
+            return null;
         }
-        return null;
+        return tectonIndex[id];
+    }
+
+    /**
+     * Felveszi a tectont az azonosító szerinti indexbe. Ha az azonosító
+     * nagyobb a még ki nem osztottaknál (pl. betöltéskor vagy teszteléskor
+     * kézzel beállított azonosító), a kiosztás utána folytatódik, így később
+     * sem keletkezik ütközés.
+     * 
+     * @param tecton Az indexelendő tecton
+     */
+    private void indexTecton(Tecton tecton) {
+        int id = tecton.getId();
+        if (id >= tectonIndex.length) {
+            tectonIndex = Arrays.copyOf(tectonIndex, Math.max(id + 1, tectonIndex.length * 2));
+        }
+        tectonIndex[id] = tecton;
+        if (id >= idCount) {
+            idCount = id + 1;
+        }
+    }
+
+    /**
+     * A Tecton.setId hívja: ha a tecton már a játék része, áthelyezi az
+     * indexben a régi azonosítóról az újra.
+     * 
+     * @param tecton Az átszámozott tecton
+     * @param oldId  A tecton korábbi azonosítója
+     */
+    void reindexTecton(Tecton tecton, int oldId) {
+        if (getTectonById(oldId) != tecton) {
+            return;
+        }
+        tectonIndex[oldId] = null;
+        indexTecton(tecton);
     }
 
     public void loadGameState(GameStateDTO gameState) {
         System.out.println("GameEngine: loadGameState");
+        if (gameState.randomState != null) {
+            restoreRandomState(gameState.randomState);
+        }
     }
 
     /**
@@ -122,7 +414,14 @@ public final class GameEngine {
      * @param tecton A hozzáadandó tecton objektum
      */
     public void addTecton(Tecton tecton) {
+        if (tecton.getPartition() < 0) {
+            // A felvétel sorrendjében egymást követő tectonok kerülnek egy részbe
+            tecton.setPartition(tectons.size() / RoundProcessor.PARTITION_SIZE);
+        }
         this.tectons.add(tecton);
+        tectonTable.setFlag(tecton.getSlot(), TectonTable.ACTIVE, true);
+        indexTecton(tecton);
+        changeBus.mark(tecton, ChangeBus.ADDED);
     }
 
     /**
@@ -130,18 +429,11 @@ public final class GameEngine {
      * 20 és 49 között kell legyen a tekton szám
      */
     public void createMap() {
-        for (int i = 0; i < tectonNumber; i++) {
+        GameRandom random = getRandom(RandomStream.MAP);
+        for (int i = 0; i < getTectonNumber(); i++) {
             int rand = random.nextInt(5); // Random szám a random Tekton generálásához
             int crackRand = random.nextInt(55);   //Ritkán legyen crack, mert annyira nem szép
-            switch (rand) {
-                case 0 -> tectons.add(new SoloTecton(crackRand));
-                case 1 -> tectons.add(new ZeroTecton(crackRand));
-                case 2 -> tectons.add(new MultiTecton(crackRand));
-                case 3 -> tectons.add(new DryTecton(crackRand));
-                case 4 -> tectons.add(new NutriTecton(crackRand));
-                default -> {
-                }
-            }
+            addTecton(TectonType.fromCode((byte) rand).create(this, crackRand));
         }
     }
 
@@ -151,13 +443,14 @@ public final class GameEngine {
      * Hozzáadja őket a mushrooms és insects listákhoz
      */
     public void generatePlayers() {
-        for (int i = 0; i < playerNumber; i++) {
-            Mushroom mushroom = new Mushroom("m" + i, 0);
+        GameRandom random = getRandom(RandomStream.PLAYERS);
+        for (int i = 0; i < getPlayerNumber(); i++) {
+            Mushroom mushroom = new Mushroom(this, "m" + i, 0);
 
             Tecton mushBodyLocation;
             boolean validTecton = false;
             while (!validTecton) {
-                int rand = random.nextInt(tectonNumber);
+                int rand = random.nextInt(getTectonNumber());
                 mushBodyLocation = tectons.get(rand);
                 MushBody mBody = mushBodyLocation.addMushBody(mushroom.getName() + "_1");
                 if (mBody != null) {
@@ -169,9 +462,9 @@ public final class GameEngine {
             mushrooms.add(mushroom);
 
             for (int k = 0; k < 3; k++) {
-                int rand = random.nextInt(tectonNumber);
+                int rand = random.nextInt(getTectonNumber());
                 Tecton insectPosition = tectons.get(rand);
-                insects.add(new Insect("i" + i + "_" + k, 0, 2, true, insectPosition));
+                addInsect(new Insect(this, "i" + i + "_" + k, 0, 2, true, insectPosition));
             }
         }
     }
@@ -187,7 +480,7 @@ public final class GameEngine {
                 mushroom.step();
             }
 
-            for (int i = 0; i < playerNumber; i++) {
+            for (int i = 0; i < getPlayerNumber(); i++) {
                 Insect currentInsect = insects.get(i);
                 notifyCurrentPlayerChanged(currentInsect.getName());
                 selectInsect(i);
@@ -195,12 +488,7 @@ public final class GameEngine {
 
             roundNumber--;
 
-            for (Mushroom mushroom : mushrooms)
-                mushroom.round();
-            for (Insect insect : insects)
-                insect.round();
-            for (Tecton tecton : tectons)
-                tecton.round();
+            roundProcessor.processRound();
         }
 
         endGame();
@@ -246,41 +534,26 @@ public final class GameEngine {
      * A játék befejezése, eredmények összesítése és a győztes kiírása.
      */
     public void endGame() {
-        Map<Integer, Integer> insectScores = new HashMap<>();
-        Map<Integer, Integer> mushroomScores = new HashMap<>();
-
-        for (Insect insect : insects) {
-            char insectNumberChar = insect.getName().charAt(1);
-            int insectNumber = insectNumberChar;
-            insectScores.put(insectNumber, insectScores.getOrDefault(insectNumber, 0) + insect.getScore());
-        }
-
-        for (Mushroom mushroom : mushrooms) {
-            char mushroomNumberChar = mushroom.getName().charAt(1);
-            int mushroomNumber = mushroomNumberChar;
-            mushroomScores.put(mushroomNumber, mushroomScores.getOrDefault(mushroomNumber, 0) + mushroom.getScore());
-        }
-
-        int insectWinner = -1;
+        String insectWinner = null;
         int insectMaxScore = -1;
-        for (Map.Entry<Integer, Integer> entry : insectScores.entrySet()) {
-            if (entry.getValue() > insectMaxScore) {
-                insectMaxScore = entry.getValue();
-                insectWinner = entry.getKey();
+        for (PlayerRoster roster : rosters.values()) {
+            if (roster.getScore() > insectMaxScore) {
+                insectMaxScore = roster.getScore();
+                insectWinner = roster.getOwner();
             }
         }
 
-        int mushroomWinner = -1;
+        String mushroomWinner = null;
         int mushroomMaxScore = -1;
-        for (Map.Entry<Integer, Integer> entry : mushroomScores.entrySet()) {
-            if (entry.getValue() > insectMaxScore) {
-                mushroomMaxScore = entry.getValue();
-                mushroomWinner = entry.getKey();
+        for (Mushroom mushroom : mushrooms) {
+            if (mushroom.getScore() > mushroomMaxScore) {
+                mushroomMaxScore = mushroom.getScore();
+                mushroomWinner = mushroom.getName();
             }
         }
 
-        System.out.println("A legjobb rovarász: i" + insectWinner + ", összpontszáma: " + insectMaxScore);
-        System.out.println("A legjobb gombász: m" + mushroomWinner + ", összpontszáma: " + mushroomMaxScore);
+        System.out.println("A legjobb rovarász: " + insectWinner + ", összpontszáma: " + insectMaxScore);
+        System.out.println("A legjobb gombász: " + mushroomWinner + ", összpontszáma: " + mushroomMaxScore);
     }
 
     // ---------------- GETTEREK ÉS SETTEREK ----------------
@@ -297,15 +570,15 @@ public final class GameEngine {
      * 
      * @param round Az új kör száma
      */
-    public static void setRound(int round) {
-        GameEngine.roundNumber = round;
+    public void setRound(int round) {
+        this.roundNumber = round;
     }
 
     /**
      * @return A tecton objektumok száma
      */
     public int getTectonNumber() {
-        return tectonNumber;
+        return config.getTectonNumber();
     }
 
     /**
@@ -313,8 +586,8 @@ public final class GameEngine {
      * 
      * @param tectonNumber Az új tecton szám
      */
-    public static void setTectonNumber(int tectonNumber) {
-        GameEngine.tectonNumber = tectonNumber;
+    public void setTectonNumber(int tectonNumber) {
+        config.setTectonNumber(tectonNumber);
     }
 
     /**
@@ -325,12 +598,19 @@ public final class GameEngine {
     }
 
     /**
-     * Beállítja a tectonok listáját.
+     * Beállítja a tectonok listáját. A kör végén a tectonok a listabeli
+     * sorrendtől függetlenül a létrehozásuk sorrendjében számolnak.
      * 
      * @param tectons A tectonok listája
      */
     public void setTectons(List<Tecton> tectons) {
         this.tectons = tectons;
+        Arrays.fill(tectonIndex, null);
+        tectonTable.clearActive();
+        for (Tecton tecton : tectons) {
+            tectonTable.setFlag(tecton.getSlot(), TectonTable.ACTIVE, true);
+            indexTecton(tecton);
+        }
     }
 
     /**
@@ -362,7 +642,16 @@ public final class GameEngine {
      * @param insects A rovarok listája
      */
     public void setInsects(List<Insect> insects) {
+        for (Insect insect : this.insects) {
+            if (insect.getPosition() != null)
+                insect.getPosition().removeOccupant(insect);
+            insect.setRoster(null);
+        }
+        rosters.clear();
         this.insects = insects;
+        for (Insect insect : insects) {
+            enroll(insect);
+        }
     }
 
     /**
@@ -374,10 +663,14 @@ public final class GameEngine {
         Boolean validName = false;
         Boolean nameSetted = false;
         while (!validName) {
-            for (Insect i : insects) {
-                if (i.getName().equals(insect.getName())) {
-                    insect.setName(insect.getName() + "_1");
-                    nameSetted = true;
+            // Azonos nevű rovar csak ugyanannak a játékosnak lehet, elég az ő rovarait nézni
+            PlayerRoster roster = rosters.get(ownerOf(insect.getName()));
+            if (roster != null) {
+                for (Insect i : roster.getInsects()) {
+                    if (i.getName().equals(insect.getName())) {
+                        insect.setName(insect.getName() + "_1");
+                        nameSetted = true;
+                    }
                 }
             }
             if (!nameSetted) // Ha ebben a ciklusban nem kellett változtatni a néven, akkor validdá tesszük a
@@ -387,6 +680,101 @@ public final class GameEngine {
                 nameSetted = false;
         }
         insects.add(insect);
+        enroll(insect);
+        changeBus.mark(insect, ChangeBus.ADDED);
+    }
+
+    /**
+     * Eltávolít egy rovart a játékból (pl. ha egy gomba megette), és levonja a
+     * pontszámát a játékosa összpontszámából.
+     * 
+     * @param insect Az eltávolítandó rovar
+     */
+    public void removeInsect(Insect insect) {
+        insects.remove(insect);
+        changeBus.mark(insect, ChangeBus.REMOVED);
+        PlayerRoster roster = insect.getRoster();
+        if (roster != null) {
+            roster.remove(insect);
+            insect.setRoster(null);
+            if (insect.getPosition() != null)
+                insect.getPosition().removeOccupant(insect);
+        }
+    }
+
+    /**
+     * Megkeresi a megadott nevű rovart; csak a rovar játékosának rovarait nézi
+     * végig.
+     * 
+     * @param name A rovar neve
+     * @return A rovar, vagy null, ha nincs ilyen nevű rovar a játékban
+     */
+    public Insect getInsectByName(String name) {
+        if (name == null)
+            return null;
+        for (Insect insect : getPlayerInsects(ownerOf(name))) {
+            if (insect.getName().equals(name))
+                return insect;
+        }
+        return null;
+    }
+
+    /**
+     * Összegyűjti a megadott tectontól legfeljebb hops szomszédsági lépésre
+     * lévő tectonokon tartózkodó rovarokat (a középső tectonét is). Csak a
+     * hatókörön belüli tectonokat járja be.
+     * 
+     * @param center A kiinduló tecton
+     * @param hops   A megengedett lépések száma (0 esetén csak a kiinduló tecton)
+     * @return A talált rovarok, a kiinduló tectontól távolodva
+     */
+    public List<Insect> getInsectsWithin(Tecton center, int hops) {
+        List<Insect> result = new ArrayList<>(center.getInsects());
+        int epoch = nextVisitEpoch();
+        center.markVisited(epoch);
+        List<Tecton> frontier = new ArrayList<>();
+        List<Tecton> next = new ArrayList<>();
+        frontier.add(center);
+        for (int depth = 0; depth < hops && !frontier.isEmpty(); depth++) {
+            for (Tecton tecton : frontier) {
+                for (Tecton neighbor : tecton.getNeighbors()) {
+                    if (neighbor.markVisited(epoch)) {
+                        result.addAll(neighbor.getInsects());
+                        next.add(neighbor);
+                    }
+                }
+            }
+            List<Tecton> swap = frontier;
+            frontier = next;
+            next = swap;
+            next.clear();
+        }
+        return result;
+    }
+
+    /**
+     * Felveszi a rovart a játékosa nyilvántartásába.
+     * 
+     * @param insect A felvett rovar
+     */
+    private void enroll(Insect insect) {
+        PlayerRoster roster = rosters.computeIfAbsent(ownerOf(insect.getName()), PlayerRoster::new);
+        roster.add(insect);
+        insect.setRoster(roster);
+        insect.setRegistration(insectRegistrations++);
+        if (insect.getPosition() != null)
+            insect.getPosition().addOccupant(insect);
+    }
+
+    /**
+     * Visszaadja a rovar nevéből a játékos kétkarakteres nevét (pl. "i0_2" ->
+     * "i0").
+     * 
+     * @param insectName A rovar neve
+     * @return A játékos neve
+     */
+    private static String ownerOf(String insectName) {
+        return insectName.length() > 2 ? insectName.substring(0, 2) : insectName;
     }
 
     /**
@@ -402,8 +790,8 @@ public final class GameEngine {
     /**
      * @return A játékosok száma
      */
-    public static int getPlayerNumber() {
-        return playerNumber;
+    public int getPlayerNumber() {
+        return config.getPlayerNumber();
     }
 
     /**
@@ -411,78 +799,143 @@ public final class GameEngine {
      * 
      * @param p Az új játékosszám
      */
-    public static void setPlayerNumber(int p) {
-        GameEngine.playerNumber = p;
+    public void setPlayerNumber(int p) {
+        config.setPlayerNumber(p);
     }
 
+    /**
+     * @return A soron lévő játékos neve, vagy null, ha még nincs játékos
+     */
+    public String getCurrentPlayer() {
+        refreshActors();
+        return scheduler.getCurrentActor();
+    }
+
+    /**
+     * @return A játék eleje óta történt továbbadások száma
+     */
+    public long getTurnCount() {
+        return scheduler.getTurnCount();
+    }
+
+    /**
+     * A megadott játékost teszi soron lévővé.
+     * 
+     * @param playerName A játékos neve
+     * @throws IllegalArgumentException ha nincs ilyen nevű játékos
+     */
     public void setCurrentPlayer(String playerName) {
-        this.currentPlayer = playerName;
+        refreshActors();
+        if (!scheduler.moveTo(playerName)) {
+            throw new IllegalArgumentException("Nincs ilyen játékos: " + playerName);
+        }
         notifyCurrentPlayerChanged(playerName);
     }
 
+    /**
+     * Egy törés során keletkezett új tectont vesz fel a játékba, és értesíti a
+     * figyelőket.
+     * 
+     * @param original  A kettétört tecton
+     * @param newTecton A törésből keletkezett új tecton
+     */
     public void addNewTecton(Tecton original, Tecton newTecton){
-        notifyNewTectonListener(original, newTecton);
-        tectons.add(newTecton);
+        addNewTecton(new TectonCrack(original, newTecton, List.of()));
     }
 
-    private int currentIndex = 0;
-    private boolean isMushroomPhase = true;
+    /**
+     * Felveszi a törésből létrejött tectont, és egyetlen eseményben értesíti a
+     * figyelőket a törésről.
+     * 
+     * @param crack A törés eredménye
+     */
+    void addNewTecton(TectonCrack crack) {
+        addTecton(crack.getNewTecton());
+        notifyNewTectonListener(crack);
+    }
 
+    /**
+     * Továbbadja a kört a következő játékosnak (passzolás, vagy egy sikeres
+     * lépés lezárása). Az utolsó rovarász után lezárja a kört: csökkenti a
+     * hátralévő körök számát és lefuttatja a kör végi feldolgozást.
+     */
     public void next() {
+        refreshActors();
+        scheduler.advance();
+        notifyCurrentPlayerChanged(scheduler.getCurrentActor());
+        changeBus.flush();
+    }
 
-        if (isMushroomPhase) {
-            currentIndex++;
-            if (currentIndex < getMushrooms().size()) {
-                String nextPlayer = getMushrooms().get(currentIndex).getName();
-                setCurrentPlayer(nextPlayer);
-                
-            } else {
-                isMushroomPhase = false;
-                currentIndex = 0;
-            }
+    /**
+     * Lezárja a soron lévő játékos lépését. A Mushroom és az Insect lépései
+     * csak jelzik, hogy sikerültek-e; a kört az ütemező adja tovább, ha igen.
+     * Végül kézbesíti a lépés (és az esetleges kör vége) összegyűlt
+     * változásait a feliratkozóknak.
+     * 
+     * @param succeeded Sikerült-e a lépés
+     * @return succeeded, hogy a hívó közvetlenül a lépés eredményével
+     *         folytathassa
+     */
+    public boolean completeAction(boolean succeeded) {
+        refreshActors();
+        if (scheduler.completeAction(succeeded)) {
+            notifyCurrentPlayerChanged(scheduler.getCurrentActor());
         }
+        changeBus.flush();
+        return succeeded;
+    }
 
-        if (!isMushroomPhase) {
-            if (currentIndex < playerNumber) {
-                setCurrentPlayer("i"+currentIndex);
-                currentIndex++;
-                
-            } else {
-                isMushroomPhase = true;
-                currentIndex = -1;
-                roundNumber--;
-                for (Mushroom mushroom : mushrooms) mushroom.round();
-                for (Insect insect : insects) insect.round();
-                for (Tecton tecton : new ArrayList<>(tectons)) tecton.round();
-                next();
-            }
+    /**
+     * @return A lépési sorrendet kezelő ütemező (pl. saját horgok
+     *         regisztrálásához)
+     */
+    public TurnScheduler getScheduler() {
+        refreshActors();
+        return scheduler;
+    }
+
+    /**
+     * Újraépíti az ütemező sorát, ha a gombák listája vagy a játékosszám
+     * megváltozott (előbb a gombászok a lista sorrendjében, utána a rovarászok
+     * "i0"-tól).
+     */
+    private void refreshActors() {
+        if (scheduledMushrooms == mushrooms && scheduledMushroomCount == mushrooms.size()
+                && scheduledInsectCount == getPlayerNumber()) {
+            return;
+        }
+        List<String> mushroomActors = new ArrayList<>(mushrooms.size());
+        for (Mushroom mushroom : mushrooms) {
+            mushroomActors.add(mushroom.getName());
+        }
+        List<String> insectActors = new ArrayList<>(getPlayerNumber());
+        for (int i = 0; i < getPlayerNumber(); i++) {
+            insectActors.add("i" + i);
         }
+        scheduler.setActors(mushroomActors, insectActors);
+        scheduledMushrooms = mushrooms;
+        scheduledMushroomCount = mushrooms.size();
+        scheduledInsectCount = getPlayerNumber();
     }
 
     /**
      * 
      * @param name - a rovarász 2 karakter hosszú neve pl: "i1"
-     * @return Lista a rovarász rovarjairól
+     * @return Lista a rovarász rovarjairól (csak olvasható)
      */
     public List<Insect> getPlayerInsects(String name){
-        List<Insect> playerInsects = new ArrayList<>();
-        for(Insect i : insects){
-            String insectName = null;
-            if(i.getName().length() > 2)
-                insectName = i.getName().substring(0,2);
-            if(insectName.equals(name)){
-                playerInsects.add(i);
-            }
-        }
-
-        return playerInsects;
+        PlayerRoster roster = rosters.get(name);
+        if (roster == null)
+            return Collections.emptyList();
+        return roster.getInsects();
     }
 
+    /**
+     * @param name - a rovarász 2 karakter hosszú neve pl: "i1"
+     * @return A rovarász élő rovarjainak összpontszáma
+     */
     public int getInsectPlayeScore(String name){
-        int score = 0;
-        for(Insect i : getPlayerInsects(name)){
-            score += i.getScore();
-        }
-        return score;
+        PlayerRoster roster = rosters.get(name);
+        return roster == null ? 0 : roster.getScore();
     }
 }
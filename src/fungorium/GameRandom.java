@@ -0,0 +1,111 @@
+package fungorium;
+
+import java.util.Random;
+
+/**
+ * A játékmotor determinisztikus, újravetíthető véletlenszám-generátora.
+ *
+ * <p>
+ * SplitMix64 algoritmusra épül: az állapota egyetlen long érték, amely
+ * lekérdezhető és visszaállítható, így a mentett játék pontosan ugyanazokat a
+ * véletlen eseményeket kapja. A {@link java.util.Random} leszármazottja, így
+ * bárhol használható, ahol a szabványos generátor kell (pl.
+ * {@code Collections.shuffle}), de az állapota nem atomi, ezért nincs hívásonkénti
+ * szinkronizáció és nincs hívásonkénti objektumlétrehozás.
+ * </p>
+ *
+ * <p>
+ * Egy példányt mindig csak egy szál használhat; párhuzamos munkához a
+ * {@link #split()} ad független generátort.
+ * </p>
+ */
+public class GameRandom extends Random {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * A SplitMix64 lépésköze (az aranymetszésből származó páratlan konstans).
+     */
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    /**
+     * A generátor teljes belső állapota.
+     */
+    private long state;
+
+    /**
+     * Létrehoz egy generátort a megadott kezdőértékkel.
+     *
+     * @param seed a kezdőérték
+     */
+    public GameRandom(long seed) {
+        super(0L);
+        this.state = seed;
+    }
+
+    /**
+     * Összekeveri a bemenet bitjeit (a SplitMix64 kimeneti függvénye).
+     *
+     * @param z a bemenet
+     * @return a kevert érték
+     */
+    static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Egy kezdőértékből és egy sorszámból független al-kezdőértéket képez.
+     * Ezzel kapják a játékmotor alrendszerei és a párhuzamos munkások a saját
+     * generátorukat.
+     *
+     * @param seed  a fő kezdőérték
+     * @param index az al-generátor sorszáma
+     * @return az al-generátor kezdőértéke
+     */
+    public static long deriveSeed(long seed, long index) {
+        return mix64(seed + (index + 1) * GOLDEN_GAMMA);
+    }
+
+    @Override
+    public long nextLong() {
+        state += GOLDEN_GAMMA;
+        return mix64(state);
+    }
+
+    @Override
+    protected int next(int bits) {
+        return (int) (nextLong() >>> (64 - bits));
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        this.state = seed;
+    }
+
+    /**
+     * Létrehoz egy új, ettől független generátort, és ezt a generátort is
+     * továbblépteti.
+     *
+     * @return az új generátor
+     */
+    public GameRandom split() {
+        return new GameRandom(mix64(nextLong()));
+    }
+
+    /**
+     * @return a generátor belső állapota (mentéshez)
+     */
+    public long getState() {
+        return state;
+    }
+
+    /**
+     * Visszaállítja a generátor belső állapotát (betöltéshez).
+     *
+     * @param state a korábban lekérdezett állapot
+     */
+    public void setState(long state) {
+        this.state = state;
+    }
+}
@@ -1,29 +1,35 @@
 package fungorium;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
-import view.Observer;
-
-public class Insect implements Player, Round, Observable {
-    private GameEngine engine=GameEngine.getInstance();
+public class Insect extends ChangeTracked implements Player, Round {
+    private final GameEngine engine;
     private String name;
     private int score;
     private int speed;
     private boolean cutSkill;
     private Tecton position;
-    private List<Observer> observers = new ArrayList<>();
+    /**
+     * A rovarász játékos nyilvántartása, amelyben a rovar szerepel; null, ha a
+     * rovar még nincs (vagy már nincs) a játékban.
+     */
+    private PlayerRoster roster;
+    /**
+     * A rovar felvételi sorszáma: a játékba később felvett rovaré nagyobb,
+     * így a játékmotor rovarlistájában is hátrébb áll.
+     */
+    private int registration;
 
     /**
      * Konstruktor a skeleton tesztekhez
      * 
+     * @param engine - a játékmotor, amelyhez a rovar tartozik
      * @param n
      * @param s
      * @param sped
      * @param cut
      * @param pos
      */
-    public Insect(String n, int s, int sped, boolean cut, Tecton pos) {
+    public Insect(GameEngine engine, String n, int s, int sped, boolean cut, Tecton pos) {
+        this.engine = engine;
         this.name = n;
         this.score = s;
         this.speed = sped;
@@ -31,23 +37,6 @@ public class Insect implements Player, Round, Observable {
         this.position = pos;
     }
 
-    @Override
-    public void addObserver(Observer observer) {
-        observers.add(observer);
-    }
-
-    @Override
-    public void removeObserver(Observer observer) {
-        observers.remove(observer);
-    }
-
-    @Override
-    public void notifyObservers() {
-        for (Observer observer : observers) {
-            observer.update();
-        }
-    }
-
     /**
      * A rovart elmozgatja a paraméterként kapott Tecton-ra, ha valid a távolság
      * vagy a fonal összeköttetés
@@ -57,7 +46,7 @@ public class Insect implements Player, Round, Observable {
      */
     public void duplicate() {
         String ujs = this.name + engine.getInsects().size();
-        engine.addInsect(new Insect(ujs, 0, 2, cutSkill, position));
+        engine.addInsect(new Insect(engine, ujs, 0, 2, cutSkill, position));
     }
 
     public boolean moveInsect(Tecton tecton) {
@@ -67,7 +56,9 @@ public class Insect implements Player, Round, Observable {
                     + " is stunned.");
             return false;
         }
-        int connected = tecton.checkIfConnectedByThread(position);
+        int connected = tecton.checkIfConnectedByThread(position, speed);
+        if (connected == -1 && tecton.isConnectedByThread(position))
+            connected = tecton.checkIfConnectedByThread(position); // csak a kiírt távolsághoz
         System.out.println(connected);
         if (connected == -1) {
             System.out.println("Moving " + this.name + " to tekton " + tecton.getId() + " failed because tekton "
@@ -76,8 +67,8 @@ public class Insect implements Player, Round, Observable {
         }
 
         if (speed >= connected) {
-            position = tecton;
-            engine.next();
+            setPosition(tecton);
+            engine.notifyActionListeners(l -> l.onMoveInsect(this, tecton));
             System.out.println("Moving " + this.getName() + " to tekton " + tecton.getId());
             return true;
         } else {
@@ -102,9 +93,8 @@ public class Insect implements Player, Round, Observable {
         if (cutSkill) {
             thread.setCutByInsect(true);
             thread.setTimeToDie(2);
-            thread.getEnd().removeThread(thread);
+            engine.notifyActionListeners(l -> l.onCutThread(this, thread));
             thread.takeThreadApart();
-            engine.next();
         } else {
             System.out.println("->CutSkillIsFalseException");
         }
@@ -115,29 +105,30 @@ public class Insect implements Player, Round, Observable {
     /**
      * Eszik egy spórát a position tectonról
      * 
-     * @return a megevett spóra értéke vagy 0, ha nem evett
+     * @return a megevett spóra, vagy null, ha nem evett
      */
-    public int eatSpore() {
+    public MushSpore eatSpore() {
         if (position.getSpores().isEmpty()) {
             System.out.println(this.name
                     + " eating a spore on the current tekton failed because there’s no spore on the current tekton.");
-            return 0;
+            return null;
         }
-        Random random = new Random();
+        GameRandom random = engine.getRandom(RandomStream.FEEDING);
         int eatedspore = random.nextInt(position.getSpores().size()); // eated xD
 
         MushSpore eatenSpore = position.getSpores().get(eatedspore);
         position.getSpores().remove(eatedspore);
+        position.markChanged(engine, ChangeBus.SPORES);
 
         if (eatenSpore == null) {
             System.out.println(this.name
                     + " eating a spore on the current tekton failed because there’s no spore on the current tekton.");
-            return 0;
+            return null;
         } else {
             addScore(eatenSpore.getValue());
             eatenSpore.giveEffect(this);
-            engine.next();
-            return eatenSpore.getValue();
+            engine.notifyActionListeners(l -> l.onEatSpore(this));
+            return eatenSpore;
         }
     }
 
@@ -147,6 +138,9 @@ public class Insect implements Player, Round, Observable {
     @Override
     public void addScore(int s) {
         this.score += s;
+        if (roster != null)
+            roster.addScore(s);
+        markChanged(engine, ChangeBus.STATE);
     }
 
     /**
@@ -255,12 +249,12 @@ public class Insect implements Player, Round, Observable {
     }
 
     public void die() {
+        engine.removeInsect(this);
         name = null;
         score = -1;
         speed = -1;
         cutSkill = false;
         position = null;
-        engine.getInsects().clear();
     }
 
     /**
@@ -269,9 +263,10 @@ public class Insect implements Player, Round, Observable {
      * @param s
      */
     public void setSpeed(int s) {
-        if (s >= 0 && s <= 3)
+        if (s >= 0 && s <= 3) {
             speed = s;
-        else
+            markChanged(engine, ChangeBus.STATE);
+        } else
             throw new IllegalArgumentException("Insect speed is not valid");
     }
 
@@ -291,6 +286,7 @@ public class Insect implements Player, Round, Observable {
      */
     public void setCutSkill(boolean c) {
         cutSkill = c;
+        markChanged(engine, ChangeBus.STATE);
     }
 
     /**
@@ -308,7 +304,14 @@ public class Insect implements Player, Round, Observable {
      * @param p
      */
     public void setPosition(Tecton p) {
+        if (roster != null) { // csak a játékba felvett rovarok szerepelnek a tektonok nyilvántartásában
+            if (position != null)
+                position.removeOccupant(this);
+            if (p != null)
+                p.addOccupant(this);
+        }
         position = p;
+        markChanged(engine, ChangeBus.POSITION);
     }
 
     /**
@@ -325,7 +328,43 @@ public class Insect implements Player, Round, Observable {
     }
 
     public void setScore(int s) {
+        if (roster != null)
+            roster.addScore(s - score);
         score = s;
+        markChanged(engine, ChangeBus.STATE);
+    }
+
+    /**
+     * A GameEngine állítja be, amikor a rovar bekerül a játékba vagy kikerül
+     * belőle.
+     * 
+     * @param r a játékos nyilvántartása, vagy null
+     */
+    void setRoster(PlayerRoster r) {
+        roster = r;
+    }
+
+    /**
+     * @return a játékos nyilvántartása, amelyben a rovar szerepel, vagy null
+     */
+    PlayerRoster getRoster() {
+        return roster;
+    }
+
+    /**
+     * A GameEngine állítja be, amikor a rovar bekerül a játékba.
+     * 
+     * @param registration a felvételi sorszám
+     */
+    void setRegistration(int registration) {
+        this.registration = registration;
+    }
+
+    /**
+     * @return a rovar felvételi sorszáma
+     */
+    int getRegistration() {
+        return registration;
     }
 
     public String getName() {
@@ -0,0 +1,419 @@
+package fungorium;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A játékosok szabályos lépéseinek felsorolása a játék állapotának módosítása
+ * nélkül.
+ *
+ * <p>
+ * A modell lépései (pl. {@link Insect#moveInsect(Tecton)},
+ * {@link Mushroom#growThread(Tecton, MushBody)}) csak végrehajtás közben
+ * derítik ki, hogy szabályosak-e, és közben kiírják a hiba okát. Ez az
+ * osztály ugyanazokat a feltételeket értékeli ki mellékhatás nélkül: a
+ * kijelöléshez vagy egy gépi játékos kereséséhez egyetlen bejárás elég
+ * próbálgatás helyett. Minden itt felsorolt lépés végrehajtva sikerül.
+ * </p>
+ *
+ * <p>
+ * A visszaadott listák a generátor újrahasznosított pufferei: a következő
+ * azonos fajtájú lekérdezésig érvényesek, és nem szabad módosítani őket. Nem
+ * szálbiztos; játékmotoronként (vagy szálanként) egy példány kell.
+ * </p>
+ */
+public final class LegalMoveGenerator {
+    /**
+     * A lépések fajtái, a modell megfelelő metódusai szerint.
+     */
+    public enum Kind {
+        MOVE_INSECT,
+        CUT_THREAD,
+        EAT_SPORE,
+        FIRE_SPORE,
+        GROW_THREAD,
+        GROW_MUSH_BODY,
+        EAT_INSECT
+    }
+
+    /**
+     * Egy szabályos lépés. Csak a fajtának megfelelő mezők vannak kitöltve; a
+     * FIRE_SPORE lépésnél a kilőtt mennyiség 1 és a gombatest spóráinak száma
+     * között bármennyi lehet.
+     */
+    public static final class Move {
+        private final Kind kind;
+        private final Insect insect;
+        private final Mushroom mushroom;
+        private final MushBody body;
+        private final Tecton target;
+        private final MushThread thread;
+
+        private Move(Kind kind, Insect insect, Mushroom mushroom, MushBody body, Tecton target, MushThread thread) {
+            this.kind = kind;
+            this.insect = insect;
+            this.mushroom = mushroom;
+            this.body = body;
+            this.target = target;
+            this.thread = thread;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public Insect getInsect() {
+            return insect;
+        }
+
+        public Mushroom getMushroom() {
+            return mushroom;
+        }
+
+        public MushBody getBody() {
+            return body;
+        }
+
+        public Tecton getTarget() {
+            return target;
+        }
+
+        public MushThread getThread() {
+            return thread;
+        }
+
+        @Override
+        public String toString() {
+            String unit = insect != null ? insect.getName() : body != null ? body.getName() : mushroom.getName();
+            String on = target != null ? " -> " + target.getId() : "";
+            return kind + " " + unit + on;
+        }
+    }
+
+    private final GameEngine engine;
+
+    private final List<Tecton> moveTargets = new ArrayList<>();
+    private final List<MushThread> cutTargets = new ArrayList<>();
+    private final List<Tecton> fireTargets = new ArrayList<>();
+    private final List<Tecton> threadTargets = new ArrayList<>();
+    private final List<Tecton> mushBodyTargets = new ArrayList<>();
+    private final List<Tecton> eatTargets = new ArrayList<>();
+    private final List<Move> moves = new ArrayList<>();
+
+    /**
+     * Bejárási segédlisták.
+     */
+    private final List<Tecton> frontier = new ArrayList<>();
+    private final List<Tecton> next = new ArrayList<>();
+    private final List<Tecton> scratch = new ArrayList<>();
+
+    /**
+     * @param engine a játékmotor, amelynek állapotából a lépések adódnak
+     */
+    public LegalMoveGenerator(GameEngine engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * Felsorolja a játékos összes szabályos lépését: rovarásznál minden
+     * rovaráét, gombásznál minden élő gombatestéét.
+     *
+     * @param player a játékos neve (pl. "m0" vagy "i1")
+     * @return a lépések listája
+     */
+    public List<Move> generate(String player) {
+        moves.clear();
+        for (Mushroom mushroom : engine.getMushrooms()) {
+            if (mushroom.getName().equals(player)) {
+                addMushroomMoves(mushroom);
+                return moves;
+            }
+        }
+        for (Insect insect : engine.getPlayerInsects(player)) {
+            addInsectMoves(insect);
+        }
+        return moves;
+    }
+
+    private void addInsectMoves(Insect insect) {
+        if (insect.getPosition() == null) {
+            return;
+        }
+        if (canEatSpore(insect)) {
+            moves.add(new Move(Kind.EAT_SPORE, insect, null, null, null, null));
+        }
+        for (MushThread thread : cutTargets(insect)) {
+            moves.add(new Move(Kind.CUT_THREAD, insect, null, null, null, thread));
+        }
+        for (Tecton target : moveTargets(insect)) {
+            moves.add(new Move(Kind.MOVE_INSECT, insect, null, null, target, null));
+        }
+    }
+
+    private void addMushroomMoves(Mushroom mushroom) {
+        List<MushBody> bodies = mushroom.getMushBodies();
+        for (MushBody body : bodies) {
+            if (body.getLocation() == null) {
+                continue;
+            }
+            for (Tecton target : fireTargets(body)) {
+                moves.add(new Move(Kind.FIRE_SPORE, null, mushroom, body, target, null));
+            }
+            for (Tecton target : threadTargets(body)) {
+                moves.add(new Move(Kind.GROW_THREAD, null, mushroom, body, target, null));
+            }
+        }
+        for (Tecton target : mushBodyTargets(mushroom)) {
+            moves.add(new Move(Kind.GROW_MUSH_BODY, null, mushroom, null, target, null));
+        }
+        // A rovar megevése nem függ a gombatesttől, a lépésnapló miatt mégis kell egy
+        if (!bodies.isEmpty()) {
+            for (Tecton target : edibleInsectTargets(mushroom)) {
+                moves.add(new Move(Kind.EAT_INSECT, null, mushroom, bodies.get(0), target, null));
+            }
+        }
+    }
+
+    /**
+     * A rovar által fonalak mentén legfeljebb speed lépésben elérhető tectonok
+     * (a saját tectonja nélkül), egyetlen korlátos mélységű bejárással.
+     *
+     * @param insect a rovar
+     * @return a tectonok, ahova a moveInsect sikerül, a távolság szerint
+     *         növekvő sorrendben
+     */
+    public List<Tecton> moveTargets(Insect insect) {
+        moveTargets.clear();
+        Tecton position = insect.getPosition();
+        if (position == null || insect.getSpeed() <= 0) {
+            return moveTargets;
+        }
+        int epoch = engine.nextVisitEpoch();
+        position.markVisited(epoch);
+        frontier.clear();
+        frontier.add(position);
+        for (int depth = 0; depth < insect.getSpeed() && !frontier.isEmpty(); depth++) {
+            next.clear();
+            for (int f = 0; f < frontier.size(); f++) {
+                List<MushThread> incident = frontier.get(f).getIncidentThreads();
+                for (int i = 0; i < incident.size(); i++) {
+                    Tecton other = otherEnd(incident.get(i), frontier.get(f));
+                    if (other != null && other.markVisited(epoch)) {
+                        moveTargets.add(other);
+                        next.add(other);
+                    }
+                }
+            }
+            frontier.clear();
+            frontier.addAll(next);
+        }
+        return moveTargets;
+    }
+
+    /**
+     * A rovar tectonjába futó fonalak, ha a rovar tud vágni.
+     *
+     * @param insect a rovar
+     * @return a fonalak, amelyeket a cutThread elvág
+     */
+    public List<MushThread> cutTargets(Insect insect) {
+        cutTargets.clear();
+        Tecton position = insect.getPosition();
+        if (position != null && insect.getCutSkill()) {
+            cutTargets.addAll(position.getIncidentThreads());
+        }
+        return cutTargets;
+    }
+
+    /**
+     * @param insect a rovar
+     * @return true, ha a rovar tectonján van megehető spóra
+     */
+    public boolean canEatSpore(Insect insect) {
+        Tecton position = insect.getPosition();
+        return position != null && !position.getSpores().isEmpty();
+    }
+
+    /**
+     * A gombatest lőtávolságában lévő tectonok: a szomszédok, érett
+     * gombatestnél a közös szomszédon át elérhető tectonok is.
+     *
+     * @param body a gombatest
+     * @return a tectonok, ahova a fireSpore legalább egy spórával sikerül
+     */
+    public List<Tecton> fireTargets(MushBody body) {
+        fireTargets.clear();
+        Tecton location = body.getLocation();
+        if (location == null || body.getSpores().isEmpty()) {
+            return fireTargets;
+        }
+        int epoch = engine.nextVisitEpoch();
+        int count = location.getNeighborCount();
+        for (int k = 0; k < count; k++) {
+            Tecton neighbor = location.getNeighbor(k);
+            if (neighbor.markVisited(epoch)) {
+                fireTargets.add(neighbor);
+            }
+        }
+        if (body.isMature()) {
+            // A közös szomszédos jelöltek a szomszédok szomszédai (a tároló gyorsítótárából)
+            AdjacencyStore adjacency = engine.getAdjacency();
+            for (int candidateSlot : adjacency.twoHop(location.getSlot())) {
+                Tecton candidate = adjacency.node(candidateSlot);
+                if (candidate.markVisited(epoch) && candidate.hasSameNeighbor(location)) {
+                    fireTargets.add(candidate);
+                }
+            }
+        }
+        return fireTargets;
+    }
+
+    /**
+     * Azok a tectonok, ahova a gombatest fonala tovább nőhet: a gombatest
+     * fonalhálózatával szomszédos tectonok, a SOLOTECTON szabályok
+     * figyelembevételével.
+     *
+     * @param body a gombatest
+     * @return a tectonok, ahova a growThread sikerül
+     */
+    public List<Tecton> threadTargets(MushBody body) {
+        threadTargets.clear();
+        Tecton location = body.getLocation();
+        if (location == null) {
+            return threadTargets;
+        }
+        // A gombatesttel fonalon összekötött tectonok
+        int epoch = engine.nextVisitEpoch();
+        location.markVisited(epoch);
+        scratch.clear();
+        scratch.add(location);
+        for (int s = 0; s < scratch.size(); s++) {
+            Tecton current = scratch.get(s);
+            List<MushThread> incident = current.getIncidentThreads();
+            for (int i = 0; i < incident.size(); i++) {
+                Tecton other = otherEnd(incident.get(i), current);
+                if (other != null && other.markVisited(epoch)) {
+                    scratch.add(other);
+                }
+            }
+        }
+        // Ezek szomszédai közül azok, ahol a growThread feltételei teljesülnek
+        epoch = engine.nextVisitEpoch();
+        for (int s = 0; s < scratch.size(); s++) {
+            Tecton member = scratch.get(s);
+            int count = member.getNeighborCount();
+            for (int k = 0; k < count; k++) {
+                Tecton candidate = member.getNeighbor(k);
+                if (candidate.markVisited(epoch) && canGrowThread(candidate, location)) {
+                    threadTargets.add(candidate);
+                }
+            }
+        }
+        return threadTargets;
+    }
+
+    /**
+     * A growThread feltételei: a cél egy szomszédja (közülük az utolsó
+     * megfelelő) a SOLOTECTON szabály szerint fonalat kaphat, és fonalon
+     * összeköttetésben áll a gombatesttel, a cél pedig elfogadja az onnan
+     * érkező fonalat.
+     */
+    private static boolean canGrowThread(Tecton target, Tecton bodyLocation) {
+        Tecton from = null;
+        int count = target.getNeighborCount();
+        for (int k = 0; k < count; k++) {
+            Tecton neighbor = target.getNeighbor(k);
+            if (target.soloSecurity(neighbor) && neighbor.isConnectedByThread(bodyLocation)) {
+                from = neighbor;
+            }
+        }
+        return from != null && target.acceptsThread(from, target);
+    }
+
+    /**
+     * Azok a tectonok, ahol a gombász új gombatestet növeszthet: a tectonon
+     * vagy egy szomszédján van a gombász fonala, elég spóra van rajta, és
+     * gombatest is nőhet rá.
+     *
+     * @param mushroom a gombász
+     * @return a tectonok, ahol a growMushBody sikerül
+     */
+    public List<Tecton> mushBodyTargets(Mushroom mushroom) {
+        mushBodyTargets.clear();
+        // Egy menetben a fonalat tartó tectonok, majd ezek és szomszédaik
+        scratch.clear();
+        for (Tecton tecton : engine.getTectons()) {
+            if (holdsThreadOf(tecton, mushroom)) {
+                scratch.add(tecton);
+            }
+        }
+        int cost = engine.getConfig().getMushBodySporeCost();
+        int epoch = engine.nextVisitEpoch();
+        for (int s = 0; s < scratch.size(); s++) {
+            Tecton holder = scratch.get(s);
+            addMushBodyTarget(holder, mushroom, cost, epoch);
+            int count = holder.getNeighborCount();
+            for (int k = 0; k < count; k++) {
+                addMushBodyTarget(holder.getNeighbor(k), mushroom, cost, epoch);
+            }
+        }
+        return mushBodyTargets;
+    }
+
+    private void addMushBodyTarget(Tecton candidate, Mushroom mushroom, int cost, int epoch) {
+        if (!candidate.markVisited(epoch) || candidate.getSpores().size() < cost || !candidate.acceptsMushBody()) {
+            return;
+        }
+        boolean threadNearby = holdsThreadOf(candidate, mushroom);
+        int count = candidate.getNeighborCount();
+        for (int k = 0; k < count && !threadNearby; k++) {
+            threadNearby = holdsThreadOf(candidate.getNeighbor(k), mushroom);
+        }
+        if (threadNearby) {
+            mushBodyTargets.add(candidate);
+        }
+    }
+
+    /**
+     * Azok a tectonok, ahol a gombász fonalán egy megbénított rovar áll (a
+     * játékba utoljára felvett rovar számít, lásd
+     * {@link Tecton#getLastRegisteredInsect()}).
+     *
+     * @param mushroom a gombász
+     * @return a tectonok, ahol az eatInsectWithThread sikerül
+     */
+    public List<Tecton> edibleInsectTargets(Mushroom mushroom) {
+        eatTargets.clear();
+        int epoch = engine.nextVisitEpoch();
+        for (Insect insect : engine.getInsects()) {
+            Tecton position = insect.getPosition();
+            if (position == null || !position.markVisited(epoch)) {
+                continue;
+            }
+            Insect prey = position.getLastRegisteredInsect();
+            if (prey != null && prey.getSpeed() == 0 && holdsThreadOf(position, mushroom)) {
+                eatTargets.add(position);
+            }
+        }
+        return eatTargets;
+    }
+
+    /**
+     * @return true, ha a tecton fonallistáján van a gombász valamelyik
+     *         gombatestének fonala
+     */
+    private static boolean holdsThreadOf(Tecton tecton, Mushroom mushroom) {
+        List<MushThread> threads = tecton.getThreads();
+        List<MushBody> bodies = mushroom.getMushBodies();
+        for (int i = 0; i < threads.size(); i++) {
+            if (bodies.contains(threads.get(i).getMushBody())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Tecton otherEnd(MushThread thread, Tecton from) {
+        return thread.getStart() == from ? thread.getEnd() : thread.getStart();
+    }
+}
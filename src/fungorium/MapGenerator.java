@@ -0,0 +1,237 @@
+package fungorium;
+
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Nagy térképek generátora. A tectonok egy közel négyzetes rács mezőibe
+ * kerülnek, és a vízszintes, a függőleges és az egyik átlós irányú
+ * szomszédjukkal kötődnek össze (mint a fej nélküli játékok
+ * LatticeTopology-jánál); az eredmény közvetlenül egy {@link CompactMap}
+ * tömbjeibe íródik, tectononkénti objektum nélkül.
+ *
+ * <p>
+ * A generálás soronként összefüggő régiókban, párhuzamosan fut. Minden régió
+ * a kezdőértékből és a saját sorszámából származtatott generátort kap, így az
+ * eredmény csak a kezdőértéktől és a mérettől függ, a szálak számától nem.
+ * </p>
+ *
+ * <p>
+ * Használat (minden paraméter elhagyható):
+ * </p>
+ *
+ * <pre>
+ * java fungorium.MapGenerator tectons=1000000 seed=1 threads=8 weights=1,1,1,1,1 repeat=3
+ * </pre>
+ */
+public class MapGenerator {
+    /**
+     * Egy régióba nagyjából ennyi tecton kerül (egész sorokra kerekítve).
+     */
+    static final int REGION_SIZE = 16384;
+    /**
+     * A törési idő felső határa (kizárólagos), mint a
+     * {@link GameEngine#createMap()}-ben.
+     */
+    static final int MAX_CRACK_TIME = 55;
+
+    private final long seed;
+    private final int[] cumulativeWeights;
+
+    /**
+     * Egyenletes típuseloszlású generátor (mint a {@link GameEngine#createMap()}).
+     *
+     * @param seed a kezdőérték
+     */
+    public MapGenerator(long seed) {
+        this(seed, new int[] { 1, 1, 1, 1, 1 });
+    }
+
+    /**
+     * @param seed        a kezdőérték
+     * @param typeWeights a típusok relatív gyakorisága a {@link CompactMap}
+     *                    típuskódjainak sorrendjében
+     * @throws IllegalArgumentException ha a súlyok száma nem megfelelő, van
+     *                                  köztük negatív, vagy mind nulla
+     */
+    public MapGenerator(long seed, int[] typeWeights) {
+        if (typeWeights.length != CompactMap.TYPE_COUNT) {
+            throw new IllegalArgumentException("Pontosan " + CompactMap.TYPE_COUNT + " típussúly kell.");
+        }
+        this.seed = seed;
+        this.cumulativeWeights = new int[typeWeights.length];
+        int sum = 0;
+        for (int i = 0; i < typeWeights.length; i++) {
+            if (typeWeights[i] < 0) {
+                throw new IllegalArgumentException("A típussúly nem lehet negatív.");
+            }
+            sum += typeWeights[i];
+            cumulativeWeights[i] = sum;
+        }
+        if (sum == 0) {
+            throw new IllegalArgumentException("Legalább egy típussúly legyen pozitív.");
+        }
+    }
+
+    public static void main(String[] args) {
+        int tectons = 1_000_000;
+        long seed = 1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int repeat = 3;
+        int[] weights = { 1, 1, 1, 1, 1 };
+
+        for (String arg : args) {
+            String[] kv = arg.split("=", 2);
+            if (kv.length != 2) {
+                System.out.println("Hibás paraméter: " + arg);
+                return;
+            }
+            switch (kv[0]) {
+                case "tectons" -> tectons = Integer.parseInt(kv[1]);
+                case "seed" -> seed = Long.parseLong(kv[1]);
+                case "threads" -> threads = Integer.parseInt(kv[1]);
+                case "repeat" -> repeat = Integer.parseInt(kv[1]);
+                case "weights" -> {
+                    String[] parts = kv[1].split(",");
+                    weights = new int[parts.length];
+                    for (int i = 0; i < parts.length; i++)
+                        weights[i] = Integer.parseInt(parts[i].trim());
+                }
+                default -> {
+                    System.out.println("Ismeretlen paraméter: " + kv[0]);
+                    return;
+                }
+            }
+        }
+
+        MapGenerator generator = new MapGenerator(seed, weights);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        int count = tectons;
+        // Az első futások a JIT bemelegedését is mérik, ezért több ismétlés
+        for (int run = 0; run < repeat; run++) {
+            long start = System.nanoTime();
+            CompactMap map = pool.submit(() -> generator.generate(count)).join();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            long[] typeCounts = new long[CompactMap.TYPE_COUNT];
+            for (int i = 0; i < map.size(); i++)
+                typeCounts[map.getTypeCode(i)]++;
+            StringBuilder types = new StringBuilder();
+            for (byte code = 0; code < CompactMap.TYPE_COUNT; code++)
+                types.append(' ').append(CompactMap.typeName(code)).append('=').append(typeCounts[code]);
+            System.out.println(String.format(Locale.ROOT, "%d tecton, %d szomszédság, %.3f s, %.1f tecton/s,%s",
+                    map.size(), map.getEdgeCount() / 2, seconds, map.size() / seconds, types));
+        }
+        pool.shutdown();
+    }
+
+    /**
+     * Legenerálja a megadott méretű térképet. A régiók a hívó szál
+     * ForkJoinPool-jában (alapesetben a közösben) futnak párhuzamosan.
+     *
+     * @param count a tectonok száma
+     * @return a térkép
+     * @throws IllegalArgumentException ha a méret negatív, vagy a szomszédsági
+     *                                  tömb nem férne el
+     */
+    public CompactMap generate(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("A tectonok száma nem lehet negatív.");
+        }
+        int width = Math.max(1, (int) Math.ceil(Math.sqrt(count)));
+        int rowsPerRegion = Math.max(1, REGION_SIZE / width);
+        int regionSize = rowsPerRegion * width;
+        int regions = (count + regionSize - 1) / regionSize;
+
+        byte[] types = new byte[count];
+        byte[] crackTimes = new byte[count];
+        long[] regionEdges = new long[regions];
+
+        // 1. menet: típusok, törési idők és a régiók szomszédsági éleinek száma
+        IntStream.range(0, regions).parallel().forEach(region -> {
+            GameRandom random = new GameRandom(GameRandom.deriveSeed(seed, region));
+            int end = Math.min(count, (region + 1) * regionSize);
+            long edges = 0;
+            for (int i = region * regionSize; i < end; i++) {
+                types[i] = pickType(random);
+                crackTimes[i] = (byte) random.nextInt(MAX_CRACK_TIME);
+                edges += writeNeighbors(i, width, count, null, 0);
+            }
+            regionEdges[region] = edges;
+        });
+
+        // A régiók szomszédsági listáinak kezdete a közös tömbben
+        int[] regionBase = new int[regions];
+        long total = 0;
+        for (int region = 0; region < regions; region++) {
+            regionBase[region] = (int) total;
+            total += regionEdges[region];
+        }
+        if (total > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Túl nagy térkép: " + count + " tecton.");
+        }
+
+        // 2. menet: a szomszédsági listák kitöltése
+        int[] offsets = new int[count + 1];
+        int[] neighbors = new int[(int) total];
+        IntStream.range(0, regions).parallel().forEach(region -> {
+            int end = Math.min(count, (region + 1) * regionSize);
+            int pos = regionBase[region];
+            for (int i = region * regionSize; i < end; i++) {
+                offsets[i] = pos;
+                pos = writeNeighbors(i, width, count, neighbors, pos);
+            }
+        });
+        offsets[count] = (int) total;
+
+        return new CompactMap(width, types, crackTimes, offsets, neighbors);
+    }
+
+    /**
+     * Egy típuskód a súlyok szerint.
+     */
+    private byte pickType(GameRandom random) {
+        int r = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        byte code = 0;
+        while (r >= cumulativeWeights[code]) {
+            code++;
+        }
+        return code;
+    }
+
+    /**
+     * Kiírja az i. tecton rácsbeli szomszédait növekvő sorrendben (balra fent
+     * átlósan, fent, balra, jobbra, lent, jobbra lent átlósan).
+     *
+     * @param i     a tecton indexe
+     * @param width a rács szélessége
+     * @param count a tectonok száma
+     * @param out   a céltömb, vagy null, ha csak számolni kell
+     * @param pos   az első szabad hely a céltömbben
+     * @return a következő szabad hely (null céltömbnél pos + a szomszédok száma)
+     */
+    private static int writeNeighbors(int i, int width, int count, int[] out, int pos) {
+        int column = i % width;
+        boolean first = column == 0;
+        boolean last = column == width - 1;
+        if (!first && i - width - 1 >= 0)
+            pos = put(out, pos, i - width - 1);
+        if (i - width >= 0)
+            pos = put(out, pos, i - width);
+        if (!first)
+            pos = put(out, pos, i - 1);
+        if (!last && i + 1 < count)
+            pos = put(out, pos, i + 1);
+        if (i + width < count)
+            pos = put(out, pos, i + width);
+        if (!last && i + width + 1 < count)
+            pos = put(out, pos, i + width + 1);
+        return pos;
+    }
+
+    private static int put(int[] out, int pos, int value) {
+        if (out != null)
+            out[pos] = value;
+        return pos + 1;
+    }
+}
@@ -0,0 +1,155 @@
+package fungorium;
+
+import java.util.List;
+
+/**
+ * A tectonok síkbeli elrendezése és az ebből adódó szomszédsági gráf.
+ *
+ * <p>
+ * A tectonok sorfolytonosan egy rács mezőibe kerülnek, mezőnként egy
+ * véletlen, a mező szélétől legalább margin távolságra lévő pontra. A
+ * szomszédok a vízszintes és a függőleges rácsszomszédok, valamint minden
+ * rácsnégyszögben az egyik átló: a négyszög belsejében haladók közül a
+ * rövidebb. Mivel a pontok a saját mezőjükön belül maradnak, a rácsélek nem
+ * metszik egymást, a belső átlók pedig a négyszögükön belül futnak, így a
+ * gráf metszésmentes (síkbarajzolható) háromszögelés. A számítás lineáris
+ * idejű és páronkénti metszésvizsgálat nélküli, ezért több százezer tectonra
+ * is alkalmazható.
+ * </p>
+ *
+ * <p>
+ * A koordináták a tectonokba kerülnek ({@link Tecton#getX()},
+ * {@link Tecton#getY()}); a nézet ezekből rajzol.
+ * </p>
+ */
+public final class MapLayout {
+    /**
+     * Törésnél ennyivel kerül a két rész az eredeti hely fölé, illetve alá.
+     */
+    public static final int CRACK_OFFSET = 24;
+    /**
+     * A kezdőértékből ezzel a sorszámmal származik az elrendezés generátora
+     * (a véletlen-folyamok sorszámaitól eltérő).
+     */
+    private static final long SEED_INDEX = -1;
+
+    private final int columns;
+    private final int cellWidth;
+    private final int cellHeight;
+    private final int margin;
+
+    /**
+     * @param columns    a rács oszlopainak száma (0: a tectonok számához
+     *                   igazodó, közel négyzetes rács)
+     * @param cellWidth  egy mező szélessége
+     * @param cellHeight egy mező magassága
+     * @param margin     a pontok legkisebb távolsága a mező szélétől
+     * @throws IllegalArgumentException ha a mezőben nem marad hely a pontnak
+     */
+    public MapLayout(int columns, int cellWidth, int cellHeight, int margin) {
+        if (columns < 0 || margin < 0 || cellWidth - 2 * margin <= 0 || cellHeight - 2 * margin <= 0) {
+            throw new IllegalArgumentException("Hibás rácsméret.");
+        }
+        this.columns = columns;
+        this.cellWidth = cellWidth;
+        this.cellHeight = cellHeight;
+        this.margin = margin;
+    }
+
+    /**
+     * Elrendezi és összeköti a motor tectonjait. A véletlen pozíciók a motor
+     * kezdőértékéből származnak, így ugyanahhoz a játékhoz mindig ugyanaz az
+     * elrendezés tartozik.
+     *
+     * @param engine a játékmotor
+     */
+    public void apply(GameEngine engine) {
+        apply(engine.getTectons(), new GameRandom(GameRandom.deriveSeed(engine.getConfig().getSeed(), SEED_INDEX)));
+    }
+
+    /**
+     * Elrendezi a tectonokat a rácson, és beállítja a szomszédságaikat (a
+     * {@link Tecton#addNeighbor(Tecton)} mindkét irányban).
+     *
+     * @param tectons a tectonok sorfolytonos rácsbeli sorrendben
+     * @param random  a pozíciók véletlenszám-generátora
+     */
+    public void apply(List<Tecton> tectons, GameRandom random) {
+        int count = tectons.size();
+        if (count == 0) {
+            return;
+        }
+        int width = columns > 0 ? columns : (int) Math.ceil(Math.sqrt(count));
+        int[] xs = new int[count];
+        int[] ys = new int[count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = (i % width) * cellWidth + margin + random.nextInt(cellWidth - 2 * margin);
+            ys[i] = (i / width) * cellHeight + margin + random.nextInt(cellHeight - 2 * margin);
+            tectons.get(i).setPosition(xs[i], ys[i]);
+        }
+
+        // Minden tecton a nála nagyobb indexű szomszédjaival kötődik össze
+        for (int i = 0; i < count; i++) {
+            Tecton tecton = tectons.get(i);
+            int column = i % width;
+            int right = i + 1;
+            int down = i + width;
+            if (column + 1 < width && right < count) {
+                tecton.addNeighbor(tectons.get(right));
+            }
+            if (column > 0 && down < count && !mainDiagonal(xs, ys, i - 1, width)) {
+                tecton.addNeighbor(tectons.get(down - 1));
+            }
+            if (down < count) {
+                tecton.addNeighbor(tectons.get(down));
+            }
+            if (column + 1 < width && down + 1 < count && mainDiagonal(xs, ys, i, width)) {
+                tecton.addNeighbor(tectons.get(down + 1));
+            }
+        }
+    }
+
+    /**
+     * Eldönti, hogy a bal felső sarkával adott rácsnégyszögben a bal
+     * felső–jobb alsó átló legyen-e az él (különben a jobb felső–bal alsó).
+     */
+    private static boolean mainDiagonal(int[] xs, int[] ys, int topLeft, int width) {
+        int a = topLeft;
+        int b = topLeft + 1;
+        int c = topLeft + width + 1;
+        int d = topLeft + width;
+        boolean mainInside = Long.signum(cross(xs, ys, a, c, b)) * Long.signum(cross(xs, ys, a, c, d)) < 0;
+        boolean antiInside = Long.signum(cross(xs, ys, b, d, a)) * Long.signum(cross(xs, ys, b, d, c)) < 0;
+        if (mainInside != antiInside) {
+            return mainInside;
+        }
+        return distanceSquared(xs, ys, a, c) <= distanceSquared(xs, ys, b, d);
+    }
+
+    /**
+     * A p pont helyzete a from → to egyeneshez képest (előjeles terület).
+     */
+    private static long cross(int[] xs, int[] ys, int from, int to, int p) {
+        return (long) (xs[to] - xs[from]) * (ys[p] - ys[from]) - (long) (ys[to] - ys[from]) * (xs[p] - xs[from]);
+    }
+
+    private static long distanceSquared(int[] xs, int[] ys, int a, int b) {
+        long dx = xs[a] - xs[b];
+        long dy = ys[a] - ys[b];
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * Törésnél elhelyezi a két részt: az eredeti tecton CRACK_OFFSET-tel
+     * feljebb kerül, az új ugyanennyivel az eredeti hely alá.
+     *
+     * @param original  az eltörő tecton
+     * @param newTecton a törésből keletkezett tecton
+     */
+    static void placeCrack(Tecton original, Tecton newTecton) {
+        int x = original.getX();
+        int y = original.getY();
+        newTecton.setPosition(x, y + CRACK_OFFSET);
+        original.setPosition(x, y - CRACK_OFFSET);
+    }
+}
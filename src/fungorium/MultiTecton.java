@@ -10,26 +10,10 @@ public class MultiTecton extends Tecton {
     /**
      * Létrehoz egy új MultiTecton példányt a megadott crackTime értékkel.
      *
+     * @param engine    a játékmotor, amelyhez a tekton tartozik
      * @param crackTime a törésig hátralévő idő
      */
-    public MultiTecton(int crackTime) {
-        super(crackTime);
-    }
-
-    /**
-     * Létrehoz egy új MultiTecton példányt a jelenlegi crackTime alapján.
-     *
-     * @return új MultiTecton példány
-     */
-    @Override
-    protected Tecton createNewTecton() {
-        return new MultiTecton(-1);
-    }
-
-    /**
-     * Visszaadja a MultiTecton típusát.
-     */
-    public String getType() {
-        return "MULTITECTON";
+    public MultiTecton(GameEngine engine, int crackTime) {
+        super(engine, crackTime, TectonType.MULTI);
     }
 }
@@ -1,20 +1,29 @@
 package fungorium;
 
 import java.security.InvalidParameterException;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
-import view.Observer;
 
-public class MushBody implements Round, Observable {
+public class MushBody extends ChangeTracked implements Round {
     private String name;
     private boolean mature;
     private Tecton location;
-    private final List<MushSpore> spores;
-    private final Random random;
+    private final SporePile spores;
+    /**
+     * A játékmotor, amelyhez a gombatest tartozik
+     */
+    private final GameEngine engine;
     private int fireCount;
 
-    private List<Observer> observers = new ArrayList<>();
+    /**
+     * A körönként termelt spórafajták közös példányai, a sorsolás sorrendjében.
+     */
+    private static final MushSpore[] ROUND_SPORES = {
+            new SlowSpore(2),
+            new SpeedSpore(1),
+            new StunSpore(4),
+            new CrampSpore(3),
+            new DuplicateSpore(0)
+    };
 
     /**
      * Konstruktor egy gombatest létrehozásához.
@@ -26,47 +35,27 @@ public class MushBody implements Round, Observable {
         mature = false;
         location = loc;
         fireCount = 0;
-        spores = new ArrayList<>();
-        random = new Random();
+        spores = new SporePile();
+        engine = loc.getEngine();
         name = n;
     }
 
-    @Override
-    public void addObserver(Observer observer) {
-        observers.add(observer);
-    }
-
-    @Override
-    public void removeObserver(Observer observer) {
-        observers.remove(observer);
-    }
-
-    @Override
-    public void notifyObservers() {
-        for (Observer observer : observers) {
-            observer.update();
-        }
-    }
-
     /**
-     * A spórák lista elejéről visszaad annyi darabot egy listában,
-     * ahányra paraméterként parancsot kapott
+     * A spórák lista elejéről annyi darabot tesz át a tecton felszínére,
+     * ahányra paraméterként parancsot kapott (ha kevesebb van, az összeset).
+     * Szakaszonként egy lépésben mozgat, köztes lista nélkül; a legrégebben
+     * termelt spórák kerülnek ki elsőként.
      * 
+     * @param tecton - a tecton, amelyre a spórák kerülnek
      * @param amount - mennyiség
+     * @return az áttett spórák száma
      */
-    public List<MushSpore> removeSpores(int amount) {
-        if (amount > spores.size())
-            return null; // Többet nem lehet kivenni, mint ami van benne
-
-        List<MushSpore> sporesToRemove = new ArrayList<>();
-        for (int i = 0; i < amount; i++) {
-            sporesToRemove.add(spores.get(i));
-        }
-        for (int i = 0; i < amount; i++) {
-            spores.remove(0);
-        }
+    public int transferSpores(Tecton tecton, int amount) {
+        int moved = spores.moveTo(tecton.getSporePile(), amount);
         fireCount++;
-        return sporesToRemove;
+        markChanged(engine, ChangeBus.SPORES);
+        tecton.markChanged(engine, ChangeBus.SPORES);
+        return moved;
     }
 
     /**
@@ -77,19 +66,23 @@ public class MushBody implements Round, Observable {
     }
 
     /**
-     * Egy random spórát ad a spróák listához
+     * Körönként a beállításokban megadott számú random spórát ad a spórák
+     * listához
      */
     public void addSporesPerRound() {
-        for (int i = 0; i < 5; i++) {
-            int rand = random.nextInt(5); // 0 és 5 közötti random szám
-            switch (rand) {
-                case 0 -> spores.add(new SlowSpore(2));
-                case 1 -> spores.add(new SpeedSpore(1));
-                case 2 -> spores.add(new StunSpore(4));
-                case 3 -> spores.add(new CrampSpore(3));
-                case 4 -> spores.add(new DuplicateSpore(0));
-                default -> throw new IllegalStateException("Wrong random number");
-            }
+        addSporesPerRound(engine.getRandom(RandomStream.SPORES));
+        markChanged(engine, ChangeBus.SPORES);
+    }
+
+    /**
+     * A körönkénti spóratermelés a megadott generátorral.
+     * 
+     * @param random a spórák típusát sorsoló generátor
+     */
+    private void addSporesPerRound(GameRandom random) {
+        for (int i = 0; i < engine.getConfig().getSporesPerRound(); i++) {
+            int rand = random.nextInt(ROUND_SPORES.length); // 0 és 5 közötti random szám
+            spores.add(ROUND_SPORES[rand]);
         }
     }
 
@@ -112,15 +105,27 @@ public class MushBody implements Round, Observable {
      */
     public void die() {
         location = null;
+        markChanged(engine, ChangeBus.REMOVED);
     }
 
     @Override
     public void round() {
-        addSporesPerRound();
-        if (spores.size() >= 8)
+        computeRound(engine.getRandom(RandomStream.SPORES));
+    }
+
+    /**
+     * A kör végi számítás: spóratermelés, érés és elhalás. Csak a gombatest
+     * saját állapotát módosítja, így a gombatestek párhuzamosan is számolhatnak.
+     * 
+     * @param random a spórák típusát sorsoló generátor
+     */
+    void computeRound(GameRandom random) {
+        addSporesPerRound(random);
+        GameConfig config = engine.getConfig();
+        if (spores.size() >= config.getMaturitySpores())
             growMature();
 
-        if (fireCount >= 3)
+        if (fireCount >= config.getMaxFireCount())
             die();
     }
 
@@ -158,6 +163,7 @@ public class MushBody implements Round, Observable {
      */
     public void setMature(boolean mature) {
         this.mature = mature;
+        markChanged(engine, ChangeBus.STATE);
     }
 
     /**
@@ -176,6 +182,7 @@ public class MushBody implements Round, Observable {
      */
     public void setLocation(Tecton location) {
         this.location = location;
+        markChanged(engine, ChangeBus.POSITION);
     }
 
     /**
@@ -197,6 +204,7 @@ public class MushBody implements Round, Observable {
             throw new NullPointerException("MushSpore is null, cannot add to the list of spores");
         else {
             spores.add(spore);
+            markChanged(engine, ChangeBus.SPORES);
         }
 
     }
@@ -1,13 +1,12 @@
 package fungorium;
 
-import java.util.ArrayList;
-import java.util.List;
-import view.Observer;
-
-public abstract class MushSpore implements Observable {
-    protected int value;
-    private String type = "Spore";
-    protected List<Observer> observers = new ArrayList<>();
+/**
+ * A spórák közös őse. Egy spóra csak egy típus és egy érték, ezért a
+ * példányok megváltoztathatatlanok, és a spórahalmok ({@link SporePile})
+ * fajtánként egy közös példányt tartanak belőlük.
+ */
+public abstract class MushSpore {
+    protected final int value;
 
     /**
      * konstruktor
@@ -19,31 +18,10 @@ public abstract class MushSpore implements Observable {
         this.value = value;
     }
 
-    @Override
-    public void addObserver(Observer observer) {
-        observers.add(observer);
-    }
-
-    @Override
-    public void removeObserver(Observer observer) {
-        observers.remove(observer);
-    }
-
-    @Override
-    public void notifyObservers() {
-        for (Observer observer : observers) {
-            observer.update();
-        }
-    }
-
     public int getValue() {
         return value;
     }
 
-    public void setValue(int value) {
-        this.value = value;
-    }
-
     // Absztrakt metódus, amelyet az alosztályoknak kell implementálniuk
     public abstract void giveEffect(Insect insect);
 
@@ -1,14 +1,10 @@
 package fungorium;
 
-import java.util.ArrayList;
-import java.util.List;
-import view.Observer;
-
 /**
  * Megvalósítja a gombafonal osztályt ami feladata hogy tektonok között
  * növekedjen és rajtuk tudjanak mozogni a rovarok
  */
-public class MushThread implements Round, Observable {
+public class MushThread extends ChangeTracked implements Round {
     /**
      * A fonal eleje
      */
@@ -29,25 +25,11 @@ public class MushThread implements Round, Observable {
      * A gomabtestel való kapcsolat megszünése után menyi ideje van mielőtt meghal
      */
     private int timeToDie;
-
-    private List<Observer> observers = new ArrayList<>();
-
-    @Override
-    public void addObserver(Observer observer) {
-        observers.add(observer);
-    }
-
-    @Override
-    public void removeObserver(Observer observer) {
-        observers.remove(observer);
-    }
-
-    @Override
-    public void notifyObservers() {
-        for (Observer observer : observers) {
-            observer.update();
-        }
-    }
+    /**
+     * Hány tecton fonallistáján szerepel a fonal; a Tecton tartja karban, és
+     * ez alapján veszi fel a fonalat a végpontjai illeszkedő fonalai közé.
+     */
+    private int holders;
 
     /**
      * Konstruktor
@@ -67,14 +49,36 @@ public class MushThread implements Round, Observable {
     }
 
     /**
-     * Megszünteti a fonalat, a start és end attribútumot NULL ra állítja és ezáltal
-     * megszünteti a fonál létezését
+     * Megszünteti a fonalat: leveszi a végpontjai fonallistájáról, a start és end
+     * attribútumot NULL ra állítja és ezáltal megszünteti a fonál létezését
      */
     public void takeThreadApart() {
+        if (start != null)
+            start.detachThread(this);
+        if (end != null)
+            end.detachThread(this);
         this.setStart(null);
         this.setEnd(null);
     }
 
+    /**
+     * Jelzi, hogy a fonal egy újabb tecton listájára került.
+     * 
+     * @return true, ha ez az első ilyen tecton
+     */
+    boolean addHolder() {
+        return holders++ == 0;
+    }
+
+    /**
+     * Jelzi, hogy a fonal lekerült egy tecton listájáról.
+     * 
+     * @return true, ha már egy tecton listáján sincs rajta
+     */
+    boolean removeHolder() {
+        return --holders == 0;
+    }
+
     // Ez szerintem már nem kell
     public void connect(MushBody mushBody) {
     }
@@ -86,12 +90,23 @@ public class MushThread implements Round, Observable {
      * Ha eléri a 0-t, akkor a MushThread végleg elpusztul.
      */
     public void round() {
+        RoundChanges changes = new RoundChanges();
+        computeRound(changes);
+        changes.commit();
+    }
+
+    /**
+     * A kör végi öregedés számítása: csak a fonal saját állapotát módosítja, a
+     * megszűnést a changes gyűjteménybe jegyzi fel.
+     * 
+     * @param changes a szerkezeti változások gyűjteménye
+     */
+    void computeRound(RoundChanges changes) {
         if (cutByInsect) {
             timeToDie -= 1;
         }
         if (timeToDie == 0) {
-            end.removeThread(this);
-            takeThreadApart();
+            changes.removeThread(this);
         }
     }
 
@@ -165,6 +180,7 @@ public class MushThread implements Round, Observable {
      */
     public void setCutByInsect(boolean cutByInsect) {
         this.cutByInsect = cutByInsect;
+        markStateChanged();
     }
 
     /**
@@ -187,6 +203,16 @@ public class MushThread implements Round, Observable {
      */
     public void setTimeToDie(int timeToDie) {
         this.timeToDie = timeToDie;
+        markStateChanged();
+    }
+
+    /**
+     * Jelzi az állapotváltozást a fonal motorjának változásgyűjtőjében (a
+     * motort az eleje adja; elbontott fonalnál nincs mit jelezni).
+     */
+    private void markStateChanged() {
+        if (start != null)
+            markChanged(start.getEngine(), ChangeBus.STATE);
     }
 
 }
\ No newline at end of file
@@ -4,14 +4,15 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
 
-import view.Observer;
-
 /**
  * A Gombász egy gombáját megvalósító osztályy, felel a játékos lépéseinek
  * elvégzéséért és a pontszám tárolásáért
  */
-public class Mushroom implements Player, Round, Observable {
-	private GameEngine engine=GameEngine.getInstance();
+public class Mushroom extends ChangeTracked implements Player, Round {
+	/**
+	 * A játékmotor, amelyhez a gomba tartozik
+	 */
+	private final GameEngine engine;
 	/**
 	 * A játékos neve aki birtokolja a gombát
 	 */
@@ -25,37 +26,20 @@ public class Mushroom implements Player, Round, Observable {
 	 */
 	private List<MushBody> mushbodies;
 
-	private List<Observer> observers = new ArrayList<>();
-
 	/**
 	 * Konstruktor
 	 * 
+	 * @param engine - a játékmotor, amelyhez a gomba tartozik
 	 * @param n - name
 	 * @param s - score
 	 */
-	public Mushroom(String n, int s) {
+	public Mushroom(GameEngine engine, String n, int s) {
+		this.engine = engine;
 		name = n;
 		score = s;
 		mushbodies = new ArrayList<MushBody>();
 	}
 
-	@Override
-	public void addObserver(Observer observer) {
-		observers.add(observer);
-	}
-
-	@Override
-	public void removeObserver(Observer observer) {
-		observers.remove(observer);
-	}
-
-	@Override
-	public void notifyObservers() {
-		for (Observer observer : observers) {
-			observer.update();
-		}
-	}
-
 	/**
 	 * A játékos által kiválasztott Tectonra elszórja a megadott mennyiségű spórát,
 	 * és a kiválasztott gombatest spórai közül pedig elveszi azokat,
@@ -65,26 +49,28 @@ public class Mushroom implements Player, Round, Observable {
 	 * @param mushBody - a MushBody amelyik kilövi a spórát
 	 * @param tecton   - a tecton amire a spóra kerül
 	 * @param amount   - a spora mennyiség amit ki szeretnénk lőni
+	 * @return true, ha a spórák kilövése sikerült
 	 */
-	public void fireSpore(MushBody mushBody, Tecton tecton, int amount) {
+	public boolean fireSpore(MushBody mushBody, Tecton tecton, int amount) {
 		Tecton mushBodyTecton = mushBody.getLocation();
 		boolean neighbors = mushBodyTecton.isNeighbor(tecton);
 		if (neighbors) {
-			for (MushSpore spore : mushBody.removeSpores(amount))
-				tecton.addSpore(spore);
+			mushBody.transferSpores(tecton, amount);
 			System.out.println(
 					"Firing " + amount + " spores from " + mushBody.getName() + " to tekton " + tecton.getId() + ".");
-			engine.next();
+			engine.notifyActionListeners(l -> l.onFireSpore(this, mushBody, tecton, amount));
+			return true;
 		} else if (!neighbors && mushBody.isMature() && tecton.hasSameNeighbor(mushBodyTecton)) {
-			for (MushSpore spore : mushBody.removeSpores(amount))
-				tecton.addSpore(spore);
+			mushBody.transferSpores(tecton, amount);
 			System.out.println(
 					"Firing " + amount + " spores from " + mushBody.getName() + " to tekton " + tecton.getId() + ".");
-			engine.next();
+			engine.notifyActionListeners(l -> l.onFireSpore(this, mushBody, tecton, amount));
+			return true;
 		} else {
 			System.out
 					.println("Firing " + amount + " spores from " + mushBody.getName() + " to tekton " + tecton.getId()
 							+ " failed because tecton " + tecton.getId() + " is not in firing range.");
+			return false;
 		}
 	}
 
@@ -94,14 +80,10 @@ public class Mushroom implements Player, Round, Observable {
 	 * ezekután gomba testet növeszt, ha tud azon a Tectonon.
 	 * 
 	 * @param thread - a fonál amivel megeszi a rovart
+	 * @return true, ha a rovart megette (akkor is, ha új gombatest nem nőhetett)
 	 */
-	public void eatInsectWithThread(MushBody musbody, Tecton tecton) {
-		Insect insect = null;
-		for (Insect i : GameEngine.getInstance().getInsects()) {
-			if (i.getPosition() == tecton) {
-				insect = i;
-			}
-		}
+	public boolean eatInsectWithThread(MushBody musbody, Tecton tecton) {
+		Insect insect = tecton.getLastRegisteredInsect();
 		if (insect != null) {
 			boolean edible = false;
 			for (MushThread thread : tecton.getThreads()) {
@@ -112,7 +94,8 @@ public class Mushroom implements Player, Round, Observable {
 
 				System.out.println("Eating " + insect.getName() + " with " + musbody.getName()
 						+ " with thread from tecton " + tecton.getId() + ".");
-				engine.getInsects().remove(insect);			
+				engine.removeInsect(insect);
+				engine.notifyActionListeners(l -> l.onEatInsect(this, musbody, tecton));
 				//insect.die();
 				String mushBodyName = name;
 				MushBody newMushBody = tecton.addMushBody(mushBodyName);
@@ -121,10 +104,10 @@ public class Mushroom implements Player, Round, Observable {
 					addScore(1);
 					System.out.println(
 							"Growing new mushroom " + newMushBody.getName() + " on tekton " + tecton.getId() + ".");
-					engine.next();
 				} else
 					System.out.println("Growing new mushroom Gomba1 on tekton " + tecton.getId()
 							+ " failed because tekton " + tecton.getId() + " is a ZEROTECTON.");
+				return true;
 			} else
 				System.out.println(
 						"Eating " + insect.getName() + " with " + musbody.getName() + " with thread from tecton "
@@ -133,6 +116,7 @@ public class Mushroom implements Player, Round, Observable {
 			System.out.println("Eating with " + musbody.getName() + " with thread from tecton "
 					+ tecton.getId() + " failed because there is no insect on " + tecton.getId() + ".");
 		}
+		return false;
 	}
 
 	/**
@@ -140,8 +124,9 @@ public class Mushroom implements Player, Round, Observable {
 	 * abban az esetben ha azon van gombafonala és megfelelő mennyiségű spóra.
 	 * 
 	 * @param tecton - a tecton amire a MushBody kerül
+	 * @return true, ha a gombatest létrejött
 	 */
-	public void growMushBody(Tecton tecton) {
+	public boolean growMushBody(Tecton tecton) {
 		boolean mythread = false;
 
 		for (MushThread thread : tecton.getThreads()) {
@@ -154,16 +139,17 @@ public class Mushroom implements Player, Round, Observable {
 					mythread = true;
 			}
 		}
-		if (tecton.getSpores().size() >= 10 && mythread) {
+		if (tecton.getSpores().size() >= engine.getConfig().getMushBodySporeCost() && mythread) {
 			String mushBodyName = name;
 			MushBody newMushBody = tecton.addMushBody(mushBodyName);
 			if (newMushBody != null) {
 				mushbodies.add(newMushBody);
 				addScore(1);
-				tecton.getSpores().removeAll(tecton.getSpores());
+				tecton.getSpores().clear();
 				System.out.println(
 						"Growing new mushroom " + newMushBody.getName() + " on tekton " + tecton.getId());
-				engine.next();
+				engine.notifyActionListeners(l -> l.onGrowMushBody(this, tecton));
+				return true;
 			} else {
 				System.out.println(
 						"Growing new mushroom " + getName() + " on tekton " + tecton.getId() + " failed because tekton "
@@ -173,6 +159,7 @@ public class Mushroom implements Player, Round, Observable {
 			System.out.println("Growing new mushroom on tekton " + tecton.getId()
 					+ " failed because there aren't enough spores on tekton " + tecton.getId() + ".");
 		}
+		return false;
 	}
 
 	/**
@@ -180,38 +167,41 @@ public class Mushroom implements Player, Round, Observable {
 	 * 
 	 * @param tecton - tecton amire a MushThread kerül
 	 * @param body   - MushBody ami a thread-et növeszti
+	 * @return true, ha a fonal megnőtt
 	 */
-	public void growThread(Tecton tecton, MushBody body) {
+	public boolean growThread(Tecton tecton, MushBody body) {
 		boolean canGrow = false;
 		Tecton neighbor = null;
 		for (Tecton tec : tecton.getNeighbors()) {
 			if (!tecton.soloSecurity(tec)) continue;
-			if (tec.checkIfConnectedByThread(body.getLocation()) != -1) {
+			if (tec.isConnectedByThread(body.getLocation())) {
 				canGrow = true;
 				neighbor = tec;
 			}
 		}
 		if (canGrow) {
+			GameRandom random = engine.getRandom(RandomStream.THREADS);
 			MushThread newthread = new MushThread(neighbor, tecton, body);
 			boolean added = tecton.addThread(newthread);
 			if (added){
+				engine.notifyActionListeners(l -> l.onGrowThread(this, body, tecton));
 				if (tecton.getSpores().size() <= 0){
-					engine.next();
 					System.out.println("Extending thread of " + body.getName() + " to tekton " + tecton.getId() + ".");
-				}
-			
-
-				if (tecton.getSpores().size() > 0) {
-					int szam = (int) (Math.random() * tecton.getNeighbors().size());
-					MushThread newthread2 = new MushThread(tecton, tecton.getNeighbors().get(szam), body);
-					while (!tecton.addThread(newthread2)) {
-						szam = (int) (Math.random() * tecton.getNeighbors().size());
-						newthread2 = new MushThread(tecton, tecton.getNeighbors().get(szam), body);
+				} else {
+					List<Tecton> targets = tecton.getNeighbors();
+					int szam = random.nextInt(targets.size());
+					boolean added2 = false;
+					// Minden szomszédot legfeljebb egyszer próbál, így telített SOLOTECTON mellett sem akad el
+					for (int i = 0; i < targets.size() && !added2; i++) {
+						int idx = (szam + i) % targets.size();
+						added2 = tecton.addThread(new MushThread(tecton, targets.get(idx), body));
+						if (added2)
+							szam = idx;
 					}
-					engine.next();
 					System.out.println("Extending thread of " + body.getName() + " to tekton "
-						+ tecton.getNeighbors().get(szam).getId() + ".");
+						+ (added2 ? targets.get(szam) : tecton).getId() + ".");
 				}
+				return true;
 			} else
 				System.out.println("Extending thread of " + body.getName() + " to tekton " + tecton.getId()
 					+ " failed because tekton " + tecton.getId() + " is a SOLOTECTON and already has a thread.");
@@ -219,6 +209,7 @@ public class Mushroom implements Player, Round, Observable {
 			System.out.println("Extending thread of " + body.getName() + " to tekton " + tecton.getId()
 					+ " failed because tekton " + tecton.getId() + " is not near a thread or would cause SOLOTECTON rule violation.");
 			} 
+		return false;
 	}
 
 	/**
@@ -229,6 +220,7 @@ public class Mushroom implements Player, Round, Observable {
 	public void addScore(int s) {
 
 		score += s;
+		markChanged(engine, ChangeBus.STATE);
 	}
 
 	/**
@@ -394,6 +386,7 @@ public class Mushroom implements Player, Round, Observable {
 	 */
 	public void setScore(int score) {
 		this.score = score;
+		markChanged(engine, ChangeBus.STATE);
 	}
 
 	/**
@@ -407,10 +400,12 @@ public class Mushroom implements Player, Round, Observable {
 
 	public void addMushBody(MushBody body) {
 		mushbodies.add(body);
+		markChanged(engine, ChangeBus.MUSH_BODY);
 	}
 
 	public void removeMushBody(MushBody body) {
 		mushbodies.remove(body);
+		markChanged(engine, ChangeBus.MUSH_BODY);
 	}
 
 }
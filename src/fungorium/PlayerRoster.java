@@ -0,0 +1,84 @@
+package fungorium;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Egy rovarász játékos (pl. "i0") rovarainak nyilvántartása.
+ * A GameEngine tartja karban: a rovarok felvételekor és eltávolításakor,
+ * valamint a pontszámuk változásakor frissül, így a játékos rovarai és
+ * összpontszáma a játékban lévő összes rovar bejárása nélkül lekérdezhető.
+ */
+public final class PlayerRoster {
+    /**
+     * A játékos kétkarakteres neve.
+     */
+    private final String owner;
+    /**
+     * A játékos élő rovarai a felvétel sorrendjében.
+     */
+    private final List<Insect> insects = new ArrayList<>();
+    /**
+     * A játékos élő rovarainak összpontszáma.
+     */
+    private int score;
+
+    /**
+     * @param owner a játékos kétkarakteres neve
+     */
+    PlayerRoster(String owner) {
+        this.owner = owner;
+    }
+
+    /**
+     * Felvesz egy rovart a játékoshoz, a pontszámát hozzáadja az összeghez.
+     *
+     * @param insect a felvett rovar
+     */
+    void add(Insect insect) {
+        insects.add(insect);
+        score += insect.getScore();
+    }
+
+    /**
+     * Eltávolít egy rovart a játékostól, a pontszámát levonja az összegből.
+     *
+     * @param insect az eltávolított rovar
+     */
+    void remove(Insect insect) {
+        if (insects.remove(insect)) {
+            score -= insect.getScore();
+        }
+    }
+
+    /**
+     * Egy rovar pontszámának változását vezeti át az összegbe.
+     *
+     * @param delta a változás mértéke
+     */
+    void addScore(int delta) {
+        score += delta;
+    }
+
+    /**
+     * @return a játékos kétkarakteres neve
+     */
+    public String getOwner() {
+        return owner;
+    }
+
+    /**
+     * @return a játékos élő rovarai (csak olvasható nézet)
+     */
+    public List<Insect> getInsects() {
+        return Collections.unmodifiableList(insects);
+    }
+
+    /**
+     * @return a játékos élő rovarainak összpontszáma
+     */
+    public int getScore() {
+        return score;
+    }
+}
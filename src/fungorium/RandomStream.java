@@ -0,0 +1,33 @@
+package fungorium;
+
+/**
+ * A játékmotor független véletlen-folyamai. Minden alrendszer a saját
+ * generátorát használja, így az egyik alrendszer hívásainak száma nem
+ * befolyásolja a többi által kapott számokat.
+ */
+public enum RandomStream {
+    /**
+     * A térkép (tectonok típusa, repedési ideje) generálása.
+     */
+    MAP,
+    /**
+     * A játékosok kezdőpozícióinak kiválasztása.
+     */
+    PLAYERS,
+    /**
+     * A gombatestek körönkénti spóratermelése.
+     */
+    SPORES,
+    /**
+     * A spórák elfogyasztása (melyik spórát eszi meg a rovar).
+     */
+    FEEDING,
+    /**
+     * A tectonok saját eseményei: törés, kiszáradás, fonalgyógyítás.
+     */
+    TECTONS,
+    /**
+     * A fonalnövesztés véletlen döntései.
+     */
+    THREADS
+}
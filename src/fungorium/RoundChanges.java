@@ -0,0 +1,70 @@
+package fungorium;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A kör végi feldolgozás során összegyűjtött szerkezeti változások: elhaló
+ * fonalak és kettétörő tectonok.
+ *
+ * <p>
+ * A kör végi számítás (spóratermelés, kiszáradás, fonalak öregedése, törési
+ * visszaszámlálás) csak a saját objektumát módosítja, és a több tectont érintő
+ * változásokat ide jegyzi fel. Ezeket a {@link #commit()} egy szálon, a
+ * feljegyzés sorrendjében hajtja végre, így az eredmény független attól, hogy a
+ * számítás hány szálon futott.
+ * </p>
+ */
+final class RoundChanges {
+    /**
+     * A kör végén megszűnő fonalak.
+     */
+    private final List<MushThread> threadsToRemove = new ArrayList<>();
+    /**
+     * A kör végén kettétörő tectonok.
+     */
+    private final List<Tecton> tectonsToCrack = new ArrayList<>();
+
+    /**
+     * Feljegyzi, hogy a fonal a kör végén megszűnik.
+     *
+     * @param thread a megszűnő fonal
+     */
+    void removeThread(MushThread thread) {
+        threadsToRemove.add(thread);
+    }
+
+    /**
+     * Feljegyzi, hogy a tecton a kör végén kettétörik.
+     *
+     * @param tecton a kettétörő tecton
+     */
+    void crack(Tecton tecton) {
+        tectonsToCrack.add(tecton);
+    }
+
+    /**
+     * Hozzáfűzi a másik gyűjtemény változásait ehhez (azok sorrendjében).
+     *
+     * @param other a hozzáfűzendő változások
+     */
+    void append(RoundChanges other) {
+        threadsToRemove.addAll(other.threadsToRemove);
+        tectonsToCrack.addAll(other.tectonsToCrack);
+    }
+
+    /**
+     * Végrehajtja a feljegyzett változásokat: előbb megszünteti a fonalakat,
+     * majd sorban kettétöri a tectonokat, végül kiüríti a gyűjteményt.
+     */
+    void commit() {
+        for (MushThread thread : threadsToRemove) {
+            thread.takeThreadApart();
+        }
+        for (Tecton tecton : tectonsToCrack) {
+            tecton.crack();
+        }
+        threadsToRemove.clear();
+        tectonsToCrack.clear();
+    }
+}
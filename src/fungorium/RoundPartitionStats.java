@@ -0,0 +1,99 @@
+package fungorium;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Egy kör végi feldolgozás tectonrészenkénti mérései: részenként a tectonok
+ * száma és a számítási fázis ideje. A részek közötti egyenlőtlenség
+ * (a leglassabb rész ideje az átlaghoz képest) mutatja, mennyire használja ki
+ * a párhuzamos feldolgozás a magokat.
+ */
+public final class RoundPartitionStats {
+    /**
+     * Üres mérés (még nem volt kör vége).
+     */
+    static final RoundPartitionStats EMPTY = new RoundPartitionStats(new int[0], new int[0], new long[0], 0);
+
+    private final int[] partitions;
+    private final int[] sizes;
+    private final long[] nanos;
+    private final long commitNanos;
+
+    /**
+     * @param partitions  a részek azonosítói
+     * @param sizes       a részek tectonjainak száma
+     * @param nanos       a részek számítási ideje nanoszekundumban
+     * @param commitNanos a szerkezeti változások soros végrehajtásának ideje
+     */
+    RoundPartitionStats(int[] partitions, int[] sizes, long[] nanos, long commitNanos) {
+        this.partitions = partitions;
+        this.sizes = sizes;
+        this.nanos = nanos;
+        this.commitNanos = commitNanos;
+    }
+
+    /**
+     * @return a feldolgozott (nem üres) részek száma
+     */
+    public int getPartitionCount() {
+        return partitions.length;
+    }
+
+    /**
+     * @param index a rész sorszáma (0 és getPartitionCount() - 1 között)
+     * @return a rész azonosítója
+     */
+    public int getPartition(int index) {
+        return partitions[index];
+    }
+
+    /**
+     * @param index a rész sorszáma
+     * @return a rész tectonjainak száma
+     */
+    public int getSize(int index) {
+        return sizes[index];
+    }
+
+    /**
+     * @param index a rész sorszáma
+     * @return a rész számítási ideje nanoszekundumban
+     */
+    public long getNanos(int index) {
+        return nanos[index];
+    }
+
+    /**
+     * @return a szerkezeti változások (fonalak megszűnése, törések) soros
+     *         végrehajtásának ideje nanoszekundumban
+     */
+    public long getCommitNanos() {
+        return commitNanos;
+    }
+
+    /**
+     * @return a leglassabb rész ideje nanoszekundumban
+     */
+    public long getMaxNanos() {
+        return Arrays.stream(nanos).max().orElse(0);
+    }
+
+    /**
+     * @return a leglassabb rész idejének aránya az átlagoshoz (1.0: teljesen
+     *         kiegyensúlyozott; 0, ha nem volt rész)
+     */
+    public double getImbalance() {
+        if (nanos.length == 0) {
+            return 0;
+        }
+        double mean = Arrays.stream(nanos).sum() / (double) nanos.length;
+        return mean == 0 ? 1.0 : getMaxNanos() / mean;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "partitions=%d max=%.3fms imbalance=%.2f commit=%.3fms",
+                partitions.length, getMaxNanos() / 1e6, getImbalance(), commitNanos / 1e6);
+    }
+}
@@ -0,0 +1,223 @@
+package fungorium;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * A kör végi feldolgozást végző osztály, két fázisban.
+ *
+ * <p>
+ * Számítási fázis: a gombatestek (spóratermelés, érés, elhalás) rögzített
+ * méretű csoportokban számolnak. A tectonok kiszáradási és törési
+ * visszaszámlálása a {@link TectonTable} tömbjein, sorszámtartományonként
+ * egy szoros ciklusban fut; utána a tectonrészeik szerint csak azok a
+ * tectonok számolnak objektumként (fonalak gyógyulása, öregedése és
+ * felszívódása, törés), amelyeknek van fonala, vagy kettétörnek. Nagy
+ * térképen a csoportok, a tartományok, illetve a részek párhuzamosan,
+ * egyenként egy feladatként futnak. A tectonrészek összefüggő régiók (a
+ * generált rács sorsávjai, egyébként a felvétel sorrendjében egymást követő
+ * tectonok), és a törésből keletkező tecton az eredeti részében marad. Minden
+ * csoport és rész saját, a kör kezdőértékéből és a sorszámából származtatott
+ * véletlenszám-generátort kap, így az eredmény nem függ a szálak számától és
+ * ütemezésétől.
+ * </p>
+ *
+ * <p>
+ * Végrehajtási fázis: a részhatáron átnyúló hatások (fonalak megszűnése,
+ * törések a szomszédságok átrendezésével) a részek saját változásgyűjteményébe
+ * kerülnek, és a számítás után egy szálon, a részek sorrendjében hajtódnak
+ * végre. A részenkénti számítási időket a {@link RoundPartitionStats} őrzi meg.
+ * </p>
+ */
+final class RoundProcessor {
+    /**
+     * Egy csoportba tartozó objektumok száma.
+     */
+    static final int CHUNK_SIZE = 1024;
+    /**
+     * Ennyi objektumtól kezdve fut párhuzamosan a számítási fázis; kisebb
+     * térképen a szálkezelés többe kerülne, mint amit nyer.
+     */
+    static final int PARALLEL_THRESHOLD = 4 * CHUNK_SIZE;
+    /**
+     * Egy tectonrészbe nagyjából ennyi tecton kerül.
+     */
+    static final int PARTITION_SIZE = CHUNK_SIZE;
+
+    private final GameEngine engine;
+    private RoundPartitionStats lastStats = RoundPartitionStats.EMPTY;
+
+    /**
+     * @param engine a játékmotor, amelynek a köreit feldolgozza
+     */
+    RoundProcessor(GameEngine engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * Lefuttatja egy kör végének feldolgozását: gombák, rovarok, majd tectonok.
+     * A feldolgozás alatt a változásgyűjtő szünetel (a számítási fázis
+     * párhuzamos), a kör egésze egyetlen {@link ChangeBus#ROUND} jelzést ad.
+     */
+    void processRound() {
+        ChangeBus changeBus = engine.getChangeBus();
+        changeBus.setSuspended(true);
+        try {
+            computeAndCommit();
+        } finally {
+            changeBus.setSuspended(false);
+        }
+        changeBus.markGlobal(ChangeBus.ROUND);
+    }
+
+    private void computeAndCommit() {
+        List<MushBody> bodies = new ArrayList<>();
+        for (Mushroom mushroom : engine.getMushrooms()) {
+            bodies.addAll(mushroom.getMushBodies());
+        }
+        // A kör közben keletkező új tectonok csak a következő körben számolnak
+        TectonTable table = engine.getTectonTable();
+        AdjacencyStore adjacency = engine.getAdjacency();
+        int slotCount = table.size();
+        long sporeSeed = engine.getRandom(RandomStream.SPORES).nextLong();
+        long tectonSeed = engine.getRandom(RandomStream.TECTONS).nextLong();
+
+        forEachChunk(bodies.size(), chunk -> {
+            GameRandom random = new GameRandom(GameRandom.deriveSeed(sporeSeed, chunk));
+            int end = Math.min(bodies.size(), (chunk + 1) * CHUNK_SIZE);
+            for (int i = chunk * CHUNK_SIZE; i < end; i++) {
+                bodies.get(i).computeRound(random);
+            }
+        });
+
+        for (Insect insect : engine.getInsects()) {
+            insect.round();
+        }
+
+        forEachChunk(slotCount, chunk -> table.advanceTimers(chunk * CHUNK_SIZE,
+                Math.min(slotCount, (chunk + 1) * CHUNK_SIZE)));
+
+        Partitions parts = new Partitions(table, slotCount);
+        int count = parts.ids.length;
+        RoundChanges[] changes = new RoundChanges[count];
+        long[] nanos = new long[count];
+        IntStream indices = IntStream.range(0, count);
+        if (parts.order.length >= PARALLEL_THRESHOLD) {
+            indices = indices.parallel();
+        }
+        indices.forEach(part -> {
+            long start = System.nanoTime();
+            GameRandom random = new GameRandom(GameRandom.deriveSeed(tectonSeed, parts.ids[part]));
+            RoundChanges partChanges = new RoundChanges();
+            for (int i = parts.start[part]; i < parts.start[part + 1]; i++) {
+                int slot = parts.order[i];
+                if (table.needsObjectRound(slot)) {
+                    adjacency.node(slot).computeRound(random, partChanges);
+                }
+            }
+            changes[part] = partChanges;
+            nanos[part] = System.nanoTime() - start;
+        });
+
+        long commitStart = System.nanoTime();
+        RoundChanges all = new RoundChanges();
+        for (RoundChanges partChanges : changes) {
+            all.append(partChanges);
+        }
+        all.commit();
+        lastStats = new RoundPartitionStats(parts.ids, parts.sizes(), nanos, System.nanoTime() - commitStart);
+    }
+
+    /**
+     * @return a legutóbbi kör végi feldolgozás részenkénti mérései
+     */
+    RoundPartitionStats getLastStats() {
+        return lastStats;
+    }
+
+    /**
+     * A játékban lévő tectonok sorszámai tectonrészek szerint csoportosítva
+     * (stabil rendezéssel, így egy részen belül a tectonok a létrehozásuk
+     * sorrendjében maradnak).
+     */
+    private static final class Partitions {
+        /**
+         * A nem üres részek azonosítói növekvő sorrendben.
+         */
+        final int[] ids;
+        /**
+         * A k. rész tectonjainak sorszámai az order tömb start[k] és
+         * start[k + 1] közötti részén állnak.
+         */
+        final int[] start;
+        final int[] order;
+
+        Partitions(TectonTable table, int slotCount) {
+            int[] slots = table.activeSlots(slotCount);
+            int max = -1;
+            for (int slot : slots) {
+                max = Math.max(max, table.partition(slot));
+            }
+            int[] counts = new int[max + 2];
+            for (int slot : slots) {
+                counts[table.partition(slot) + 1]++;
+            }
+            int nonEmpty = 0;
+            for (int count : counts) {
+                if (count > 0) {
+                    nonEmpty++;
+                }
+            }
+            ids = new int[nonEmpty];
+            start = new int[nonEmpty + 1];
+            int[] position = new int[counts.length];
+            int k = 0;
+            int pos = 0;
+            for (int p = 0; p < counts.length; p++) {
+                position[p] = pos;
+                if (counts[p] > 0) {
+                    ids[k] = p - 1;
+                    start[k++] = pos;
+                    pos += counts[p];
+                }
+            }
+            start[nonEmpty] = pos;
+            order = new int[slots.length];
+            for (int slot : slots) {
+                order[position[table.partition(slot) + 1]++] = slot;
+            }
+        }
+
+        int[] sizes() {
+            int[] sizes = new int[ids.length];
+            for (int k = 0; k < ids.length; k++) {
+                sizes[k] = start[k + 1] - start[k];
+            }
+            return sizes;
+        }
+    }
+
+    /**
+     * @param size az objektumok száma
+     * @return a csoportok száma
+     */
+    private static int chunkCount(int size) {
+        return (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    }
+
+    /**
+     * Lefuttatja a feladatot minden csoportra, nagy méretnél párhuzamosan.
+     *
+     * @param size a feldolgozandó objektumok száma
+     * @param task a csoport sorszámát kapó feladat
+     */
+    private static void forEachChunk(int size, IntConsumer task) {
+        IntStream chunks = IntStream.range(0, chunkCount(size));
+        if (size >= PARALLEL_THRESHOLD) {
+            chunks = chunks.parallel();
+        }
+        chunks.forEach(task);
+    }
+}
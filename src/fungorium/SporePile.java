@@ -0,0 +1,346 @@
+package fungorium;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * Spórák darabszám szerinti tárolója: fajtánként (azonos típusú és értékű
+ * spórák) egyetlen közös spórapéldány, a felvétel sorrendje pedig
+ * szakaszonként (egymás után felvett, azonos fajtájú spórák) egy fajta és egy
+ * darabszám. A tectonok és a gombatestek ebben tartják a spóráikat, így a
+ * spóratermelés és a spórák mozgatása nem hoz létre objektumot, és egy halom
+ * mérete a szakaszok számától függ, nem a spórákétól.
+ *
+ * <p>
+ * Listaként a spórák a felvételük sorrendjében állnak, mint egy listában: az
+ * i. elem a szakaszok számával arányos időben érhető el, a halom elejéről
+ * (a legrégebbi spórák) való kivétel pedig a kivett szakaszokéval. Véletlen
+ * indexű elem kiválasztása így is a darabszámokkal súlyozott fajtaválasztás.
+ * Az add mindig a halom végére vesz fel, a megadott indextől függetlenül. A
+ * listában szereplő spórapéldányok közösek, nem módosíthatók.
+ * </p>
+ */
+public final class SporePile extends AbstractList<MushSpore> implements RandomAccess {
+    private static final MushSpore[] NO_KINDS = new MushSpore[0];
+    private static final int[] NO_INTS = new int[0];
+
+    /**
+     * A fajták képviselői (az első felvett példány) és darabszámaik; a
+     * kiürült fajták helye megmarad.
+     */
+    private MushSpore[] kinds = NO_KINDS;
+    private int[] counts = NO_INTS;
+    private int kindCount;
+    /**
+     * A szakaszok a felvétel sorrendjében, a first és az end közötti helyeken:
+     * a fajta sorszáma és a darabszám. Üres szakasz nem marad bennük, és két
+     * szomszédos szakasz fajtája mindig különbözik.
+     */
+    private int[] runKinds = NO_INTS;
+    private int[] runCounts = NO_INTS;
+    private int first;
+    private int end;
+    private int size;
+
+    @Override
+    public MushSpore get(int index) {
+        checkIndex(index);
+        return kinds[runKinds[runAt(index)]];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean add(MushSpore spore) {
+        add(spore, 1);
+        return true;
+    }
+
+    @Override
+    public void add(int index, MushSpore spore) {
+        add(spore, 1);
+    }
+
+    /**
+     * Felvesz a halom végére a spóra fajtájából több darabot.
+     *
+     * @param spore a fajtát képviselő spóra
+     * @param count a darabszám
+     */
+    public void add(MushSpore spore, int count) {
+        if (spore == null) {
+            throw new NullPointerException("A spóra nem lehet null.");
+        }
+        if (count <= 0) {
+            return;
+        }
+        int kind = kindOf(spore);
+        if (kind < 0) {
+            if (kindCount == kinds.length) {
+                kinds = Arrays.copyOf(kinds, Math.max(4, kindCount * 2));
+                counts = Arrays.copyOf(counts, kinds.length);
+            }
+            kind = kindCount++;
+            kinds[kind] = spore;
+        }
+        appendRun(kind, count);
+        counts[kind] += count;
+        size += count;
+        modCount++;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends MushSpore> spores) {
+        if (spores instanceof SporePile) {
+            SporePile pile = (SporePile) spores;
+            for (int r = pile.first; r < pile.end; r++) {
+                add(pile.kinds[pile.runKinds[r]], pile.runCounts[r]);
+            }
+            return pile.size > 0;
+        }
+        return super.addAll(spores);
+    }
+
+    @Override
+    public MushSpore remove(int index) {
+        checkIndex(index);
+        int run = runAt(index);
+        MushSpore removed = kinds[runKinds[run]];
+        takeFromRun(run, 1);
+        modCount++;
+        return removed;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        int run = firstRunOf(o);
+        if (run < 0) {
+            return false;
+        }
+        takeFromRun(run, 1);
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        int run = firstRunOf(o);
+        if (run < 0) {
+            return -1;
+        }
+        int index = 0;
+        for (int r = first; r < run; r++) {
+            index += runCounts[r];
+        }
+        return index;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof MushSpore)) {
+            return false;
+        }
+        int kind = kindOf((MushSpore) o);
+        return kind >= 0 && counts[kind] > 0;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(counts, 0, kindCount, 0);
+        first = 0;
+        end = 0;
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Átteszi a halom elejéről (a legrégebben felvetteket) a megadott számú
+     * spórát egy másik halom végére, a sorrendjüket megtartva.
+     *
+     * @param target a cél halom
+     * @param amount a legfeljebb áttett spórák száma
+     * @return az áttett spórák száma
+     */
+    public int moveTo(SporePile target, int amount) {
+        int moved = 0;
+        while (first < end && moved < amount) {
+            int kind = runKinds[first];
+            int n = Math.min(runCounts[first], amount - moved);
+            target.add(kinds[kind], n);
+            counts[kind] -= n;
+            size -= n;
+            moved += n;
+            if ((runCounts[first] -= n) == 0) {
+                first++;
+            }
+        }
+        if (first == end) {
+            first = 0;
+            end = 0;
+        }
+        modCount++;
+        return moved;
+    }
+
+    /**
+     * Véletlenszerűen átteszi a spórák felét (lefelé kerekítve) egy másik
+     * halomba. Egyetlen menetben, kiválasztásos mintavétellel dolgozik: minden
+     * spóra annyi eséllyel kerül át, ahány helyet még be kell tölteni a
+     * hátralévők közül, így bármelyik fele ugyanolyan valószínű. Mindkét
+     * halomban megmarad a spórák egymáshoz viszonyított sorrendje.
+     *
+     * @param target a cél halom
+     * @param random a választás véletlenszám-generátora
+     */
+    void moveRandomHalfTo(SporePile target, GameRandom random) {
+        int remaining = size;
+        int needed = size / 2;
+        int write = first;
+        for (int r = first; r < end; r++) {
+            int kind = runKinds[r];
+            int moved = 0;
+            for (int i = 0; i < runCounts[r] && needed > 0; i++) {
+                if (random.nextInt(remaining) < needed) {
+                    moved++;
+                    needed--;
+                }
+                remaining--;
+            }
+            if (moved > 0) {
+                target.add(kinds[kind], moved);
+                counts[kind] -= moved;
+                size -= moved;
+            }
+            int kept = runCounts[r] - moved;
+            if (kept > 0) {
+                // A maradék a megelőző megtartott szakaszhoz fűződik, ha azonos fajtájú
+                if (write > first && runKinds[write - 1] == kind) {
+                    runCounts[write - 1] += kept;
+                } else {
+                    runKinds[write] = kind;
+                    runCounts[write] = kept;
+                    write++;
+                }
+            }
+        }
+        end = write;
+        modCount++;
+    }
+
+    /**
+     * Felvesz egy szakaszt a végére, vagy az utolsót növeli, ha azonos
+     * fajtájú.
+     */
+    private void appendRun(int kind, int count) {
+        if (end > first && runKinds[end - 1] == kind) {
+            runCounts[end - 1] += count;
+            return;
+        }
+        if (end == runKinds.length) {
+            int live = end - first;
+            if (first > 0 && live < runKinds.length / 2) {
+                // Az elejéről kivett szakaszok helye újra felhasználható
+                System.arraycopy(runKinds, first, runKinds, 0, live);
+                System.arraycopy(runCounts, first, runCounts, 0, live);
+            } else {
+                int capacity = Math.max(4, runKinds.length * 2);
+                int[] newKinds = new int[capacity];
+                int[] newCounts = new int[capacity];
+                System.arraycopy(runKinds, first, newKinds, 0, live);
+                System.arraycopy(runCounts, first, newCounts, 0, live);
+                runKinds = newKinds;
+                runCounts = newCounts;
+            }
+            first = 0;
+            end = live;
+        }
+        runKinds[end] = kind;
+        runCounts[end] = count;
+        end++;
+    }
+
+    /**
+     * Kivesz a szakaszból count darabot; a kiürült szakaszt törli, és az így
+     * egymás mellé kerülő azonos fajtájú szakaszokat összevonja.
+     */
+    private void takeFromRun(int run, int count) {
+        counts[runKinds[run]] -= count;
+        size -= count;
+        if ((runCounts[run] -= count) > 0) {
+            return;
+        }
+        if (run == first) {
+            first++;
+        } else if (run == end - 1) {
+            end--;
+        } else {
+            int from = run + 1;
+            if (runKinds[run - 1] == runKinds[run + 1]) {
+                runCounts[run - 1] += runCounts[run + 1];
+                from++;
+            }
+            int tail = end - from;
+            System.arraycopy(runKinds, from, runKinds, run, tail);
+            System.arraycopy(runCounts, from, runCounts, run, tail);
+            end = run + tail;
+        }
+        if (first == end) {
+            first = 0;
+            end = 0;
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", méret: " + size);
+        }
+    }
+
+    /**
+     * @return a szakasz helye, amelybe a halom index. spórája tartozik
+     */
+    private int runAt(int index) {
+        int r = first;
+        while (index >= runCounts[r]) {
+            index -= runCounts[r];
+            r++;
+        }
+        return r;
+    }
+
+    /**
+     * @return az első szakasz helye, amelynek fajtája a spóráé, vagy -1
+     */
+    private int firstRunOf(Object o) {
+        if (!(o instanceof MushSpore)) {
+            return -1;
+        }
+        int kind = kindOf((MushSpore) o);
+        if (kind < 0 || counts[kind] == 0) {
+            return -1;
+        }
+        int r = first;
+        while (runKinds[r] != kind) {
+            r++;
+        }
+        return r;
+    }
+
+    /**
+     * @return a spórával azonos típusú és értékű fajta sorszáma, vagy -1
+     */
+    private int kindOf(MushSpore spore) {
+        for (int k = 0; k < kindCount; k++) {
+            MushSpore kind = kinds[k];
+            if (kind == spore || (kind.getClass() == spore.getClass() && kind.getValue() == spore.getValue())) {
+                return k;
+            }
+        }
+        return -1;
+    }
+}
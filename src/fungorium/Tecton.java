@@ -1,15 +1,11 @@
 package fungorium;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.NoSuchElementException;
-import java.util.Queue;
-import java.util.Random;
-import java.util.Set;
-import view.Observer;
+import java.util.RandomAccess;
 
 /**
  * Absztrakt osztály, amely egy tektonikus mezőt reprezentál a játék világában.
@@ -24,28 +20,12 @@ import view.Observer;
  * Minden tekton példány egyedi azonosítóval rendelkezik.
  * </p>
  */
-public abstract class Tecton implements Round, Observable {
+public abstract class Tecton extends ChangeTracked implements Round {
 
-    protected List<Observer> observers = new ArrayList<>();
-
-    @Override
-    public void addObserver(Observer observer) {
-        observers.add(observer);
-    }
-
-    @Override
-    public void removeObserver(Observer observer) {
-        observers.remove(observer);
-    }
-
-    @Override
-    public void notifyObservers() {
-        for (Observer observer : observers) {
-            observer.update();
-        }
-    }
-
-    private boolean cracked;
+    /**
+     * A játékmotor, amelyhez a Tecton tartozik.
+     */
+    private final GameEngine engine;
 
     /**
      * Egyedi azonosítóként szolgál, mely minden Tecton példányt egyértelműen
@@ -54,14 +34,29 @@ public abstract class Tecton implements Round, Observable {
     private int id;
 
     /**
-     * Lista, mely tárolja a tekton szomszédos tektonjait.
+     * A tekton sorszáma a játékmotor szomszédsági tárolójában és
+     * tectontáblájában (az azonosítóval ellentétben sosem változik). A típus,
+     * a törési és a kiszáradási idő, a tectonrész és a törtség a
+     * {@link TectonTable} tömbjeiben, e sorszám alatt áll.
+     */
+    private final int slot;
+
+    /**
+     * A tekton helye a térképen (lásd {@link MapLayout}).
      */
-    private List<Tecton> neighbors;
+    private int x;
+    private int y;
+
+    /**
+     * A tekton szomszédos tektonjai, a játékmotor szomszédsági tárolójának
+     * nézeteként.
+     */
+    private final NeighborList neighbors = new NeighborList();
 
     /**
      * Lista, mely tárolja a tekton felszínén található spórákat.
      */
-    private List<MushSpore> spores;
+    private final SporePile spores = new SporePile();
 
     /**
      * Attribútum, mely tárolja, hogy van-e MushBody a Tecton felszínén.
@@ -71,49 +66,78 @@ public abstract class Tecton implements Round, Observable {
     /**
      * Attribútum, mely tárolja a tektonon található fonalakat.
      */
-    private List<MushThread> threads;
+    private final List<MushThread> threads = new ThreadList(this);
+
+    /**
+     * A tektonba futó (a kezdő- vagy végpontjuk ez a tekton) fonalak, akármelyik
+     * tekton listáján is vannak nyilvántartva. A fonallisták módosításakor
+     * frissül, így a fonalak mentén haladó bejárásoknak nem kell a szomszédok
+     * listáit átnézniük.
+     */
+    private final List<MushThread> incidentThreads = new ArrayList<>();
+    private final List<MushThread> incidentThreadsView = Collections.unmodifiableList(incidentThreads);
 
     /**
-     * Attribútum, mely azt foglalja magába, hogy egy tekton hány kör után törik
-     * ketté.
+     * A saját fonallistán lévő, ebbe a tektonba futó fonalak száma; a
+     * fonallista tartja karban. Az illeszkedő fonalak közül a többi más
+     * tekton listáján van.
      */
-    private int crackTime;
+    private int ownIncidentThreads;
 
-    // Statikus változó, minden Tecton példány között közös.
-    // Arra szolgál, hogy egyedi azonosítót rendeljen minden új Tectonhoz.
-    public static int idCount = 1;
+    /**
+     * A tektonon tartózkodó, a játékba felvett rovarok. Az Insect és a
+     * GameEngine tartja karban.
+     */
+    private final List<Insect> insects = new ArrayList<>();
+
+    /**
+     * A játékmotor bejárásai által használt látogatási jel: ha megegyezik a
+     * bejárás sorszámával, a tekton már sorra került.
+     */
+    private int visitMark;
 
     /**
      * Tecton osztály konstruktora.
-     * Beállítja az egyedi azonosítót, repedési időt és inicializálja a listákat.
+     * Beállítja az egyedi azonosítót (a játékmotor osztja ki), felveszi a
+     * tektont a játékmotor szomszédsági tárolójába és tectontáblájába a
+     * típusával és repedési idejével. Kiszáradó típusnál kisorsolja a
+     * felszívódási időt.
      *
+     * @param engine    A játékmotor, amelyhez a Tecton tartozik.
      * @param crackTime Az adott Tecton repedési ideje.
+     * @param type      A Tecton típusa.
      */
-    public Tecton(int crackTime) {
-        this.id = idCount;
-        this.crackTime = crackTime;
-        this.spores = new ArrayList<>();
-        this.threads = new ArrayList<>();
-        this.neighbors = new ArrayList<>();
+    protected Tecton(GameEngine engine, int crackTime, TectonType type) {
+        this.engine = engine;
+        this.id = engine.nextTectonId();
+        this.slot = engine.getAdjacency().register(this);
         this.mushbody = null;
-        idCount++;
+        int dryTime = 0;
+        if (type.dries()) {
+            dryTime = engine.getRandom(RandomStream.TECTONS).nextInt(type.getMaxDryDelay()) + 1;
+        }
+        engine.getTectonTable().register(slot, type, crackTime, dryTime);
     }
 
     /**
      * Hozzáad egy MushBody-t a Tecton felszínéhez.
-     * Csak akkor engedélyezett, ha még nincs rajta MushBody.
-     * A ZeroTecton osztály felülírja ezt a metódust.
+     * Csak akkor engedélyezett, ha a típusa megengedi, és még nincs rajta
+     * MushBody.
      *
      * @param mushBodyName a hozzáadandó MushBody objektum
-     * @throws IllegalStateException ha már van MushBody a Tectonon
+     * @return az új MushBody, vagy null, ha nem jöhetett létre
      */
     public MushBody addMushBody(String mushBodyName) {
+        if (!getTectonType().allowsMushBody()) {
+            return null;
+        }
         if (this.mushbody != null) {
             //throw new IllegalStateException("There is already a MushBody on the selected Tecton!");
             return null;
         }
         MushBody mushBody = new MushBody(this, mushBodyName);
         this.mushbody = mushBody;
+        markChanged(engine, ChangeBus.MUSH_BODY);
         return mushBody;
     }
 
@@ -127,6 +151,7 @@ public abstract class Tecton implements Round, Observable {
             return;
         }
         this.mushbody = null;
+        markChanged(engine, ChangeBus.MUSH_BODY);
     }
 
     /**
@@ -142,6 +167,7 @@ public abstract class Tecton implements Round, Observable {
             throw new IllegalArgumentException("A spóra nem lehet null.");
         }
         spores.add(mushSpore);
+        markChanged(engine, ChangeBus.SPORES);
     }
 
     /**
@@ -161,6 +187,7 @@ public abstract class Tecton implements Round, Observable {
             throw new NoSuchElementException("A törölni kívánt spóra nem található.");
         }
         spores.remove(mushSpore);
+        markChanged(engine, ChangeBus.SPORES);
     }
 
     /**
@@ -176,8 +203,7 @@ public abstract class Tecton implements Round, Observable {
             throw new NoSuchElementException("Nincs spóra a tekton felszínén.");
         }
 
-        Random random = new Random();
-        int index = random.nextInt(spores.size());
+        int index = engine.getRandom(RandomStream.FEEDING).nextInt(spores.size());
 
         return spores.get(index);
     }
@@ -190,27 +216,11 @@ public abstract class Tecton implements Round, Observable {
      * @throws IllegalArgumentException Ha a megadott tekton a már meglévő tekton.
      */
     public void addNeighbor(Tecton tecton) {
-        if (neighbors.contains(tecton)) {
-            return;    
-        }
-
-        neighbors.add(tecton);
-        tecton.addNeighbor(this);
-    }
-
-    /**
-     * Privát metódus, amely egy adott tekton szomszédait törli a paraméterként
-     * kapott listában szereplő szomszédok közül.
-     * A metódus felelős azért, hogy a két tekton közötti szomszédsági viszonyokat
-     * frissítse.
-     * 
-     * @param neighbors A törlendő szomszédok listája, amely az aktuális tekton
-     *                  szomszédai közül kerül kiválasztásra.
-     */
-    private void removeNeighbors(List<Tecton> neighbors) {
-        for (Tecton neighbor : neighbors) {
-            this.removeNeighbor(neighbor);
-            neighbor.addNeighbor(this);
+        AdjacencyStore adjacency = engine.getAdjacency();
+        if (adjacency.add(slot, tecton.slot)) {
+            adjacency.add(tecton.slot, slot);
+            markChanged(engine, ChangeBus.TOPOLOGY);
+            tecton.markChanged(engine, ChangeBus.TOPOLOGY);
         }
     }
 
@@ -220,8 +230,8 @@ public abstract class Tecton implements Round, Observable {
      * @param neighbor A törlendő szomszéd, amelyet el kell távolítani a listából.
      */
     public void removeNeighbor(Tecton neighbor) {
-        if (neighbor != null) {
-            this.neighbors.remove(neighbor);
+        if (neighbor != null && engine.getAdjacency().remove(slot, neighbor.slot)) {
+            markChanged(engine, ChangeBus.TOPOLOGY);
         }
     }
 
@@ -238,7 +248,7 @@ public abstract class Tecton implements Round, Observable {
         if (tecton == null || tecton == this) {
             return false;
         }
-        return this.neighbors.contains(tecton);
+        return engine.getAdjacency().contains(slot, tecton.slot);
     }
 
     /**
@@ -252,27 +262,76 @@ public abstract class Tecton implements Round, Observable {
         if (thread == null) {
             throw new IllegalArgumentException("A thread nem lehet null.");
         }
+        TectonType type = getTectonType();
+        if (type.limitsThreads()) {
+            // Korlátozott típusnál csak a saját lista telítettsége dönt a
+            // visszatérési értékről; a végpontok szabálya ilyenkor csak a
+            // felvételt akadályozhatja meg
+            if (threads.size() >= type.getMaxThreads()) return false;
+            addCheckedThread(thread);
+            return true;
+        }
+        return addCheckedThread(thread);
+    }
+
+    /**
+     * Felveszi a fonalat, ha egyik végpontja sem sérti a fonalkorlátot.
+     */
+    private boolean addCheckedThread(MushThread thread) {
         if (!soloSecurity(thread.getStart()) || !soloSecurity(thread.getEnd())) return false;
         this.threads.add(thread);
         return true;
     }
 
+    /**
+     * Eldönti, hogy az addThread elfogadná-e a megadott végpontú fonalat, a
+     * tekton módosítása nélkül.
+     * 
+     * @param start a fonal eleje
+     * @param end   a fonal vége
+     * @return true, ha a fonal felkerülhet a tektonra
+     */
+    boolean acceptsThread(Tecton start, Tecton end) {
+        TectonType type = getTectonType();
+        if (type.limitsThreads()) {
+            return threads.size() < type.getMaxThreads();
+        }
+        return soloSecurity(start) && soloSecurity(end);
+    }
+
+    /**
+     * Megadja, hogy a tektonhoz kapcsolódó fonalak száma korlátozott-e (a
+     * soloSecurity szabály vonatkozik-e rá).
+     * 
+     * @return true, ha a tekton fonalainak száma korlátozott
+     */
+    boolean isThreadLimited() {
+        return getTectonType().limitsThreads();
+    }
+
+    /**
+     * Eldönti, hogy az addMushBody létrehozna-e gombatestet a tektonon, a
+     * tekton módosítása nélkül.
+     * 
+     * @return true, ha a típusa megengedi, és nincs még gombatest a tektonon
+     */
+    boolean acceptsMushBody() {
+        return getTectonType().allowsMushBody() && this.mushbody == null;
+    }
 
     
     /**
-     * //Eldönti hogy a SOLOTECTON kaphat-e még fonalat
+     * //Eldönti hogy a SOLOTECTON kaphat-e még fonalat: a saját fonalai és a
+     * más tekton listáján lévő, belé futó fonalak együtt sem érhetik el a
+     * korlátot. Mindkét szám karban van tartva, így konstans idejű.
      * 
      * @param solo A SoloTecton
      * @return true, ha lehet új fonala
      */
     public boolean soloSecurity(Tecton solo){
-        if (solo.getType().equals("SOLOTECTON")){
-            if (!solo.getThreads().isEmpty()) return false;
-            for (Tecton t: solo.getNeighbors()){
-                for (MushThread tr : t.getThreads()){
-                    if (tr.getEnd().equals(solo) || tr.getStart().equals(solo)) return false;
-                }
-            }
+        if (solo.isThreadLimited()){
+            int foreign = solo.getIncidentThreadCount() - solo.ownIncidentThreads;
+            return solo.threads.size() + Math.max(0, foreign) < solo.getTectonType().getMaxThreads();
         }
         return true;
     }
@@ -297,120 +356,65 @@ public abstract class Tecton implements Round, Observable {
         this.threads.remove(thread);
     }
 
+    /**
+     * Leveszi a fonalat a tekton listájáról, ha rajta van. A fonal
+     * megszüntetésekor hívódik mindkét végére, mert a fonal csak az egyik
+     * végpontján van nyilvántartva.
+     * 
+     * @param thread A megszűnő fonal.
+     */
+    void detachThread(MushThread thread) {
+        this.threads.remove(thread);
+    }
+
     /**
      * Megvizsgálja, hogy a paraméterként átadott Tecton-nak és az aktuális
-     * Tecton-nak van-e közös szomszédja.
+     * Tecton-nak van-e közös szomszédja (a két rendezett szomszédlista
+     * összefésülésével).
      * 
      * @param tecton A másik Tecton objektum, amellyel közös szomszédokat keresünk.
      * @return true, ha közös szomszéd van, false, ha nincs.
      */
     public boolean hasSameNeighbor(Tecton tecton) {
-        for (Tecton neighbor1 : this.neighbors) {
-            for (Tecton neighbor2 : tecton.neighbors) {
-                if (neighbor1.getId() == neighbor2.getId()) {
-                    return true;
-                }
-            }
-        }
-        return false; // Ha nem találunk közös szomszédot, visszatérünk false-szal
+        return engine.getAdjacency().hasCommonNeighbor(slot, tecton.slot);
     }
 
     /**
-     * Véletlenszerűen kiválasztja a spórák felét, eltávolítja őket az eredeti
-     * listából,
-     * majd visszaadja egy új listában.
+     * Meghatározza a legrövidebb fonál alapú útvonal hosszát az aktuális Tecton
+     * és a megadott Tecton között.
+     * Ha nincs fonál alapú útvonal a két Tecton között, akkor -1-et ad vissza.
      *
-     * @return Egy új lista a kiválasztott spórákkal.
+     * @param target A cél Tecton, amelyhez az utat keressük.
+     * @return A legrövidebb út hossza fonál mentén, vagy -1, ha nincs kapcsolat.
      */
-    private List<MushSpore> splitSpores() {
-        return splitListRandomly(spores);
+    public int checkIfConnectedByThread(Tecton target) {
+        return checkIfConnectedByThread(target, Integer.MAX_VALUE);
     }
 
     /**
-     * Véletlenszerűen kiválasztja a szomszédok felét, eltávolítja őket az eredeti
-     * listából,
-     * majd visszaadja egy új listában.
+     * Meghatározza a legrövidebb fonál alapú útvonal hosszát az aktuális Tecton
+     * és a megadott Tecton között, legfeljebb maxHops lépésig keresve (pl. a
+     * rovar sebességéig). Ha a két Tecton a fonalhálózat különböző részén van,
+     * bejárás nélkül válaszol.
      *
-     * @return Egy új lista a kiválasztott szomszédokkal.
+     * @param target  A cél Tecton, amelyhez az utat keressük.
+     * @param maxHops A keresés mélységi korlátja.
+     * @return A legrövidebb út hossza fonál mentén, vagy -1, ha nincs legfeljebb
+     *         maxHops hosszú út.
      */
-    private List<Tecton> splitNeighbors() {
-        return splitListRandomly(neighbors);
+    public int checkIfConnectedByThread(Tecton target, int maxHops) {
+        return engine.getThreadConnectivity().hopDistance(this, target, maxHops);
     }
 
     /**
-     * Segédfüggvény, amely egy lista felét véletlenszerűen kiválasztja és
-     * eltávolítja az eredeti listából.
-     * A kiválasztott elemeket új listában adja vissza.
-     * 
-     * Ez a metódus a splitSpores és splitNeighbors közötti kódduplikáció
-     * elkerülésére szolgál.
-     * 
-     * @param <T>  A lista elemeinek típusa.
-     * @param list A bemeneti lista, amelyből a kiválasztás történik.
-     * @return Egy új lista, amely tartalmazza a véletlenszerűen kiválasztott
-     *         elemeket.
-     */
-    private <T> List<T> splitListRandomly(List<T> list) {
-        List<T> split = new ArrayList<>();
-        int halfSize = list.size() / 2;
-
-        Collections.shuffle(list); // Véletlenszerű sorrend
-        for (int i = 0; i < halfSize; i++) {
-            split.add(list.remove(0));
-        }
-
-        return split;
-    }
-
-    /**
-     * Meghatározza a legrövidebb fonál alapú útvonal hosszát az aktuális Tecton
-     * és a megadott Tecton között BFS algoritmus segítségével.
-     * Ha nincs fonál alapú útvonal a két Tecton között, akkor -1-et ad vissza.
+     * Megvizsgálja, hogy a megadott Tecton elérhető-e fonalak mentén (közel
+     * konstans időben, bejárás nélkül).
      *
-     * @param target A cél Tecton, amelyhez az utat keressük.
-     * @return A legrövidebb út hossza fonál mentén, vagy -1, ha nincs kapcsolat.
+     * @param target A cél Tecton.
+     * @return true, ha van fonál alapú útvonal a két Tecton között.
      */
-    public int checkIfConnectedByThread(Tecton target) {
-        if (this == target) {
-            return 0;
-        }
-
-        Queue<Tecton> toVisit = new LinkedList<>();
-        Queue<Integer> distances = new LinkedList<>();
-        Set<Tecton> visited = new HashSet<>();
-
-        toVisit.add(this);
-        distances.add(0);
-        visited.add(this);
-
-        while (!toVisit.isEmpty()) {
-            Tecton current = toVisit.poll();
-            int distance = distances.poll();
-            List<MushThread> allThreads=new ArrayList(current.threads);
-            for (Tecton t: current.neighbors){
-                for (MushThread thread: t.threads){
-                    if (thread.getEnd().equals(current) || thread.getStart().equals(current)) allThreads.add(thread); //szomszédok fonalai is (hiszen egy fonál csak egy tektonon)
-                }
-            }
-            for (MushThread thread : allThreads) {
-                Tecton neighbor;
-                if (current.equals(thread.getStart()) ) neighbor = thread.getEnd();
-                else neighbor = thread.getStart();
-                if (neighbor == null || visited.contains(neighbor)) {
-                    continue;
-                }
-
-                if (neighbor.equals(target)) {
-                    return distance + 1;
-                }
-
-                toVisit.add(neighbor);
-                distances.add(distance + 1);
-            }
-            visited.add(current);
-        }
-
-        return -1;
+    public boolean isConnectedByThread(Tecton target) {
+        return engine.getThreadConnectivity().isConnected(this, target);
     }
 
     /*
@@ -418,22 +422,89 @@ public abstract class Tecton implements Round, Observable {
      * Csökkenti a crackTime értékét, és ha elérte a nullát,
      * akkor meghívja a crack() metódust.
      * A fonalak is végrehajtják a saját round() metódusukat.
+     * A GameEngine a kör végén nem ezt hívja: a RoundProcessor előbb a
+     * tectontáblában egyszerre lépteti az összes tecton időzítőit, majd csak
+     * a fonallal rendelkező vagy kettétörő tectonokra hívja a computeRound()
+     * metódust.
      */
     public void round() {
-        if (crackTime > 0) {
-            crackTime--;
+        engine.getTectonTable().advanceTimers(slot);
+        RoundChanges changes = new RoundChanges();
+        computeRound(engine.getRandom(RandomStream.TECTONS), changes);
+        changes.commit();
+    }
+
+    /**
+     * A kör végi számítás az időzítők léptetése után
+     * ({@link TectonTable#advanceTimers(int, int)}). Csak a tecton saját
+     * állapotát és a hozzá tartozó fonalakat módosítja, így a tectonok
+     * párhuzamosan is számolhatnak; a törést és a fonalak megszűnését a
+     * changes gyűjteménybe jegyzi fel.
+     * 
+     * @param random  a számításhoz használható véletlenszám-generátor
+     * @param changes a szerkezeti változások gyűjteménye
+     */
+    void computeRound(GameRandom random, RoundChanges changes) {
+        if (getTectonType().healsCutThreads())
+            healNotConnectedThreads(random);
+
+        TectonTable table = engine.getTectonTable();
+        boolean dried = table.hasFlag(slot, TectonTable.DRIES_NOW);
+        if (dried) {
+            for (MushThread thread : threads) {
+                changes.removeThread(thread);
+            }
+        }
+
+        if (table.hasFlag(slot, TectonTable.CRACKS_NOW)) {
+            changes.crack(this);
+        } else if (!dried) {
+            computeThreadRounds(changes);
         }
+    }
 
-        if (crackTime == 0) {
-            crackTime--;
-            crack();
+    /**
+     * Az elvágott fonalakat gyógyító típusnál a tecton által feldolgozott,
+     * rovar által elvágott fonalak élettartamát 1-3 körrel meghosszabbítja.
+     * 
+     * @param random a meghosszabbítást sorsoló generátor
+     */
+    private void healNotConnectedThreads(GameRandom random) {
+        for (MushThread thread : threads) {
+            if (isResponsibleFor(thread) && thread.isCutByInsect()) {
+                int extraTime = 1 + random.nextInt(3);
+                thread.setTimeToDie(extraTime);
+            }
         }
+    }
 
+    /**
+     * A tecton által feldolgozandó fonalak kör végi öregítése.
+     * 
+     * @param changes a szerkezeti változások gyűjteménye
+     */
+    void computeThreadRounds(RoundChanges changes) {
         for (MushThread thread : threads) {
-            thread.round();
+            if (isResponsibleFor(thread))
+                thread.computeRound(changes);
         }
     }
 
+    /**
+     * Eldönti, hogy a kör végén ez a tecton dolgozza-e fel a fonalat. Egy
+     * fonal a két végpontja közül legfeljebb az egyik listáján szokott lenni;
+     * ha mindkettőn rajta van, a kezdőpontja felel érte, hogy a kör végén ne
+     * öregedjen kétszer, és párhuzamos számításnál egyszerre csak egy tecton
+     * módosítsa.
+     * 
+     * @param thread a tecton listáján lévő fonal
+     * @return true, ha a fonalat ez a tecton dolgozza fel
+     */
+    boolean isResponsibleFor(MushThread thread) {
+        Tecton start = thread.getStart();
+        return start == this || start == null || !start.threads.contains(thread);
+    }
+
     /**
      * Publikus metódus, amely a tekton kettétörését végzi el.
      * Létrehoz egy új Tectont, átadja a spórák felét és szomszédok felét az új
@@ -444,31 +515,44 @@ public abstract class Tecton implements Round, Observable {
      */
     public void crack() {
         Tecton newTecton = createNewTecton();
-        GameEngine.getInstance().addTecton(newTecton);
+        newTecton.setPartition(getPartition()); // a tört rész a régiójában marad
 
-        List<MushSpore> splitSpores = splitSpores();
-        for (MushSpore spore : splitSpores) {
-            newTecton.addSpore(spore);
-            this.removeSpore(spore);
-        }
+        spores.moveRandomHalfTo(newTecton.spores, engine.getRandom(RandomStream.TECTONS));
+        markChanged(engine, ChangeBus.SPORES);
 
-        for (MushThread thread : new ArrayList<>(threads)) {
+        List<MushThread> brokenThreads = new ArrayList<>(threads);
+        threads.clear();
+        for (MushThread thread : brokenThreads) {
             thread.takeThreadApart();
         }
 
         transferMushBodyIfNeeded(newTecton);
+
+        // A szétosztott szomszédok (a szomszédságot csak az ő oldalukról bontja, mint eddig)
+        List<Tecton> moved = new ArrayList<>();
+        CrackPartitioner partitioner = engine.getCrackPartitioner();
+        if (partitioner != null) {
+            partitioner.selectMovedNeighbors(this, moved);
+        }
+        MapLayout.placeCrack(this, newTecton);
         this.addNeighbor(newTecton);
-        newTecton.addNeighbor(this);
+        for (Tecton neighbor : moved) {
+            neighbor.removeNeighbor(this);
+            neighbor.addNeighbor(newTecton);
+        }
 
-        GameEngine.getInstance().addNewTecton(this, newTecton);
+        engine.addNewTecton(new TectonCrack(this, newTecton, moved));
     }
 
-    /*
-     * Absztrakt metódus, amelyet a származtatott osztályoknak
-     * implementálniuk kell.
-     * Ez a metódus felelős az új Tecton példány létrehozásáért.
+    /**
+     * Létrehozza a törésből keletkező Tectont: ugyanolyan típusút, törési idő
+     * nélkül.
+     * 
+     * @return az új Tecton
      */
-    protected abstract Tecton createNewTecton();
+    protected Tecton createNewTecton() {
+        return getTectonType().create(engine, -1);
+    }
 
     /**
      * Ha az aktuális Tecton tartalmaz MushBody-t, akkor 50% eséllyel áthelyezi azt
@@ -481,8 +565,7 @@ public abstract class Tecton implements Round, Observable {
         if (this.mushbody == null)
             return;
 
-        Random random = new Random();
-        boolean transfer = random.nextBoolean();
+        boolean transfer = engine.getRandom(RandomStream.TECTONS).nextBoolean();
 
         if (transfer) {
             newTecton.addMushBody(this.mushbody.getName());
@@ -492,6 +575,15 @@ public abstract class Tecton implements Round, Observable {
 
     // Getterek/setterek és metódusok később kerülnek kialakításra
 
+    /**
+     * Visszaadja a játékmotort, amelyhez a Tecton tartozik.
+     * 
+     * @return a játékmotor
+     */
+    public GameEngine getEngine() {
+        return engine;
+    }
+
     /**
      * Visszaadja a Tecton egyedi azonosítóját.
      * 
@@ -502,16 +594,128 @@ public abstract class Tecton implements Round, Observable {
     }
 
     /**
-     * Beállítja a Tecton egyedi azonosítóját.
+     * @return a tekton vízszintes koordinátája a térképen
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * @return a tekton függőleges koordinátája a térképen
+     */
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * Beállítja a tekton helyét a térképen.
+     * 
+     * @param x a vízszintes koordináta
+     * @param y a függőleges koordináta
+     */
+    public void setPosition(int x, int y) {
+        this.x = x;
+        this.y = y;
+        markChanged(engine, ChangeBus.POSITION);
+    }
+
+    /**
+     * @return a tekton tectonrészének azonosítója, vagy -1, ha még nincs
+     *         kiosztva
+     */
+    int getPartition() {
+        return engine.getTectonTable().partition(slot);
+    }
+
+    /**
+     * Beállítja, melyik tectonrészben számoljon a tekton a kör végén.
+     * 
+     * @param partition a tectonrész azonosítója
+     */
+    void setPartition(int partition) {
+        engine.getTectonTable().setPartition(slot, partition);
+    }
+
+    /**
+     * Beállítja a Tecton egyedi azonosítóját. Ha a Tecton már a játék része, a
+     * játékmotor azonosító szerinti indexe is frissül.
      * 
      * @param id az egyedi azonosító
      */
     public void setId(int id) {
+        int oldId = this.id;
         this.id = id;
+        engine.reindexTecton(this, oldId);
+    }
+
+    /**
+     * Visszaadja a tektonon tartózkodó rovarokat az érkezésük sorrendjében.
+     * 
+     * @return a tektonon lévő rovarok (csak olvasható nézet)
+     */
+    public List<Insect> getInsects() {
+        return Collections.unmodifiableList(insects);
+    }
+
+    /**
+     * Visszaadja a tektonon tartózkodó rovarok közül a játékba utoljára
+     * felvettet, vagyis azt, amelyik a játékmotor rovarlistájában a
+     * leghátrébb áll (az érkezés sorrendjétől függetlenül). A fonállal való
+     * rovarevés ezt a rovart választja.
+     * 
+     * @return a rovar, vagy null, ha nincs rovar a tektonon
+     */
+    Insect getLastRegisteredInsect() {
+        Insect last = null;
+        for (Insect insect : insects) {
+            if (last == null || insect.getRegistration() > last.getRegistration())
+                last = insect;
+        }
+        return last;
+    }
+
+    /**
+     * Nyilvántartásba veszi, hogy a rovar erre a tektonra érkezett.
+     * 
+     * @param insect a rovar
+     */
+    void addOccupant(Insect insect) {
+        insects.add(insect);
+    }
+
+    /**
+     * Nyilvántartásba veszi, hogy a rovar elhagyta a tektont.
+     * 
+     * @param insect a rovar
+     */
+    void removeOccupant(Insect insect) {
+        insects.remove(insect);
     }
 
     /**
-     * Visszaadja a Tecton szomszédos tektonjainak listáját.
+     * Megjelöli a tektont a megadott sorszámú bejárásban.
+     * 
+     * @param epoch a bejárás sorszáma
+     * @return true, ha a tekton ebben a bejárásban még nem volt megjelölve
+     */
+    boolean markVisited(int epoch) {
+        if (visitMark == epoch)
+            return false;
+        visitMark = epoch;
+        return true;
+    }
+
+    /**
+     * @return a tekton sorszáma a játékmotor szomszédsági tárolójában
+     */
+    int getSlot() {
+        return slot;
+    }
+
+    /**
+     * Visszaadja a Tecton szomszédos tektonjainak listáját. A lista csak
+     * olvasható, és mindig az aktuális szomszédokat mutatja; módosítani az
+     * addNeighbor, removeNeighbor és setNeighbors metódusokkal lehet.
      * 
      * @return a szomszédos tektonok listája
      */
@@ -520,12 +724,60 @@ public abstract class Tecton implements Round, Observable {
     }
 
     /**
-     * Beállítja a Tecton szomszédos tektonjainak listáját.
+     * @return a szomszédos tektonok száma
+     */
+    public int getNeighborCount() {
+        return engine.getAdjacency().degree(slot);
+    }
+
+    /**
+     * Lista létrehozása nélkül visszaadja a szomszédot a megadott helyről.
+     * 
+     * @param index a szomszéd sorszáma (0 és getNeighborCount() - 1 között)
+     * @return a szomszédos tekton
+     */
+    public Tecton getNeighbor(int index) {
+        return neighbors.get(index);
+    }
+
+    /**
+     * Beállítja a Tecton szomszédos tektonjainak listáját (csak ebből az
+     * irányból, a megadott sorrendben; az ismétlődő elemek egyszer kerülnek be).
      * 
      * @param neighbors a szomszédos tektonok listája
      */
     public void setNeighbors(List<Tecton> neighbors) {
-        this.neighbors = neighbors;
+        Tecton[] copy = neighbors.toArray(new Tecton[0]);
+        AdjacencyStore adjacency = engine.getAdjacency();
+        adjacency.clear(slot);
+        for (Tecton neighbor : copy) {
+            adjacency.add(slot, neighbor.slot);
+        }
+    }
+
+    /**
+     * A szomszédok csak olvasható nézete a játékmotor szomszédsági tárolója
+     * fölött.
+     */
+    private final class NeighborList extends AbstractList<Tecton> implements RandomAccess {
+        @Override
+        public Tecton get(int index) {
+            AdjacencyStore adjacency = engine.getAdjacency();
+            if (index < 0 || index >= adjacency.degree(slot)) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", szomszédok száma: " + adjacency.degree(slot));
+            }
+            return adjacency.neighbor(slot, index);
+        }
+
+        @Override
+        public int size() {
+            return engine.getAdjacency().degree(slot);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Tecton t && t.engine == engine && engine.getAdjacency().contains(slot, t.slot);
+        }
     }
 
     /**
@@ -538,12 +790,23 @@ public abstract class Tecton implements Round, Observable {
     }
 
     /**
-     * Beállítja a Tecton felszínén található spórák listáját.
+     * @return a spórák darabszám szerinti tárolója, a tömeges áthelyezéshez
+     */
+    SporePile getSporePile() {
+        return spores;
+    }
+
+    /**
+     * Beállítja a Tecton felszínén található spórák listáját (a tartalmát
+     * átmásolja).
      * 
      * @param spores a spórák listája
      */
     public void setSpores(List<MushSpore> spores) {
-        this.spores = spores;
+        List<MushSpore> copy = new ArrayList<>(spores);
+        this.spores.clear();
+        this.spores.addAll(copy);
+        markChanged(engine, ChangeBus.SPORES);
     }
 
     /**
@@ -562,6 +825,7 @@ public abstract class Tecton implements Round, Observable {
      */
     public void setMushbody(MushBody mushbody) {
         this.mushbody = mushbody;
+        markChanged(engine, ChangeBus.MUSH_BODY);
     }
 
     /**
@@ -574,12 +838,154 @@ public abstract class Tecton implements Round, Observable {
     }
 
     /**
-     * Beállítja a Tecton felszínén található fonalak listáját.
+     * Beállítja a Tecton felszínén található fonalak listáját (a lista
+     * tartalmát átmásolja).
      * 
      * @param threads a MushThread objektumokat tartalmazó lista
      */
     public void setThreads(List<MushThread> threads) {
-        this.threads = threads;
+        List<MushThread> copy = new ArrayList<>(threads);
+        this.threads.clear();
+        this.threads.addAll(copy);
+    }
+
+    /**
+     * Visszaadja a tektonba futó fonalakat, akármelyik tekton listáján vannak.
+     * 
+     * @return a fonalak csak olvasható listája
+     */
+    public List<MushThread> getIncidentThreads() {
+        return incidentThreadsView;
+    }
+
+    /**
+     * Visszaadja a tektonba futó fonalak számát; a fonalak felvételekor és
+     * levételekor frissül, így lekérdezése konstans idejű.
+     * 
+     * @return a tektonba futó fonalak száma
+     */
+    public int getIncidentThreadCount() {
+        return incidentThreads.size();
+    }
+
+    /**
+     * Felveszi a fonalat a végpontjai illeszkedő fonalai közé, ha most került
+     * először tecton listájára.
+     */
+    private static void threadStored(MushThread thread) {
+        if (!thread.addHolder())
+            return;
+        Tecton start = thread.getStart();
+        Tecton end = thread.getEnd();
+        if (start != null)
+            start.incidentThreads.add(thread);
+        if (end != null && end != start)
+            end.incidentThreads.add(thread);
+        if (start != null) {
+            start.engine.getThreadConnectivity().threadAdded(thread);
+            threadChanged(thread, ChangeBus.ADDED);
+        }
+    }
+
+    /**
+     * Leveszi a fonalat a végpontjai illeszkedő fonalai közül, ha már egy
+     * tecton listáján sincs rajta.
+     */
+    private static void threadDropped(MushThread thread) {
+        if (!thread.removeHolder())
+            return;
+        Tecton start = thread.getStart();
+        Tecton end = thread.getEnd();
+        if (start != null)
+            start.incidentThreads.remove(thread);
+        if (end != null && end != start)
+            end.incidentThreads.remove(thread);
+        if (start != null) {
+            start.engine.getThreadConnectivity().threadRemoved(thread);
+            threadChanged(thread, ChangeBus.REMOVED);
+        }
+    }
+
+    /**
+     * Jelzi a fonal és a végpontjai változását a motor változásgyűjtőjében.
+     */
+    private static void threadChanged(MushThread thread, int flags) {
+        Tecton start = thread.getStart();
+        Tecton end = thread.getEnd();
+        ChangeBus changeBus = start.engine.getChangeBus();
+        changeBus.mark(thread, flags);
+        changeBus.mark(start, ChangeBus.THREADS);
+        if (end != null)
+            changeBus.mark(end, ChangeBus.THREADS);
+    }
+
+    /**
+     * A tekton fonallistája. Minden módosítás (a getThreads() listáján
+     * keresztül is) frissíti a végpontok illeszkedő fonalait és a tecton
+     * fonalszámát a tectontáblában.
+     */
+    private static final class ThreadList extends AbstractList<MushThread> implements RandomAccess {
+        private final Tecton owner;
+        private final List<MushThread> items = new ArrayList<>();
+
+        ThreadList(Tecton owner) {
+            this.owner = owner;
+        }
+
+        @Override
+        public MushThread get(int index) {
+            return items.get(index);
+        }
+
+        @Override
+        public int size() {
+            return items.size();
+        }
+
+        @Override
+        public void add(int index, MushThread thread) {
+            items.add(index, thread);
+            counted(thread, 1);
+            threadStored(thread);
+        }
+
+        @Override
+        public MushThread set(int index, MushThread thread) {
+            MushThread previous = items.set(index, thread);
+            counted(previous, -1);
+            threadDropped(previous);
+            counted(thread, 1);
+            threadStored(thread);
+            return previous;
+        }
+
+        @Override
+        public MushThread remove(int index) {
+            MushThread removed = items.remove(index);
+            counted(removed, -1);
+            threadDropped(removed);
+            return removed;
+        }
+
+        @Override
+        public void clear() {
+            for (int i = 0; i < items.size(); i++) {
+                counted(items.get(i), -1);
+                threadDropped(items.get(i));
+            }
+            items.clear();
+        }
+
+        /**
+         * Frissíti a tecton fonalszámát a tectontáblában, és ha a fonal a
+         * tectonba fut, a saját illeszkedő fonalak számát is.
+         */
+        private void counted(MushThread thread, int delta) {
+            owner.engine.getTectonTable().addThreadCount(owner.slot, delta);
+            if (thread.getStart() == owner || thread.getEnd() == owner) {
+                owner.ownIncidentThreads += delta;
+            }
+        }
     }
 
     /**
@@ -588,7 +994,7 @@ public abstract class Tecton implements Round, Observable {
      * @return a crackTime értéke
      */
     public int getCrackTime() {
-        return crackTime;
+        return engine.getTectonTable().crackTime(slot);
     }
 
     /**
@@ -597,21 +1003,48 @@ public abstract class Tecton implements Round, Observable {
      * @param crackTime a körök száma a kettétörésig
      */
     public void setCrackTime(int crackTime) {
-        this.crackTime = crackTime;
+        engine.getTectonTable().setCrackTime(slot, crackTime);
     }
 
     /**
      * Kiírja a Tecton típusát.
-     * A metódus a származtatott osztályokban kerül implementálásra.
+     * 
+     * @return a típus neve (pl. "SOLOTECTON")
+     */
+    public String getType() {
+        return getTectonType().getTypeName();
+    }
+
+    /**
+     * @return a Tecton típusa a képességtáblában
+     */
+    public TectonType getTectonType() {
+        return TectonType.fromCode(engine.getTectonTable().type(slot));
+    }
+
+    /**
+     * @return kiszáradó típusnál a fonalak felszívódásáig hátralévő körök
+     *         száma
+     */
+    public int getDryTime() {
+        return engine.getTectonTable().dryTime(slot);
+    }
+
+    /**
+     * Beállítja a fonalak felszívódásáig hátralévő körök számát.
+     * 
+     * @param dryTime a körök száma
      */
-    public abstract String getType();
+    public void setDryTime(int dryTime) {
+        engine.getTectonTable().setDryTime(slot, dryTime);
+    }
 
     public boolean isCracked() {
-        return cracked;
+        return engine.getTectonTable().hasFlag(slot, TectonTable.CRACKED);
     }
 
     public void setCracked(boolean cracked) {
-        this.cracked = cracked;
+        engine.getTectonTable().setFlag(slot, TectonTable.CRACKED, cracked);
     }
 
 }
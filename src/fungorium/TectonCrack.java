@@ -0,0 +1,48 @@
+package fungorium;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Egy tecton kettétörésének eredménye: az eredeti és az új tecton, valamint
+ * azok a szomszédok, amelyek az eredetitől az új tectonhoz kerültek. A
+ * figyelők ebből csak az érintett környéket frissítik (pl. a nézet a
+ * mozgatott éleket), a térkép többi részét nem kell újra bejárniuk.
+ */
+public final class TectonCrack {
+    private final Tecton original;
+    private final Tecton newTecton;
+    private final List<Tecton> movedNeighbors;
+
+    /**
+     * @param original       a kettétört tecton
+     * @param newTecton      a törésből létrejött új tecton
+     * @param movedNeighbors az új tectonhoz átkerült szomszédok
+     */
+    public TectonCrack(Tecton original, Tecton newTecton, List<Tecton> movedNeighbors) {
+        this.original = original;
+        this.newTecton = newTecton;
+        this.movedNeighbors = Collections.unmodifiableList(movedNeighbors);
+    }
+
+    /**
+     * @return a kettétört tecton
+     */
+    public Tecton getOriginal() {
+        return original;
+    }
+
+    /**
+     * @return a törésből létrejött új tecton
+     */
+    public Tecton getNewTecton() {
+        return newTecton;
+    }
+
+    /**
+     * @return az eredeti tectontól az új tectonhoz átkerült szomszédok
+     */
+    public List<Tecton> getMovedNeighbors() {
+        return movedNeighbors;
+    }
+}
@@ -0,0 +1,225 @@
+package fungorium;
+
+import java.util.Arrays;
+
+/**
+ * A tectonok kör végi állapotának oszlopos (struct-of-arrays) tárolója: a
+ * típuskód, a törési és a kiszáradási idő, a tectonrész, a saját fonalak
+ * száma és az állapotbitek egy-egy primitív tömbben állnak, a tecton
+ * szomszédsági sorszámával (slot) indexelve. A {@link Tecton} ezeket az
+ * értékeket nem maga tárolja, csak nézetként olvassa és írja.
+ *
+ * <p>
+ * Így a kör végi időzítők léptetése ({@link #advanceTimers(int, int)}) egy
+ * szoros ciklus néhány egymás melletti tömbelemen, és a tectonok többsége,
+ * amelynek nincs fonala és nem törik, a kör végén objektumként sorra sem
+ * kerül. A léptetés eredménye (kiszárad, kettétörik) a következő léptetésig a
+ * kör végi bitekben marad.
+ * </p>
+ *
+ * <p>
+ * Nem szálbiztos: a kör végi számítás tartományonként párhuzamosan léptet,
+ * minden más módosítás a soros fázisban történik.
+ * </p>
+ */
+final class TectonTable {
+    /**
+     * A tecton a játékmotor tectonjai között van (a motor jelöli felvételkor).
+     */
+    static final byte ACTIVE = 1;
+    /**
+     * A tecton már egyszer kettétört ({@link Tecton#isCracked()}).
+     */
+    static final byte CRACKED = 1 << 1;
+    /**
+     * Kör végi eredmény: a kiszáradó tecton fonalai felszívódnak.
+     */
+    static final byte DRIES_NOW = 1 << 2;
+    /**
+     * Kör végi eredmény: a tecton kettétörik.
+     */
+    static final byte CRACKS_NOW = 1 << 3;
+    private static final byte ROUND_BITS = DRIES_NOW | CRACKS_NOW;
+
+    private byte[] types = new byte[64];
+    private byte[] flags = new byte[64];
+    private int[] crackTimes = new int[64];
+    private int[] dryTimes = new int[64];
+    private int[] partitions = new int[64];
+    private int[] threadCounts = new int[64];
+    private int size;
+
+    /**
+     * Felvesz egy tectont a következő sorszámon. A sorszámnak meg kell egyeznie
+     * a szomszédsági tárolóbelivel.
+     *
+     * @param slot      a tecton sorszáma
+     * @param type      a tecton típusa
+     * @param crackTime a törésig hátralévő idő
+     * @param dryTime   a kiszáradásig hátralévő idő
+     * @throws IllegalStateException ha a sorszám nem a következő
+     */
+    void register(int slot, TectonType type, int crackTime, int dryTime) {
+        if (slot != size) {
+            throw new IllegalStateException("A tecton sorszáma " + size + " kellene legyen, nem " + slot + ".");
+        }
+        if (size == types.length) {
+            int capacity = size * 2;
+            types = Arrays.copyOf(types, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+            crackTimes = Arrays.copyOf(crackTimes, capacity);
+            dryTimes = Arrays.copyOf(dryTimes, capacity);
+            partitions = Arrays.copyOf(partitions, capacity);
+            threadCounts = Arrays.copyOf(threadCounts, capacity);
+        }
+        types[slot] = type.getCode();
+        crackTimes[slot] = crackTime;
+        dryTimes[slot] = dryTime;
+        partitions[slot] = -1;
+        size++;
+    }
+
+    /**
+     * @return a felvett tectonok száma
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Kör végi léptetés a megadott sorszámtartomány játékban lévő tectonjain:
+     * a kiszáradó típusoknál csökkenti a kiszáradási időt, illetve ha az már
+     * lejárt, a DRIES_NOW bitet állítja; a törési időt csökkenti, és ha elérte
+     * a nullát (késleltetve törő típusnál: ha már a csökkentés előtt nulla
+     * volt), -1-re állítja és a CRACKS_NOW bitet állítja. A többi tecton
+     * előző kör végi bitjeit törli.
+     *
+     * @param from az első sorszám
+     * @param to   az utolsó utáni sorszám
+     */
+    void advanceTimers(int from, int to) {
+        for (int slot = from; slot < to; slot++) {
+            if ((flags[slot] & ACTIVE) != 0) {
+                advanceTimers(slot);
+            } else {
+                flags[slot] &= ~ROUND_BITS;
+            }
+        }
+    }
+
+    /**
+     * Egyetlen tecton kör végi léptetése (lásd
+     * {@link #advanceTimers(int, int)}), akár játékban van, akár nem.
+     *
+     * @param slot a tecton sorszáma
+     */
+    void advanceTimers(int slot) {
+        int f = flags[slot] & ~ROUND_BITS;
+        if (TectonType.dries(types[slot])) {
+            if (dryTimes[slot] > 0) {
+                dryTimes[slot]--;
+            } else {
+                f |= DRIES_NOW;
+            }
+        }
+        int before = crackTimes[slot];
+        int crackTime = before > 0 ? before - 1 : before;
+        // Késleltetve törő típusnál a csökkentés előtti érték számít
+        if ((TectonType.delaysCrack(types[slot]) ? before : crackTime) == 0) {
+            crackTime = -1;
+            f |= CRACKS_NOW;
+        }
+        crackTimes[slot] = crackTime;
+        flags[slot] = (byte) f;
+    }
+
+    /**
+     * @param slot a tecton sorszáma
+     * @return true, ha a tectonnak a kör végén objektumként is számolnia kell
+     *         (van saját fonala, vagy kettétörik)
+     */
+    boolean needsObjectRound(int slot) {
+        return threadCounts[slot] > 0 || (flags[slot] & CRACKS_NOW) != 0;
+    }
+
+    /**
+     * A játékban lévő tectonok sorszámai a megadott határ alatt, növekvő
+     * sorrendben.
+     *
+     * @param limit az utolsó figyelembe vett sorszám utáni sorszám
+     * @return a sorszámok
+     */
+    int[] activeSlots(int limit) {
+        int count = 0;
+        for (int slot = 0; slot < limit; slot++) {
+            if ((flags[slot] & ACTIVE) != 0) {
+                count++;
+            }
+        }
+        int[] slots = new int[count];
+        int k = 0;
+        for (int slot = 0; slot < limit; slot++) {
+            if ((flags[slot] & ACTIVE) != 0) {
+                slots[k++] = slot;
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Törli minden tecton ACTIVE bitjét (a tectonlista cseréje előtt).
+     */
+    void clearActive() {
+        for (int slot = 0; slot < size; slot++) {
+            flags[slot] &= ~ACTIVE;
+        }
+    }
+
+    boolean hasFlag(int slot, byte flag) {
+        return (flags[slot] & flag) != 0;
+    }
+
+    void setFlag(int slot, byte flag, boolean value) {
+        if (value) {
+            flags[slot] |= flag;
+        } else {
+            flags[slot] &= ~flag;
+        }
+    }
+
+    byte type(int slot) {
+        return types[slot];
+    }
+
+    int crackTime(int slot) {
+        return crackTimes[slot];
+    }
+
+    void setCrackTime(int slot, int crackTime) {
+        crackTimes[slot] = crackTime;
+    }
+
+    int dryTime(int slot) {
+        return dryTimes[slot];
+    }
+
+    void setDryTime(int slot, int dryTime) {
+        dryTimes[slot] = dryTime;
+    }
+
+    int partition(int slot) {
+        return partitions[slot];
+    }
+
+    void setPartition(int slot, int partition) {
+        partitions[slot] = partition;
+    }
+
+    /**
+     * @param slot  a tecton sorszáma
+     * @param delta a saját fonallistájának változása
+     */
+    void addThreadCount(int slot, int delta) {
+        threadCounts[slot] += delta;
+    }
+}
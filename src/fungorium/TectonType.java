@@ -0,0 +1,201 @@
+package fungorium;
+
+import java.util.function.BiFunction;
+
+/**
+ * A tectontípusok képességtáblája. Minden típus egy kis típuskódot (a
+ * {@link CompactMap} kódjait) és a szabályokat meghatározó adatokat tárol:
+ * hordozhat-e gombatestet, legfeljebb hány fonal kapcsolódhat hozzá,
+ * kiszárad-e és mennyi idő alatt, gyógyítja-e az elvágott fonalakat, és
+ * késleltetve törik-e. A
+ * {@link Tecton} ezek alapján viselkedik, így a szabályok ellenőrzése
+ * bitvizsgálat, és egy új típushoz csak egy új sor kell a táblában.
+ *
+ * <p>
+ * Törésnél minden típus a saját típusából hoz létre új tectont (lásd
+ * {@link #create(GameEngine, int)}).
+ * </p>
+ */
+public enum TectonType {
+    SOLO(CompactMap.SOLO, "SOLOTECTON", true, 1, 0, false, false, SoloTecton::new),
+    ZERO(CompactMap.ZERO, "ZEROTECTON", false, 0, 0, false, false, ZeroTecton::new),
+    MULTI(CompactMap.MULTI, "MULTITECTON", true, 0, 0, false, false, MultiTecton::new),
+    DRY(CompactMap.DRY, "DRYTECTON", true, 0, 3, false, true, DryTecton::new),
+    NUTRI(CompactMap.NUTRI, "NUTRITECTON", true, 0, 0, true, true, NutriTecton::new);
+
+    private static final int ALLOWS_MUSH_BODY = 1;
+    private static final int LIMITS_THREADS = 1 << 1;
+    private static final int DRIES = 1 << 2;
+    private static final int HEALS_CUT_THREADS = 1 << 3;
+    private static final int DELAYS_CRACK = 1 << 4;
+
+    /**
+     * A típusok típuskód szerint.
+     */
+    private static final TectonType[] BY_CODE = new TectonType[values().length];
+
+    static {
+        for (TectonType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+
+    private final byte code;
+    private final String typeName;
+    private final int flags;
+    private final int maxThreads;
+    private final int maxDryDelay;
+    private final BiFunction<GameEngine, Integer, Tecton> factory;
+
+    /**
+     * @param code            a típuskód
+     * @param typeName        a típus neve (a {@link Tecton#getType()} értéke)
+     * @param allowsMushBody  nőhet-e rajta gombatest
+     * @param maxThreads      a hozzá kapcsolódó fonalak legnagyobb száma (0:
+     *                        korlátlan)
+     * @param maxDryDelay     a kiszáradásig hátralévő körök legnagyobb száma
+     *                        (0: nem szárad ki)
+     * @param healsCutThreads gyógyítja-e az elvágott fonalakat
+     * @param delaysCrack     a törési idő lejárta után még egy kört vár-e a
+     *                        töréssel
+     * @param factory         az ilyen típusú tectont létrehozó konstruktor
+     */
+    TectonType(byte code, String typeName, boolean allowsMushBody, int maxThreads, int maxDryDelay,
+            boolean healsCutThreads, boolean delaysCrack, BiFunction<GameEngine, Integer, Tecton> factory) {
+        this.code = code;
+        this.typeName = typeName;
+        this.maxThreads = maxThreads;
+        this.maxDryDelay = maxDryDelay;
+        this.factory = factory;
+        this.flags = (allowsMushBody ? ALLOWS_MUSH_BODY : 0)
+                | (maxThreads > 0 ? LIMITS_THREADS : 0)
+                | (maxDryDelay > 0 ? DRIES : 0)
+                | (healsCutThreads ? HEALS_CUT_THREADS : 0)
+                | (delaysCrack ? DELAYS_CRACK : 0);
+    }
+
+    /**
+     * @param code a típuskód
+     * @return a típus
+     * @throws IllegalArgumentException ismeretlen kód esetén
+     */
+    public static TectonType fromCode(byte code) {
+        if (code < 0 || code >= BY_CODE.length) {
+            throw new IllegalArgumentException("Ismeretlen tecton típuskód: " + code);
+        }
+        return BY_CODE[code];
+    }
+
+    /**
+     * @param typeName a típus neve (pl. "SOLOTECTON")
+     * @return a típus, vagy null, ha nincs ilyen nevű
+     */
+    public static TectonType fromName(String typeName) {
+        for (TectonType type : values()) {
+            if (type.typeName.equals(typeName)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Létrehoz egy ilyen típusú tectont.
+     *
+     * @param engine    a játékmotor
+     * @param crackTime a törésig hátralévő idő
+     * @return az új tecton
+     */
+    public Tecton create(GameEngine engine, int crackTime) {
+        return factory.apply(engine, crackTime);
+    }
+
+    /**
+     * @return a típuskód
+     */
+    public byte getCode() {
+        return code;
+    }
+
+    /**
+     * @return a típus neve
+     */
+    public String getTypeName() {
+        return typeName;
+    }
+
+    /**
+     * @return true, ha nőhet rajta gombatest
+     */
+    public boolean allowsMushBody() {
+        return (flags & ALLOWS_MUSH_BODY) != 0;
+    }
+
+    /**
+     * @return true, ha a hozzá kapcsolódó fonalak száma korlátozott
+     */
+    public boolean limitsThreads() {
+        return (flags & LIMITS_THREADS) != 0;
+    }
+
+    /**
+     * @return a hozzá kapcsolódó fonalak legnagyobb száma (0: korlátlan)
+     */
+    public int getMaxThreads() {
+        return maxThreads;
+    }
+
+    /**
+     * @return true, ha a fonalai idővel felszívódnak
+     */
+    public boolean dries() {
+        return (flags & DRIES) != 0;
+    }
+
+    /**
+     * A {@link #dries()} típuskód szerinti változata a tömbös tárolóknak.
+     *
+     * @param code a típuskód
+     * @return true, ha az ilyen kódú típus fonalai idővel felszívódnak
+     */
+    static boolean dries(byte code) {
+        return (BY_CODE[code].flags & DRIES) != 0;
+    }
+
+    /**
+     * @return a kiszáradásig hátralévő körök legnagyobb száma (a tényleges
+     *         érték 1 és e között sorsolódik; 0, ha nem szárad ki)
+     */
+    public int getMaxDryDelay() {
+        return maxDryDelay;
+    }
+
+    /**
+     * @return true, ha a kör végén meghosszabbítja az elvágott fonalak életét
+     */
+    public boolean healsCutThreads() {
+        return (flags & HEALS_CUT_THREADS) != 0;
+    }
+
+    /**
+     * Késleltetett törésnél a tecton nem abban a körben törik, amelyben a
+     * törési ideje nullára csökken, hanem a következőben: a kör végén a
+     * csökkentés előtti értéket vizsgálja.
+     *
+     * @return true, ha a törés egy körrel a törési idő lejárta után történik
+     */
+    public boolean delaysCrack() {
+        return (flags & DELAYS_CRACK) != 0;
+    }
+
+    /**
+     * A {@link #delaysCrack()} típuskód szerinti változata a tömbös
+     * tárolóknak.
+     *
+     * @param code a típuskód
+     * @return true, ha az ilyen kódú típus késleltetve törik
+     */
+    static boolean delaysCrack(byte code) {
+        return (BY_CODE[code].flags & DELAYS_CRACK) != 0;
+    }
+}
@@ -7,30 +7,35 @@ import java.util.List;
 import java.util.Scanner;
 
 public class Test {
+    /**
+     * A src/tests alatti tesztesetek (test1, test2, ...) száma.
+     */
+    private static final int TEST_COUNT = 36;
+
+    /**
+     * Az éppen futó teszthez tartozó játékmotor, minden teszt újat kap.
+     */
+    private static GameEngine engine = GameEngine.create();
+
     public static void main(String[] args) {
         Scanner scanner = new Scanner(System.in);
         String line;
         int chosen = -1;
         while (chosen != 0) {
             System.out.println("Tests: ");
-            for (int i = 0; i < 31; i++) {
+            for (int i = 0; i < TEST_COUNT; i++) {
                 System.out.println("Test" + (i + 1));
             }
             System.out.println("Chose one with it's number(1 to test1) or exit (0)");
             chosen = scanner.nextInt();
-            GameEngine engine = GameEngine.getInstance();
-            if(engine.getTectons().size() != 0)
-                engine.getTectons().get(0).idCount = 1;
-            engine.getTectons().clear();
-            engine.getMushrooms().clear();
-            engine.getInsects().clear();
-            if (chosen > 0 && chosen <= 31) {
+            if (chosen > 0 && chosen <= TEST_COUNT) {
                 runTest(chosen);
             }
         }
     }
 
     public static void runTest(int chosen) {
+        engine = GameEngine.create();
         try { // System.SetOut
             String path = "src/tests/test" + chosen;
             File input = new File(path + "/input.txt");
@@ -51,8 +56,7 @@ public class Test {
     }
 
     public static void Command(String line) {
-        GameEngine engine = GameEngine.getInstance();
-        Mushroom mushroom = new Mushroom("Gomba1", 0);
+        Mushroom mushroom = new Mushroom(engine, "Gomba1", 0);
         engine.getMushrooms().add(mushroom);
         MushBody mushbody = null;
         Tecton tecton = null;
@@ -71,14 +75,8 @@ public class Test {
                     } else {
                         crackTime = Integer.parseInt(command[3]);
                     }
-                    tecton = switch (command[2]) {
-                        case "ZEROTECTON" -> new ZeroTecton(crackTime);
-                        case "MULTITECTON" -> new MultiTecton(crackTime);
-                        case "SOLOTECTON" -> new SoloTecton(crackTime);
-                        case "DRYTECTON" -> new DryTecton(crackTime);
-                        case "NUTRITECTON" -> new NutriTecton(crackTime);
-                        default -> new MultiTecton(crackTime);
-                    };
+                    TectonType type = TectonType.fromName(command[2]);
+                    tecton = (type != null ? type : TectonType.MULTI).create(engine, crackTime);
                     tecton.setId(Integer.parseInt(command[1]));
                     engine.addTecton(tecton);
                 } else
@@ -87,14 +85,13 @@ public class Test {
 
             case "ADDMUSHROOM" -> {
                 if (command.length == 3) {
-                    for (Tecton t : engine.getTectons()) {
-                        if (t.getId() == Integer.parseInt(command[1])) {
-                            for (Mushroom m : engine.getMushrooms()) {
-                                MushBody b = t.addMushBody(command[2]);
-                                System.out.println("Adding mushroom " + command[2] + " to tekton " + command[1]);
-                                m.addMushBody(b);
-                                return;
-                            }
+                    Tecton t = engine.getTectonById(Integer.parseInt(command[1]));
+                    if (t != null) {
+                        for (Mushroom m : engine.getMushrooms()) {
+                            MushBody b = t.addMushBody(command[2]);
+                            System.out.println("Adding mushroom " + command[2] + " to tekton " + command[1]);
+                            m.addMushBody(b);
+                            return;
                         }
                     }
                 } else
@@ -107,16 +104,8 @@ public class Test {
                     int toId = Integer.parseInt(command[2]);
                     String mushroomName = command[3];
 
-                    Tecton from = null;
-                    Tecton to = null;
-                    for (Tecton t : engine.getTectons()) {
-                        if (t.getId() == fromId) {
-                            from = t;
-                        }
-                        if (t.getId() == toId) {
-                            to = t;
-                        }
-                    }
+                    Tecton from = engine.getTectonById(fromId);
+                    Tecton to = engine.getTectonById(toId);
 
                     if (from == null || to == null) {
                         System.out.println("At least one tecton does not exist: " + line);
@@ -141,16 +130,8 @@ public class Test {
                 if (command.length == 3) {
                     int from = Integer.parseInt(command[1]);
                     int to = Integer.parseInt(command[2]);
-                    Tecton first = null;
-                    Tecton second = null;
-                    for (Tecton t : engine.getTectons()) {
-                        if (t.getId() == from) {
-                            first = t;
-                        }
-                        if (t.getId() == to) {
-                            second = t;
-                        }
-                    }
+                    Tecton first = engine.getTectonById(from);
+                    Tecton second = engine.getTectonById(to);
                     if (first == null || second == null) {
                         System.out.println("At least one Tecton does not exists: " + line);
                         return;
@@ -228,14 +209,7 @@ public class Test {
                     int tectonId = Integer.parseInt(command[1]);
                     String insectName = command[2];
 
-                    Tecton position = null;
-
-                    for (Tecton t : engine.getTectons()) {
-                        if (t.getId() == tectonId) {
-                            position = t;
-                            break;
-                        }
-                    }
+                    Tecton position = engine.getTectonById(tectonId);
 
                     if (position == null) {
                         System.out.println("No such tecton: " + tectonId);
@@ -246,7 +220,7 @@ public class Test {
                     int speed = 1;
                     boolean cutSkill = true;
 
-                    Insect insect = new Insect(insectName, score, speed, cutSkill, position);
+                    Insect insect = new Insect(engine, insectName, score, speed, cutSkill, position);
 
                     engine.addInsect(insect);
 
@@ -278,18 +252,17 @@ public class Test {
                         };
                     }
 
-                    for (Tecton t : engine.getTectons()) {
-                        if (t.getId() == Integer.parseInt(command[1])) {
-                            for (int i = 0; i < Integer.parseInt(command[2]); i++)
-                                t.addSpore(s);
-                            if (command[4].equals("-"))
-                                System.out.println("Adding " + command[2] + " spores to tekton " + command[1]);
-                            else
-                                System.out.println(
-                                        "Adding " + command[2] + " spore(s) (" + command[4] + ")" + " to tekton "
-                                                + command[1]);
-                            return;
-                        }
+                    Tecton t = engine.getTectonById(Integer.parseInt(command[1]));
+                    if (t != null) {
+                        for (int i = 0; i < Integer.parseInt(command[2]); i++)
+                            t.addSpore(s);
+                        if (command[4].equals("-"))
+                            System.out.println("Adding " + command[2] + " spores to tekton " + command[1]);
+                        else
+                            System.out.println(
+                                    "Adding " + command[2] + " spore(s) (" + command[4] + ")" + " to tekton "
+                                            + command[1]);
+                        return;
                     }
                     System.out.println("There is no such a tecton: " + line);
                 } else
@@ -342,30 +315,43 @@ public class Test {
                     
             }
 
+            case "LISTSPORES" -> {
+                if (command.length == 2) {
+                    Tecton t = engine.getTectonById(Integer.parseInt(command[1]));
+                    if (t == null) {
+                        System.out.println("Tecton does not exist: " + line);
+                        return;
+                    }
+                    System.out.println("List of spores on tekton " + t.getId() + ":");
+                    for (MushSpore spore : t.getSpores()) {
+                        System.out.println(spore.getClass().getSimpleName().toUpperCase() + ", value: " + spore.getValue());
+                    }
+                }
+            }
+
+            case "ROUND" -> {
+                engine.processRound();
+                System.out.println("Round ended.");
+            }
+
             case "CRACKTECTON" -> {
                 if (command.length == 2) {
                     int tectonId = Integer.parseInt(command[1]);
-                    boolean found = false;
-
-                    for (Tecton t : engine.getTectons()) {
-                        if (t.getId() == tectonId) {
-                            t.crack();
-                            found = true;
-                            break;
-                        }
+                    Tecton t = engine.getTectonById(tectonId);
+                    if (t != null) {
+                        t.crack();
                     }
                 }
             }
 
             case "MOVEINSECT" -> {
                 if (command.length == 3) {
-                    for (Tecton t : engine.getTectons()) {
-                        if (t.getId() == Integer.parseInt(command[2])) {
-                            for (Insect i : engine.getInsects()) {
-                                if (i.getName().equals(command[1])) {
-                                    i.moveInsect(t);
-                                    return;
-                                }
+                    Tecton t = engine.getTectonById(Integer.parseInt(command[2]));
+                    if (t != null) {
+                        for (Insect i : engine.getInsects()) {
+                            if (i.getName().equals(command[1])) {
+                                engine.completeAction(i.moveInsect(t));
+                                return;
                             }
                         }
                     }
@@ -396,7 +382,7 @@ public class Test {
                     }
                 }
                 if (insect != null) {
-                    insect.eatSpore();
+                    engine.completeAction(insect.eatSpore() != null);
                 }
             }
 
@@ -425,10 +411,7 @@ public class Test {
 
                 }
 
-                for (Tecton tec : engine.getTectons()) {
-                    if (tec.getId() == Integer.parseInt(command[2]))
-                        tecton = tec;
-                }
+                tecton = engine.getTectonById(Integer.parseInt(command[2]));
                 if (tecton == null) {
                     System.out.print("Hibás utasítást adtál meg");
 
@@ -438,7 +421,7 @@ public class Test {
                     amount = 1;
                 else
                     amount = Integer.parseInt(command[3]);
-                mushroom.fireSpore(mushbody, tecton, amount);
+                engine.completeAction(mushroom.fireSpore(mushbody, tecton, amount));
                 break;
             }
             case "GROWTHREAD" -> {
@@ -461,15 +444,12 @@ public class Test {
                     System.out.print("Hibás utasítást adtál meg");
 
                 }
-                for (Tecton tec : engine.getTectons()) {
-                    if (tec.getId() == Integer.parseInt(command[2]))
-                        tecton = tec;
-                }
+                tecton = engine.getTectonById(Integer.parseInt(command[2]));
                 if (tecton == null) {
                     System.out.print("Hibás utasítást adtál meg");
 
                 }
-                mushroom.growThread(tecton, mushbody);
+                engine.completeAction(mushroom.growThread(tecton, mushbody));
                 break;
             }
             case "EATINSECT" -> {
@@ -492,15 +472,12 @@ public class Test {
                     System.out.print("Hibás utasítást adtál meg");
 
                 }
-                for (Tecton tec : engine.getTectons()) {
-                    if (tec.getId() == Integer.parseInt(command[2]))
-                        tecton = tec;
-                }
+                tecton = engine.getTectonById(Integer.parseInt(command[2]));
                 if (tecton == null) {
                     System.out.print("Hibás utasítást adtál meg");
 
                 }
-                mushroom.eatInsectWithThread(mushbody, tecton);
+                engine.completeAction(mushroom.eatInsectWithThread(mushbody, tecton));
                 break;
             }
             case "GROWMUSHROOM" -> {
@@ -514,15 +491,12 @@ public class Test {
                         break;
                     }
                 }
-                for (Tecton tec : engine.getTectons()) {
-                    if (tec.getId() == Integer.parseInt(command[2]))
-                        tecton = tec;
-                }
+                tecton = engine.getTectonById(Integer.parseInt(command[2]));
                 if (tecton == null) {
                     System.out.print("Hibás utasítást adtál meg");
 
                 }
-                mushroom.growMushBody(tecton);
+                engine.completeAction(mushroom.growMushBody(tecton));
                 break;
             }
             case "CUTTHREAD" -> {
@@ -531,10 +505,7 @@ public class Test {
                 }
                 String insectName = command[3];
                 String bodyName = command[1];
-                for (Tecton tec : engine.getTectons()) {
-                    if (tec.getId() == Integer.parseInt(command[2]))
-                        tecton = tec;
-                }
+                tecton = engine.getTectonById(Integer.parseInt(command[2]));
 
                 engine.getTectons().get(1).getThreads().clear();
                 System.out.println("Cutting " + bodyName +"'s thread in tekton " + tecton.getId() + " by " +  insectName +".");
@@ -0,0 +1,302 @@
+package fungorium;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A fonalak által összekötött tectoncsoportok (a gombafonal-hálózat
+ * komponensei) nyilvántartása diszjunkt-halmaz (union-find) szerkezettel.
+ *
+ * <p>
+ * Új fonal megjelenésekor a két végpont halmaza azonnal egyesül. Fonal
+ * megszűnésekor a szerkezet csak elavultnak jelölődik, és a következő
+ * lekérdezés építi újra a tectonok illeszkedő fonalaiból; a törlések
+ * jellemzően csoportosan történnek (kör vége, törés, kiszáradás), így egy
+ * csoport után egyetlen újraépítés elég. Két tecton összekötöttségének
+ * vizsgálata így közel konstans idejű.
+ * </p>
+ *
+ * <p>
+ * A tectonokra a szomszédsági tárolóbeli sorszámukkal hivatkozik. Nem
+ * szálbiztos: a fonalak a lépések és a soros kör végi végrehajtás során
+ * változnak.
+ * </p>
+ */
+final class ThreadConnectivity {
+    private final AdjacencyStore adjacency;
+    private int[] parent = new int[0];
+    private int[] size = new int[0];
+    /**
+     * Az aktuális szerkezetben szereplő tectonok száma; az ennél nagyobb
+     * sorszámú (később létrejött) tectonok még egyelemű halmazok.
+     */
+    private int built;
+    /**
+     * Igaz, ha fonal szűnt meg a legutóbbi újraépítés óta.
+     */
+    private boolean stale = true;
+    /**
+     * Az újraépítések száma.
+     */
+    private int rebuildCount;
+
+    /**
+     * A gyorsítótárban tartott távolságtérképek száma.
+     */
+    private static final int CACHE_SIZE = 8;
+    /**
+     * A fonalhálózat változásainak sorszáma; a távolságtérképek ehhez
+     * képest érvényesek.
+     */
+    private long topologyEpoch;
+    private final DistanceMap[] cache = new DistanceMap[CACHE_SIZE];
+    private int nextEvicted;
+    private long cacheHits;
+    private long cacheMisses;
+
+    ThreadConnectivity(AdjacencyStore adjacency) {
+        this.adjacency = adjacency;
+        for (int i = 0; i < cache.length; i++) {
+            cache[i] = new DistanceMap();
+        }
+    }
+
+    /**
+     * Jelzi, hogy a fonal bekerült a hálózatba.
+     *
+     * @param thread a fonal
+     */
+    void threadAdded(MushThread thread) {
+        topologyEpoch++;
+        if (stale || thread.getStart() == null || thread.getEnd() == null) {
+            return;
+        }
+        union(thread.getStart().getSlot(), thread.getEnd().getSlot());
+    }
+
+    /**
+     * Jelzi, hogy a fonal kikerült a hálózatból.
+     *
+     * @param thread a fonal
+     */
+    void threadRemoved(MushThread thread) {
+        topologyEpoch++;
+        stale = true;
+    }
+
+    /**
+     * @param a az egyik tecton
+     * @param b a másik tecton
+     * @return true, ha a két tecton között van fonalakból álló út
+     */
+    boolean isConnected(Tecton a, Tecton b) {
+        if (a == b) {
+            return true;
+        }
+        refresh();
+        return find(a.getSlot()) == find(b.getSlot());
+    }
+
+    /**
+     * A fonalak mentén mért legrövidebb út hossza két tecton között, legfeljebb
+     * maxHops lépésig. Különböző komponensek esetén bejárás nélkül válaszol;
+     * egyébként a to tectontól mért távolságtérképből olvas, amely a
+     * fonalhálózat következő változásáig a gyorsítótárban marad (a távolság
+     * szimmetrikus, és a hívók jellemzően ugyanahhoz a tectonhoz mérnek
+     * sok jelöltet).
+     *
+     * @param from    a kiinduló tecton
+     * @param to      a cél tecton
+     * @param maxHops a keresés mélységi korlátja
+     * @return az út hossza, vagy -1, ha nincs legfeljebb maxHops hosszú út
+     */
+    int hopDistance(Tecton from, Tecton to, int maxHops) {
+        if (from == to) {
+            return 0;
+        }
+        if (maxHops <= 0 || !isConnected(from, to)) {
+            return -1;
+        }
+        int distance = distancesFrom(to).get(from.getSlot());
+        return distance <= maxHops ? distance : -1;
+    }
+
+    /**
+     * @return a fonalhálózat változásainak sorszáma; minden fonal megjelenése
+     *         és megszűnése növeli
+     */
+    long getTopologyEpoch() {
+        return topologyEpoch;
+    }
+
+    /**
+     * @return a távolság-gyorsítótár találatainak száma
+     */
+    long getCacheHits() {
+        return cacheHits;
+    }
+
+    /**
+     * @return a távolság-gyorsítótár hiányainak (új bejárásoknak) száma
+     */
+    long getCacheMisses() {
+        return cacheMisses;
+    }
+
+    /**
+     * Visszaadja a forrástól mért távolságtérképet: a gyorsítótárból, ha a
+     * fonalhálózat azóta nem változott, különben egy teljes bejárással
+     * (a legrégebben számolt bejegyzés helyére).
+     */
+    private DistanceMap distancesFrom(Tecton source) {
+        int slot = source.getSlot();
+        for (DistanceMap map : cache) {
+            if (map.source == slot && map.epoch == topologyEpoch) {
+                cacheHits++;
+                return map;
+            }
+        }
+        cacheMisses++;
+        DistanceMap map = cache[nextEvicted];
+        nextEvicted = (nextEvicted + 1) % cache.length;
+        map.fill(adjacency, source, topologyEpoch);
+        return map;
+    }
+
+    /**
+     * @return az újraépítések száma a létrehozás óta
+     */
+    int getRebuildCount() {
+        return rebuildCount;
+    }
+
+    /**
+     * Ha fonal szűnt meg, a tectonok illeszkedő fonalaiból újraépíti a
+     * halmazokat.
+     */
+    private void refresh() {
+        if (!stale) {
+            return;
+        }
+        int count = adjacency.size();
+        if (parent.length < count) {
+            parent = new int[Math.max(count, parent.length * 2)];
+            size = new int[parent.length];
+        }
+        for (int slot = 0; slot < count; slot++) {
+            parent[slot] = slot;
+            size[slot] = 1;
+        }
+        built = count;
+        stale = false;
+        rebuildCount++;
+        for (int slot = 0; slot < count; slot++) {
+            Tecton tecton = adjacency.node(slot);
+            List<MushThread> incident = tecton.getIncidentThreads();
+            for (int i = 0; i < incident.size(); i++) {
+                MushThread thread = incident.get(i);
+                // Minden fonalat csak a kezdőpontjánál dolgoz fel
+                if (thread.getStart() == tecton && thread.getEnd() != null) {
+                    union(slot, thread.getEnd().getSlot());
+                }
+            }
+        }
+    }
+
+    /**
+     * Egyelemű halmazként felveszi a legutóbbi újraépítés óta létrejött
+     * tectonokat.
+     */
+    private void extend(int slot) {
+        int count = Math.max(slot + 1, adjacency.size());
+        if (parent.length < count) {
+            parent = Arrays.copyOf(parent, Math.max(count, parent.length * 2));
+            size = Arrays.copyOf(size, parent.length);
+        }
+        for (int i = built; i < count; i++) {
+            parent[i] = i;
+            size[i] = 1;
+        }
+        built = count;
+    }
+
+    private int find(int slot) {
+        if (slot >= built) {
+            extend(slot);
+        }
+        while (parent[slot] != slot) {
+            parent[slot] = parent[parent[slot]];
+            slot = parent[slot];
+        }
+        return slot;
+    }
+
+    private void union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB) {
+            return;
+        }
+        if (size[rootA] < size[rootB]) {
+            int swap = rootA;
+            rootA = rootB;
+            rootB = swap;
+        }
+        parent[rootB] = rootA;
+        size[rootA] += size[rootB];
+    }
+
+    /**
+     * Egy forrás tectontól mért fonaltávolságok, sorszám szerint indexelve
+     * (-1: nem elérhető). Újrafelhasználáskor csak az előző bejárásban
+     * beírt elemeket állítja vissza.
+     */
+    private static final class DistanceMap {
+        private int source = -1;
+        private long epoch = -1;
+        private int[] distance = new int[0];
+        private int[] touched = new int[0];
+        private int touchedCount;
+
+        int get(int slot) {
+            return slot < distance.length ? distance[slot] : -1;
+        }
+
+        void fill(AdjacencyStore adjacency, Tecton from, long epoch) {
+            int slotCount = adjacency.size();
+            for (int i = 0; i < touchedCount; i++) {
+                distance[touched[i]] = -1;
+            }
+            touchedCount = 0;
+            if (distance.length < slotCount) {
+                int old = distance.length;
+                distance = Arrays.copyOf(distance, Math.max(slotCount, old * 2));
+                Arrays.fill(distance, old, distance.length, -1);
+                touched = Arrays.copyOf(touched, distance.length);
+            }
+            this.source = from.getSlot();
+            this.epoch = epoch;
+
+            // A touched tömb egyben a bejárás sora is
+            set(source, 0);
+            for (int head = 0; head < touchedCount; head++) {
+                int currentSlot = touched[head];
+                Tecton current = adjacency.node(currentSlot);
+                int next = distance[currentSlot] + 1;
+                List<MushThread> incident = current.getIncidentThreads();
+                for (int i = 0; i < incident.size(); i++) {
+                    MushThread thread = incident.get(i);
+                    Tecton neighbor = thread.getStart() == current ? thread.getEnd() : thread.getStart();
+                    if (neighbor != null && get(neighbor.getSlot()) == -1) {
+                        set(neighbor.getSlot(), next);
+                    }
+                }
+            }
+        }
+
+        private void set(int slot, int value) {
+            distance[slot] = value;
+            touched[touchedCount++] = slot;
+        }
+    }
+}
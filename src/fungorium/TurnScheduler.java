@@ -0,0 +1,190 @@
+package fungorium;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A játékosok lépési sorrendjét kezelő ütemező.
+ *
+ * <p>
+ * A soron következő játékosok egy rögzített sorrendű tömbben állnak (előbb a
+ * gombászok, utána a rovarászok, tetszőleges számban). A továbbadás egyetlen
+ * indexléptetés: nincs rekurzió, és nem jön létre új objektum, így fej nélküli
+ * futtatásnál akár több millió lépés is egymás után játszható. Az utolsó
+ * játékos után a kör véget ér, és a sor elölről kezdődik.
+ * </p>
+ *
+ * <p>
+ * A játékszabályok a horgokon keresztül kapcsolódnak az ütemezéshez: minden
+ * továbbadáskor, egy fázis (a gombászok vagy a rovarászok sora) kezdetén és a
+ * kör végén lefutnak a regisztrált műveletek. A lépések maguk nem adják tovább
+ * a kört, csak jelzik, hogy sikerültek-e; erről a
+ * {@link #completeAction(boolean)} dönt.
+ * </p>
+ */
+public final class TurnScheduler {
+    /**
+     * A kör fázisai a lépési sorrendben.
+     */
+    public enum Phase {
+        MUSHROOM,
+        INSECT
+    }
+
+    private String[] actors = new String[0];
+    private Phase[] phases = new Phase[0];
+    /**
+     * A soron lévő játékos indexe az actors tömbben.
+     */
+    private int position;
+    /**
+     * A továbbadások száma a játék kezdete óta.
+     */
+    private long turnCount;
+
+    private final List<Runnable> turnHooks = new ArrayList<>();
+    private final List<Runnable> roundEndHooks = new ArrayList<>();
+    private final List<List<Runnable>> phaseHooks = new ArrayList<>();
+
+    public TurnScheduler() {
+        for (int i = 0; i < Phase.values().length; i++) {
+            phaseHooks.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Beállítja a lépési sorrendet. A soron lévő játékos indexe megmarad
+     * (legfeljebb az új sor végére kerül), így egy játék közben csatlakozó
+     * játékos nem borítja fel a sorrendet.
+     *
+     * @param mushroomActors a gombászok nevei lépési sorrendben
+     * @param insectActors   a rovarászok nevei lépési sorrendben
+     */
+    public void setActors(List<String> mushroomActors, List<String> insectActors) {
+        int size = mushroomActors.size() + insectActors.size();
+        actors = new String[size];
+        phases = new Phase[size];
+        int i = 0;
+        for (String actor : mushroomActors) {
+            actors[i] = actor;
+            phases[i++] = Phase.MUSHROOM;
+        }
+        for (String actor : insectActors) {
+            actors[i] = actor;
+            phases[i++] = Phase.INSECT;
+        }
+        position = Math.min(position, Math.max(0, size - 1));
+    }
+
+    /**
+     * Hozzáad egy minden továbbadáskor (a soron lévő játékos váltása előtt)
+     * lefutó műveletet.
+     *
+     * @param hook a művelet
+     */
+    public void addTurnHook(Runnable hook) {
+        turnHooks.add(hook);
+    }
+
+    /**
+     * Hozzáad egy a fázis első játékosának sorra kerülésekor lefutó műveletet.
+     *
+     * @param phase a fázis
+     * @param hook  a művelet
+     */
+    public void addPhaseHook(Phase phase, Runnable hook) {
+        phaseHooks.get(phase.ordinal()).add(hook);
+    }
+
+    /**
+     * Hozzáad egy a kör végén (az utolsó játékos lépése után, a sor újrakezdése
+     * előtt) lefutó műveletet.
+     *
+     * @param hook a művelet
+     */
+    public void addRoundEndHook(Runnable hook) {
+        roundEndHooks.add(hook);
+    }
+
+    /**
+     * Továbbadja a kört a következő játékosnak; az utolsó játékos után lezárja
+     * a kört, és az elsővel folytatja.
+     */
+    public void advance() {
+        turnCount++;
+        run(turnHooks);
+        position++;
+        if (position >= actors.length) {
+            position = 0;
+            run(roundEndHooks);
+        }
+        if (actors.length > 0 && (position == 0 || phases[position] != phases[position - 1])) {
+            run(phaseHooks.get(phases[position].ordinal()));
+        }
+    }
+
+    /**
+     * Lezárja a soron lévő játékos lépését: sikeres lépés után továbbadja a
+     * kört, sikertelen lépés után a játékos újra próbálkozhat.
+     *
+     * @param succeeded sikerült-e a lépés
+     * @return succeeded
+     */
+    public boolean completeAction(boolean succeeded) {
+        if (succeeded) {
+            advance();
+        }
+        return succeeded;
+    }
+
+    /**
+     * A soron lévő játékossá teszi a megadott nevű játékost (pl. betöltött
+     * vagy kézzel összeállított játéknál).
+     *
+     * @param actor a játékos neve
+     * @return true, ha a játékos szerepel a sorban
+     */
+    public boolean moveTo(String actor) {
+        for (int i = 0; i < actors.length; i++) {
+            if (actors[i].equals(actor)) {
+                position = i;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return a soron lévő játékos neve, vagy null, ha még nincs játékos
+     */
+    public String getCurrentActor() {
+        return actors.length == 0 ? null : actors[position];
+    }
+
+    /**
+     * @return a soron lévő játékos fázisa, vagy null, ha még nincs játékos
+     */
+    public Phase getCurrentPhase() {
+        return actors.length == 0 ? null : phases[position];
+    }
+
+    /**
+     * @return a továbbadások száma a játék kezdete óta
+     */
+    public long getTurnCount() {
+        return turnCount;
+    }
+
+    /**
+     * @return a játékosok száma a lépési sorban
+     */
+    public int getActorCount() {
+        return actors.length;
+    }
+
+    private static void run(List<Runnable> hooks) {
+        for (int i = 0; i < hooks.size(); i++) {
+            hooks.get(i).run();
+        }
+    }
+}
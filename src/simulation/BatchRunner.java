@@ -0,0 +1,295 @@
+package simulation;
+
+import fungorium.GameConfig;
+import fungorium.GameEngine;
+import fungorium.GameRandom;
+import fungorium.Mushroom;
+import fungorium.RandomStream;
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+/**
+ * Grafikus felület nélküli, párhuzamos játékfuttató a játékszabályok
+ * konstansainak (spóratermelés, érési küszöb, lövésszám, gombatest ára)
+ * hangolásához.
+ *
+ * <p>
+ * Minden játék saját GameEngine példányt kap a sorszámából származtatott
+ * kezdőértékkel, így egy játék a sorszáma alapján bármikor pontosan
+ * újrajátszható. A játékok egy ForkJoinPool szálain futnak; a játékonkénti
+ * eredmények CSV sorként, a futás végén az összesítés '#' kezdetű sorokként
+ * kerül a kimeneti fájlba.
+ * </p>
+ *
+ * <p>
+ * Használat (minden paraméter elhagyható):
+ * </p>
+ *
+ * <pre>
+ * java simulation.BatchRunner games=10000 players=3 tectons=30 rounds=10 seed=1
+ *     threads=8 mushroom=random insect=random sporesPerRound=5 maturitySpores=8
+ *     maxFireCount=3 mushBodySporeCost=10 out=simulation.csv
+ * </pre>
+ */
+public class BatchRunner {
+    /**
+     * Ennyi játékot futtat egy részfeladat sorban, ennél többet feloszt.
+     */
+    private static final int GAMES_PER_TASK = 64;
+    /**
+     * Egy játék legfeljebb ennyiszer próbál lépni körönként és játékosonként;
+     * ez csak a hibásan soha véget nem érő játékok ellen véd.
+     */
+    private static final int MAX_STEPS_PER_TURN = 4;
+
+    private final GameConfig config;
+    private final long games;
+    private final Supplier<Policy> mushroomPolicy;
+    private final Supplier<Policy> insectPolicy;
+    private final PrintWriter out;
+
+    /**
+     * @param config         a játékok közös beállításai (a seed a sorozat
+     *                       kezdőértéke)
+     * @param games          a lejátszandó játékok száma
+     * @param mushroomPolicy a gombászok stratégiáját létrehozó függvény (minden
+     *                       részfeladat saját példányt kap)
+     * @param insectPolicy   a rovarászok stratégiáját létrehozó függvény
+     * @param out            a játékonkénti sorok és az összesítés kimenete
+     */
+    public BatchRunner(GameConfig config, long games, Supplier<Policy> mushroomPolicy,
+            Supplier<Policy> insectPolicy, PrintWriter out) {
+        this.config = new GameConfig(config);
+        this.games = games;
+        this.mushroomPolicy = mushroomPolicy;
+        this.insectPolicy = insectPolicy;
+        this.out = out;
+    }
+
+    public static void main(String[] args) throws IOException {
+        GameConfig config = new GameConfig(10, 30, 3);
+        config.setSeed(1);
+        long games = 10000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String mushroom = "random";
+        String insect = "random";
+        String fileName = "simulation.csv";
+
+        for (String arg : args) {
+            String[] kv = arg.split("=", 2);
+            if (kv.length != 2) {
+                System.out.println("Hibás paraméter: " + arg);
+                return;
+            }
+            switch (kv[0]) {
+                case "games" -> games = Long.parseLong(kv[1]);
+                case "players" -> config.setPlayerNumber(Integer.parseInt(kv[1]));
+                case "tectons" -> config.setTectonNumber(Integer.parseInt(kv[1]));
+                case "rounds" -> config.setRoundNumber(Integer.parseInt(kv[1]));
+                case "seed" -> config.setSeed(Long.parseLong(kv[1]));
+                case "threads" -> threads = Integer.parseInt(kv[1]);
+                case "mushroom" -> mushroom = kv[1];
+                case "insect" -> insect = kv[1];
+                case "sporesPerRound" -> config.setSporesPerRound(Integer.parseInt(kv[1]));
+                case "maturitySpores" -> config.setMaturitySpores(Integer.parseInt(kv[1]));
+                case "maxFireCount" -> config.setMaxFireCount(Integer.parseInt(kv[1]));
+                case "mushBodySporeCost" -> config.setMushBodySporeCost(Integer.parseInt(kv[1]));
+                case "out" -> fileName = kv[1];
+                default -> {
+                    System.out.println("Ismeretlen paraméter: " + kv[0]);
+                    return;
+                }
+            }
+        }
+
+        PrintStream console = System.out;
+        // A modell minden lépést kiír; szimuláció közben ez csak lassítana
+        System.setOut(new SilentPrintStream());
+        try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(fileName)))) {
+            BatchRunner runner = new BatchRunner(config, games, policyOf(mushroom), policyOf(insect), writer);
+            long start = System.nanoTime();
+            BatchStatistics stats = runner.run(new ForkJoinPool(threads));
+            double seconds = (System.nanoTime() - start) / 1e9;
+            writer.println(String.format(Locale.ROOT, "# elapsed=%.3fs games/s=%.1f", seconds,
+                    stats.getGames() / seconds));
+            console.println(String.format(Locale.ROOT, "%d játék (%d hibás) %.3f s alatt, %.1f játék/s, eredmények: %s",
+                    stats.getGames(), stats.getFailed(), seconds, stats.getGames() / seconds, fileName));
+        } finally {
+            System.setOut(console);
+        }
+    }
+
+    /**
+     * A parancssori név alapján visszaadja a stratégiát létrehozó függvényt.
+     *
+     * @param name a stratégia neve ("random" vagy "pass")
+     * @return a stratégiát létrehozó függvény
+     * @throws IllegalArgumentException ismeretlen név esetén
+     */
+    private static Supplier<Policy> policyOf(String name) {
+        return switch (name) {
+            case "random" -> RandomPolicy::new;
+            case "pass" -> PassPolicy::new;
+            default -> throw new IllegalArgumentException("Ismeretlen stratégia: " + name);
+        };
+    }
+
+    /**
+     * Lejátssza az összes játékot a megadott szálkészleten, és kiírja az
+     * eredményeket.
+     *
+     * @param pool a szálkészlet
+     * @return az összesített statisztika
+     */
+    public BatchStatistics run(ForkJoinPool pool) {
+        out.println("game,seed,rounds,turns,insectWinner,mushroomWinner,insectScores,mushroomScores,error");
+        BatchStatistics stats = pool.invoke(new GameRangeTask(0, games));
+        stats.write(out);
+        return stats;
+    }
+
+    /**
+     * Lejátssza a megadott sorszámú játékot.
+     *
+     * @param index          a játék sorszáma
+     * @param mushroomPolicy a gombászok stratégiája
+     * @param insectPolicy   a rovarászok stratégiája
+     * @return a játék eredménye
+     */
+    GameResult play(long index, Policy mushroomPolicy, Policy insectPolicy) {
+        long seed = GameRandom.deriveSeed(config.getSeed(), index);
+        GameConfig gameConfig = new GameConfig(config);
+        gameConfig.setSeed(seed);
+        GameEngine engine = GameEngine.create(gameConfig);
+        // A stratégiák a motor folyamai után következő sorszámú saját generátort kapják
+        GameRandom policyRandom = new GameRandom(GameRandom.deriveSeed(seed, RandomStream.values().length));
+        String error = null;
+        long maxSteps = (long) MAX_STEPS_PER_TURN * gameConfig.getRoundNumber() * 2 * gameConfig.getPlayerNumber();
+        try {
+            engine.createMap();
+            LatticeTopology.connect(engine);
+            engine.generatePlayers();
+            engine.setCurrentPlayer(engine.getMushrooms().get(0).getName());
+
+            for (long step = 0; engine.getRound() > 0 && step < maxSteps; step++) {
+                String player = engine.getCurrentPlayer();
+                Policy policy = player.startsWith("m") ? mushroomPolicy : insectPolicy;
+                if (!engine.completeAction(policy.act(engine, player, policyRandom)))
+                    engine.next(); // Nem sikerült lépni: passzol
+            }
+        } catch (RuntimeException e) {
+            StackTraceElement[] trace = e.getStackTrace();
+            error = e.getClass().getSimpleName() + (trace.length > 0 ? " at " + trace[0] : "");
+        }
+
+        int playerNumber = gameConfig.getPlayerNumber();
+        int[] insectScores = new int[playerNumber];
+        int[] mushroomScores = new int[playerNumber];
+        List<Mushroom> mushrooms = engine.getMushrooms();
+        for (int i = 0; i < playerNumber; i++) {
+            insectScores[i] = engine.getInsectPlayeScore("i" + i);
+            mushroomScores[i] = i < mushrooms.size() ? mushrooms.get(i).getScore() : 0;
+        }
+        return new GameResult(index, seed, gameConfig.getRoundNumber() - Math.max(0, engine.getRound()),
+                engine.getTurnCount(), insectScores, mushroomScores, error);
+    }
+
+    /**
+     * Játékok egy sorszám-tartományát lejátszó részfeladat. A nagy
+     * tartományokat felezi; a levelek sorban játszanak, az eredménysoraikat
+     * egyben írják ki.
+     */
+    private class GameRangeTask extends RecursiveTask<BatchStatistics> {
+        private static final long serialVersionUID = 1L;
+        private final long from;
+        private final long to;
+
+        GameRangeTask(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected BatchStatistics compute() {
+            if (to - from > GAMES_PER_TASK) {
+                long mid = (from + to) >>> 1;
+                GameRangeTask left = new GameRangeTask(from, mid);
+                left.fork();
+                BatchStatistics stats = new GameRangeTask(mid, to).compute();
+                stats.merge(left.join());
+                return stats;
+            }
+
+            BatchStatistics stats = new BatchStatistics(config.getPlayerNumber());
+            // A stratégiák állapotot tarthatnak, ezért minden levél saját példányt használ
+            Policy mushrooms = mushroomPolicy.get();
+            Policy insects = insectPolicy.get();
+            StringBuilder rows = new StringBuilder();
+            for (long i = from; i < to; i++) {
+                GameResult result = play(i, mushrooms, insects);
+                stats.add(result);
+                rows.append(result.toCsv()).append('\n');
+            }
+            synchronized (out) {
+                out.print(rows);
+                out.flush();
+            }
+            return stats;
+        }
+    }
+
+    /**
+     * Mindent eldobó kimenet. A print/println felülírása miatt a kiírás
+     * zárolás és karakterkódolás nélkül, azonnal visszatér.
+     */
+    private static final class SilentPrintStream extends PrintStream {
+        SilentPrintStream() {
+            super(OutputStream.nullOutputStream());
+        }
+
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] buf, int off, int len) {
+        }
+
+        @Override
+        public void print(String s) {
+        }
+
+        @Override
+        public void print(Object obj) {
+        }
+
+        @Override
+        public void print(int i) {
+        }
+
+        @Override
+        public void println() {
+        }
+
+        @Override
+        public void println(String x) {
+        }
+
+        @Override
+        public void println(Object x) {
+        }
+
+        @Override
+        public void println(int x) {
+        }
+    }
+}
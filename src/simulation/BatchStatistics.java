@@ -0,0 +1,129 @@
+package simulation;
+
+import java.io.PrintWriter;
+import java.util.Locale;
+
+/**
+ * Szimulált játékok összesített statisztikája: győzelmi arányok, pontszám- és
+ * játékhossz-eloszlások. A párhuzamos munkák mindegyike saját példányt tölt,
+ * ezeket a végén a {@link #merge(BatchStatistics)} fésüli össze.
+ */
+public class BatchStatistics {
+    private final long[] insectWins;
+    private final long[] mushroomWins;
+    private final Histogram insectScores = new Histogram();
+    private final Histogram mushroomScores = new Histogram();
+    private final Histogram winningInsectScores = new Histogram();
+    private final Histogram winningMushroomScores = new Histogram();
+    private final Histogram turns = new Histogram();
+    private final Histogram rounds = new Histogram();
+    private long insectDraws;
+    private long mushroomDraws;
+    private long games;
+    private long failed;
+
+    /**
+     * @param players a játékosok száma mindkét oldalon
+     */
+    public BatchStatistics(int players) {
+        insectWins = new long[players];
+        mushroomWins = new long[players];
+    }
+
+    /**
+     * Felvesz egy játékot. A hibával megszakadt játékok csak a hibaszámlálóba
+     * kerülnek.
+     *
+     * @param result a játék eredménye
+     */
+    public void add(GameResult result) {
+        games++;
+        if (result.getError() != null) {
+            failed++;
+            return;
+        }
+        int insectWinner = GameResult.winnerOf(result.getInsectScores());
+        int mushroomWinner = GameResult.winnerOf(result.getMushroomScores());
+        if (insectWinner >= 0) {
+            insectWins[insectWinner]++;
+            winningInsectScores.add(result.getInsectScores()[insectWinner]);
+        } else {
+            insectDraws++;
+        }
+        if (mushroomWinner >= 0) {
+            mushroomWins[mushroomWinner]++;
+            winningMushroomScores.add(result.getMushroomScores()[mushroomWinner]);
+        } else {
+            mushroomDraws++;
+        }
+        for (int score : result.getInsectScores())
+            insectScores.add(score);
+        for (int score : result.getMushroomScores())
+            mushroomScores.add(score);
+        turns.add((int) Math.min(Integer.MAX_VALUE, result.getTurns()));
+        rounds.add(result.getRounds());
+    }
+
+    /**
+     * Hozzáadja a másik statisztikát ehhez.
+     *
+     * @param other a hozzáadandó statisztika
+     */
+    public void merge(BatchStatistics other) {
+        games += other.games;
+        failed += other.failed;
+        insectDraws += other.insectDraws;
+        mushroomDraws += other.mushroomDraws;
+        for (int i = 0; i < insectWins.length; i++) {
+            insectWins[i] += other.insectWins[i];
+            mushroomWins[i] += other.mushroomWins[i];
+        }
+        insectScores.merge(other.insectScores);
+        mushroomScores.merge(other.mushroomScores);
+        winningInsectScores.merge(other.winningInsectScores);
+        winningMushroomScores.merge(other.winningMushroomScores);
+        turns.merge(other.turns);
+        rounds.merge(other.rounds);
+    }
+
+    /**
+     * @return a felvett játékok száma (a hibásakkal együtt)
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * @return a hibával megszakadt játékok száma
+     */
+    public long getFailed() {
+        return failed;
+    }
+
+    /**
+     * Kiírja az összesítést '#'-tel kezdődő sorokban, hogy a CSV-vel együtt is
+     * könnyen szűrhető legyen.
+     *
+     * @param out a kimenet
+     */
+    public void write(PrintWriter out) {
+        long finished = games - failed;
+        out.println("# games=" + games + " finished=" + finished + " failed=" + failed);
+        for (int i = 0; i < insectWins.length; i++) {
+            out.println(String.format(Locale.ROOT, "# winrate i%d=%.4f m%d=%.4f", i, rate(insectWins[i], finished),
+                    i, rate(mushroomWins[i], finished)));
+        }
+        out.println(String.format(Locale.ROOT, "# drawrate insects=%.4f mushrooms=%.4f",
+                rate(insectDraws, finished), rate(mushroomDraws, finished)));
+        out.println("# insect score " + insectScores.summary());
+        out.println("# mushroom score " + mushroomScores.summary());
+        out.println("# winning insect score " + winningInsectScores.summary());
+        out.println("# winning mushroom score " + winningMushroomScores.summary());
+        out.println("# turns " + turns.summary());
+        out.println("# rounds " + rounds.summary());
+    }
+
+    private static double rate(long wins, long games) {
+        return games == 0 ? 0 : (double) wins / games;
+    }
+}
@@ -0,0 +1,107 @@
+package simulation;
+
+/**
+ * Egy lejátszott szimulált játék eredménye.
+ */
+public class GameResult {
+    private final long index;
+    private final long seed;
+    private final int rounds;
+    private final long turns;
+    private final int[] insectScores;
+    private final int[] mushroomScores;
+    private final String error;
+
+    /**
+     * @param index          a játék sorszáma a sorozatban
+     * @param seed           a játék kezdőértéke
+     * @param rounds         a lejátszott körök száma
+     * @param turns          a lejátszott lépések (next() hívások) száma
+     * @param insectScores   a rovarászok pontszáma játékosonként
+     * @param mushroomScores a gombászok pontszáma játékosonként
+     * @param error          a játékot megszakító hiba leírása, vagy null
+     */
+    public GameResult(long index, long seed, int rounds, long turns, int[] insectScores, int[] mushroomScores,
+            String error) {
+        this.index = index;
+        this.seed = seed;
+        this.rounds = rounds;
+        this.turns = turns;
+        this.insectScores = insectScores;
+        this.mushroomScores = mushroomScores;
+        this.error = error;
+    }
+
+    /**
+     * Megadja a legnagyobb pontszámú játékos sorszámát.
+     *
+     * @param scores a pontszámok játékosonként
+     * @return a győztes sorszáma, vagy -1, ha nincs játékos vagy több játékos
+     *         osztozik a legjobb pontszámon (döntetlen)
+     */
+    public static int winnerOf(int[] scores) {
+        int winner = -1;
+        boolean tie = false;
+        for (int i = 0; i < scores.length; i++) {
+            if (winner == -1 || scores[i] > scores[winner]) {
+                winner = i;
+                tie = false;
+            } else if (scores[i] == scores[winner]) {
+                tie = true;
+            }
+        }
+        return tie ? -1 : winner;
+    }
+
+    public long getIndex() {
+        return index;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getRounds() {
+        return rounds;
+    }
+
+    public long getTurns() {
+        return turns;
+    }
+
+    public int[] getInsectScores() {
+        return insectScores;
+    }
+
+    public int[] getMushroomScores() {
+        return mushroomScores;
+    }
+
+    /**
+     * @return a játékot megszakító hiba leírása, vagy null, ha a játék végigment
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * A játék egy CSV sora (a pontszámok ';'-vel elválasztva).
+     *
+     * @return a CSV sor
+     */
+    public String toCsv() {
+        return index + "," + seed + "," + rounds + "," + turns + "," + winnerOf(insectScores) + ","
+                + winnerOf(mushroomScores) + "," + join(insectScores) + "," + join(mushroomScores) + ","
+                + (error == null ? "" : error.replace(',', ' '));
+    }
+
+    private static String join(int[] values) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0)
+                sb.append(';');
+            sb.append(values[i]);
+        }
+        return sb.toString();
+    }
+}
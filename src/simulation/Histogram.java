@@ -0,0 +1,124 @@
+package simulation;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Nemnegatív egész értékek (pontszámok, játékhosszak) eloszlását gyűjtő
+ * hisztogram. Értékenként egy számlálót tart, így a percentilisek pontosak, és
+ * két hisztogram összefésülése a párhuzamos részeredmények összesítésénél
+ * olcsó.
+ */
+public class Histogram {
+    /**
+     * Az egyes értékek előfordulásainak száma; a negatív értékek a 0-hoz
+     * kerülnek.
+     */
+    private long[] counts = new long[16];
+    private long total;
+    private long sum;
+    private double sumOfSquares;
+    private int min = Integer.MAX_VALUE;
+    private int max = Integer.MIN_VALUE;
+
+    /**
+     * Felvesz egy értéket.
+     *
+     * @param value a felvett érték
+     */
+    public void add(int value) {
+        int bucket = Math.max(0, value);
+        if (bucket >= counts.length)
+            counts = Arrays.copyOf(counts, Math.max(bucket + 1, counts.length * 2));
+        counts[bucket]++;
+        total++;
+        sum += value;
+        sumOfSquares += (double) value * value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Hozzáadja a másik hisztogram értékeit ehhez.
+     *
+     * @param other a hozzáadandó hisztogram
+     */
+    public void merge(Histogram other) {
+        if (other.counts.length > counts.length)
+            counts = Arrays.copyOf(counts, other.counts.length);
+        for (int i = 0; i < other.counts.length; i++)
+            counts[i] += other.counts[i];
+        total += other.total;
+        sum += other.sum;
+        sumOfSquares += other.sumOfSquares;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * @return a felvett értékek száma
+     */
+    public long getCount() {
+        return total;
+    }
+
+    /**
+     * @return az átlag, vagy 0, ha nincs felvett érték
+     */
+    public double getMean() {
+        return total == 0 ? 0 : (double) sum / total;
+    }
+
+    /**
+     * @return a szórás, vagy 0, ha nincs felvett érték
+     */
+    public double getStandardDeviation() {
+        if (total == 0)
+            return 0;
+        double mean = getMean();
+        return Math.sqrt(Math.max(0, sumOfSquares / total - mean * mean));
+    }
+
+    /**
+     * @return a legkisebb felvett érték, vagy 0, ha nincs
+     */
+    public int getMin() {
+        return total == 0 ? 0 : min;
+    }
+
+    /**
+     * @return a legnagyobb felvett érték, vagy 0, ha nincs
+     */
+    public int getMax() {
+        return total == 0 ? 0 : max;
+    }
+
+    /**
+     * Visszaadja a megadott percentilist.
+     *
+     * @param p a percentilis 0 és 100 között
+     * @return a legkisebb érték, amelynél a felvett értékek legalább p százaléka
+     *         nem nagyobb
+     */
+    public int getPercentile(double p) {
+        long rank = (long) Math.ceil(p / 100.0 * total);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank && seen > 0)
+                return i;
+        }
+        return getMax();
+    }
+
+    /**
+     * Egy soros összefoglaló a kimeneti fájlhoz.
+     *
+     * @return az összefoglaló
+     */
+    public String summary() {
+        return String.format(Locale.ROOT, "n=%d mean=%.3f sd=%.3f min=%d p10=%d p50=%d p90=%d max=%d",
+                total, getMean(), getStandardDeviation(), getMin(), getPercentile(10), getPercentile(50),
+                getPercentile(90), getMax());
+    }
+}
@@ -0,0 +1,45 @@
+package simulation;
+
+import fungorium.GameEngine;
+import fungorium.Tecton;
+import java.util.List;
+
+/**
+ * A fej nélküli játékokhoz készít szomszédsági gráfot a
+ * {@link GameEngine#createMap()} által létrehozott tectonok között.
+ *
+ * <p>
+ * A grafikus felületen a szomszédságot a MapLayout állítja elő a tectonok
+ * véletlen rácsbeli helye alapján; szimulációban nincs szükség koordinátákra,
+ * ezért a tectonok egy közel négyzetes rács mezőibe kerülnek, és a vízszintes, a
+ * függőleges és az egyik átlós irányú szomszédjukkal kötődnek össze (ez a
+ * hatszögrácshoz hasonló, legfeljebb hat szomszédos elrendezést ad).
+ * </p>
+ */
+public final class LatticeTopology {
+
+    private LatticeTopology() {
+    }
+
+    /**
+     * Összeköti a motor tectonjait a rácsbeli szomszédjaikkal (a
+     * {@link Tecton#addNeighbor(Tecton)} mindkét irányban beállítja a
+     * kapcsolatot).
+     *
+     * @param engine a játékmotor, amelynek a tectonjait össze kell kötni
+     */
+    public static void connect(GameEngine engine) {
+        List<Tecton> tectons = engine.getTectons();
+        int count = tectons.size();
+        int width = (int) Math.ceil(Math.sqrt(count));
+        for (int i = 0; i < count; i++) {
+            boolean lastColumn = i % width == width - 1;
+            if (!lastColumn && i + 1 < count)
+                tectons.get(i).addNeighbor(tectons.get(i + 1));
+            if (i + width < count)
+                tectons.get(i).addNeighbor(tectons.get(i + width));
+            if (!lastColumn && i + width + 1 < count)
+                tectons.get(i).addNeighbor(tectons.get(i + width + 1));
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package simulation;
+
+import fungorium.GameEngine;
+import fungorium.GameRandom;
+
+/**
+ * Olyan stratégia, amely soha nem lép, minden körben passzol. Viszonyítási
+ * alapnak használható a többi stratégiához.
+ */
+public class PassPolicy implements Policy {
+
+    @Override
+    public boolean act(GameEngine engine, String player, GameRandom random) {
+        // Szándékosan nem csinál semmit, a futtató passzol helyette.
+        return false;
+    }
+}
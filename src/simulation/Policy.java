@@ -0,0 +1,27 @@
+package simulation;
+
+import fungorium.GameEngine;
+import fungorium.GameRandom;
+
+/**
+ * Egy géppel irányított játékos stratégiája a fej nélküli (grafikus felület
+ * nélküli) szimulációkhoz.
+ *
+ * <p>
+ * A stratégia a soron lévő játékos nevében a modell szokásos műveleteit hívja
+ * (pl. {@code Mushroom.growThread}, {@code Insect.moveInsect}), és visszaadja,
+ * hogy sikerült-e lépnie. A kört a futtató adja tovább: sikeres lépés után a
+ * {@link GameEngine#completeAction(boolean)}, különben passzolással.
+ * </p>
+ */
+public interface Policy {
+    /**
+     * Lép egyet a megadott játékos nevében.
+     *
+     * @param engine a játékmotor
+     * @param player a soron lévő játékos neve (pl. "m0" vagy "i1")
+     * @param random a stratégia saját véletlenszám-generátora
+     * @return true, ha a stratégia sikeresen lépett
+     */
+    boolean act(GameEngine engine, String player, GameRandom random);
+}
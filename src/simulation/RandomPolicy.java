@@ -0,0 +1,138 @@
+package simulation;
+
+import fungorium.GameEngine;
+import fungorium.GameRandom;
+import fungorium.Insect;
+import fungorium.MushBody;
+import fungorium.MushThread;
+import fungorium.Mushroom;
+import fungorium.Tecton;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Véletlenszerűen választó stratégia: a soron lévő játékos egy véletlen
+ * egységével (gombatest vagy rovar) egy véletlen műveletet próbál meg a
+ * környező tectonokon. Ha a művelet nem sikerül, a futtató passzol helyette.
+ */
+public class RandomPolicy implements Policy {
+    /**
+     * Az egy lövéssel kilőhető spórák legnagyobb száma.
+     */
+    private static final int MAX_FIRE_AMOUNT = 3;
+
+    /**
+     * Újrahasznosított lista az élő gombatestek összegyűjtéséhez.
+     */
+    private final List<MushBody> alive = new ArrayList<>();
+
+    @Override
+    public boolean act(GameEngine engine, String player, GameRandom random) {
+        if (player.startsWith("m")) {
+            return actAsMushroom(engine, player, random);
+        } else {
+            return actAsInsect(engine, player, random);
+        }
+    }
+
+    /**
+     * Egy gombász véletlen lépése.
+     *
+     * @param engine a játékmotor
+     * @param player a gombász neve
+     * @param random a stratégia generátora
+     * @return true, ha a lépés sikerült
+     */
+    private boolean actAsMushroom(GameEngine engine, String player, GameRandom random) {
+        Mushroom mushroom = null;
+        for (Mushroom m : engine.getMushrooms()) {
+            if (m.getName().equals(player)) {
+                mushroom = m;
+                break;
+            }
+        }
+        if (mushroom == null)
+            return false;
+
+        alive.clear();
+        for (MushBody body : mushroom.getMushBodies()) {
+            if (body.getLocation() != null)
+                alive.add(body);
+        }
+        if (alive.isEmpty())
+            return false;
+
+        MushBody body = pick(alive, random);
+        Tecton home = body.getLocation();
+        Tecton target = pick(home.getNeighbors(), random);
+        if (target == null)
+            return false;
+
+        switch (random.nextInt(4)) {
+            case 0 -> {
+                int available = body.getSpores().size();
+                return available > 0
+                        && mushroom.fireSpore(body, target, 1 + random.nextInt(Math.min(MAX_FIRE_AMOUNT, available)));
+            }
+            case 1 -> {
+                // A fonal végéről is próbálkozhat tovább, ne csak a test mellől
+                MushThread thread = pick(home.getThreads(), random);
+                if (thread != null && thread.getEnd() != null && random.nextBoolean()) {
+                    Tecton further = pick(thread.getEnd().getNeighbors(), random);
+                    if (further != null)
+                        target = further;
+                }
+                return mushroom.growThread(target, body);
+            }
+            case 2 -> {
+                return mushroom.growMushBody(target);
+            }
+            default -> {
+                return !target.getInsects().isEmpty() && mushroom.eatInsectWithThread(body, target);
+            }
+        }
+    }
+
+    /**
+     * Egy rovarász véletlen lépése.
+     *
+     * @param engine a játékmotor
+     * @param player a rovarász neve
+     * @param random a stratégia generátora
+     * @return true, ha a lépés sikerült
+     */
+    private boolean actAsInsect(GameEngine engine, String player, GameRandom random) {
+        Insect insect = pick(engine.getPlayerInsects(player), random);
+        if (insect == null || insect.getPosition() == null)
+            return false;
+
+        Tecton position = insect.getPosition();
+        if (!position.getSpores().isEmpty() && random.nextBoolean()) {
+            return insect.eatSpore() != null;
+        }
+
+        if (random.nextInt(4) == 0) {
+            MushThread thread = pick(position.getThreads(), random);
+            if (thread != null && thread.getEnd() != null && insect.getCutSkill())
+                return insect.cutThread(thread);
+            return false;
+        }
+
+        Tecton target = pick(position.getNeighbors(), random);
+        return target != null && insect.moveInsect(target);
+    }
+
+    /**
+     * Véletlen elemet választ egy listából.
+     *
+     * @param <T>    az elemek típusa
+     * @param list   a lista
+     * @param random a generátor
+     * @return a választott elem, vagy null, ha a lista üres
+     */
+    private static <T> T pick(List<T> list, GameRandom random) {
+        if (list.isEmpty())
+            return null;
+        return list.get(random.nextInt(list.size()));
+    }
+}
@@ -0,0 +1,103 @@
+package simulation;
+
+import fungorium.GameConfig;
+import fungorium.GameEngine;
+import fungorium.MapGenerator;
+import fungorium.RoundPartitionStats;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Locale;
+
+/**
+ * A kör végi feldolgozás sebességmérése nagy, generált térképen, grafikus
+ * felület nélkül. A játékosok minden körben passzolnak, így a mért idő a
+ * kör végi feldolgozásé (gombatestek, rovarok, tectonok számítási és
+ * végrehajtási fázisa).
+ *
+ * <p>
+ * Használat (minden paraméter elhagyható):
+ * </p>
+ *
+ * <pre>
+ * java simulation.RoundBenchmark tectons=1000000 rounds=20 warmup=5 players=4 seed=1
+ * </pre>
+ */
+public final class RoundBenchmark {
+
+    private RoundBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int tectons = 1_000_000;
+        int rounds = 20;
+        int warmup = 5;
+        int players = 4;
+        long seed = 1;
+
+        for (String arg : args) {
+            String[] kv = arg.split("=", 2);
+            if (kv.length != 2) {
+                System.out.println("Hibás paraméter: " + arg);
+                return;
+            }
+            switch (kv[0]) {
+                case "tectons" -> tectons = Integer.parseInt(kv[1]);
+                case "rounds" -> rounds = Integer.parseInt(kv[1]);
+                case "warmup" -> warmup = Integer.parseInt(kv[1]);
+                case "players" -> players = Integer.parseInt(kv[1]);
+                case "seed" -> seed = Long.parseLong(kv[1]);
+                default -> {
+                    System.out.println("Ismeretlen paraméter: " + kv[0]);
+                    return;
+                }
+            }
+        }
+
+        GameConfig config = new GameConfig(warmup + rounds + 1, tectons, players);
+        config.setSeed(seed);
+        GameEngine engine = GameEngine.create(config);
+        long start = System.nanoTime();
+        new MapGenerator(seed).generate(tectons).materializeAll(engine);
+        engine.generatePlayers();
+        engine.setCurrentPlayer(engine.getMushrooms().get(0).getName());
+        System.out.println(String.format(Locale.ROOT, "%d tecton felépítve %.3f s alatt",
+                engine.getTectons().size(), (System.nanoTime() - start) / 1e9));
+
+        PrintStream console = System.out;
+        // A modell minden lépést kiír; mérés közben ez csak lassítana
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        long total = 0;
+        long best = Long.MAX_VALUE;
+        try {
+            for (int round = 0; round < warmup + rounds; round++) {
+                long nanos = playRound(engine);
+                if (round >= warmup) {
+                    total += nanos;
+                    best = Math.min(best, nanos);
+                }
+            }
+        } finally {
+            System.setOut(console);
+        }
+
+        RoundPartitionStats stats = engine.getLastRoundPartitionStats();
+        System.out.println(String.format(Locale.ROOT,
+                "%d kör: átlag %.2f ms/kör, legjobb %.2f ms/kör, %d tecton a végén; utolsó kör: %s",
+                rounds, total / 1e6 / Math.max(1, rounds), best / 1e6, engine.getTectons().size(), stats));
+    }
+
+    /**
+     * Minden játékos passzol, amíg a kör le nem zárul.
+     *
+     * @param engine a játékmotor
+     * @return a kör ideje nanoszekundumban
+     */
+    private static long playRound(GameEngine engine) {
+        int round = engine.getRound();
+        long start = System.nanoTime();
+        while (engine.getRound() == round) {
+            engine.next();
+        }
+        return System.nanoTime() - start;
+    }
+}
@@ -3,26 +3,34 @@ package view;
 import controller.NewTectonListener;
 import fungorium.*;
 import java.awt.*;
-import java.awt.geom.Line2D;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
+import java.util.Set;
 import javax.swing.*;
 import view.GameBoardView.Edge;
 
 /**
  * A játék tábla megjelenítéséért és kirajzolásáért felelős JPanel.
  * Megjeleníti a Tectonokat, Mushroom testeket, rovarokat, spórákat és az őket összekötő éleket.
- * Az osztály megfigyelőként (Observer) viselkedik a játék motor (GameEngine) változásaira,
+ * Az osztály a játék motor (GameEngine) változásgyűjtőjére iratkozik fel: a lépésenként
+ * kapott összevont változásokból eldönti, mely nézetcsoportokat kell újraépíteni,
  * és kezeli az új Tectonok létrejöttét a megjelenítésben is.
  */
-public class GameBoardView extends JPanel implements Observer, NewTectonListener {
+public class GameBoardView extends JPanel implements Observer, ChangeListener, NewTectonListener, CrackPartitioner {
     private List<TectonView> tectonViews = new ArrayList<>();
     private List<MushBodyView> mushBodyViews = new ArrayList<>();
     private List<InsectView> insectViews = new ArrayList<>();
     private List<SporeView> sporeViews = new ArrayList<>();
     private List<MushThreadView> mushThreadViews = new ArrayList<>();
     private List<Edge> edges = new ArrayList<>(); // Szomszédossági éleket tartalmazó lista
+    private Map<Tecton, TectonView> viewsByTecton = new IdentityHashMap<>(); // Tecton -> TectonView
+    private Map<TectonView, List<Edge>> edgesByView = new IdentityHashMap<>(); // TectonView -> illeszkedő élek
+    private int dirtyViews; // A következő rajzolás előtt újraépítendő nézetcsoportok (*_VIEWS bitek)
+    // Elmozdult Tectonok: a rajtuk lévő elemek nézeteit a következő rajzolás előtt át kell helyezni
+    private Set<Tecton> movedTectons = Collections.newSetFromMap(new IdentityHashMap<>());
     private GameEngine engine;
 
     private static final int WIDTH = 1000;
@@ -30,19 +38,26 @@ public class GameBoardView extends JPanel implements Observer, NewTectonListener
     private static final int GRID_SIZE = 7; // 7x7 grid => max 49 node
     private static final int CELL_WIDTH = WIDTH / GRID_SIZE;
     private static final int CELL_HEIGHT = HEIGHT / GRID_SIZE;
-    private static final int MAX_DISTANCE = (CELL_HEIGHT + CELL_WIDTH + 120) / 2;
+    private static final int MARGIN = 33; // A tectonok legkisebb távolsága a cella szélétől
+
+    private static final int BODY_VIEWS = 1;
+    private static final int INSECT_VIEWS = 1 << 1;
+    private static final int THREAD_VIEWS = 1 << 2;
+    private static final int SPORE_VIEWS = 1 << 3;
+    private static final int ALL_VIEWS = BODY_VIEWS | INSECT_VIEWS | THREAD_VIEWS | SPORE_VIEWS;
 
     /**
      * Konstruktor, amely létrehozza a GameBoardView-t a megadott GameEngine alapján.
-     * Feliratkozik az engine-re observerként és új Tecton esemény figyelőként,
+     * Feliratkozik az engine változásgyűjtőjére és új Tecton esemény figyelőként,
      * valamint inicializálja a grafikus elemeket és a véletlenszerű gráfot.
      * 
      * @param engine A játék motor, amely az adatokat szolgáltatja.
      */
     public GameBoardView(GameEngine engine) {
         this.engine = engine;
-        engine.addObserver(this);
+        engine.getChangeBus().addListener(this);
         engine.addNewTectonListener(this);
+        engine.setCrackPartitioner(this);
         setPreferredSize(new Dimension(WIDTH, HEIGHT));
 
         // View-k létrehozása
@@ -64,107 +79,191 @@ public class GameBoardView extends JPanel implements Observer, NewTectonListener
      * - SporeView-k
      */
     public void createViews() {
-        // TectonView-k létrehozása
+        dirtyViews = ALL_VIEWS;
+        rebuildDirtyViews();
+    }
+
+    /**
+     * Újraépíti a megváltozottnak jelölt nézetcsoportokat, a többiben pedig
+     * csak az elmozdult Tectonokon lévő elemek nézeteit helyezi át.
+     */
+    private void rebuildDirtyViews() {
+        int dirty = dirtyViews;
+        dirtyViews = 0;
+        if ((dirty & BODY_VIEWS) != 0)
+            createMushBodyViews();
+        if ((dirty & INSECT_VIEWS) != 0)
+            createInsectViews();
+        if ((dirty & THREAD_VIEWS) != 0)
+            createThreadViews();
+        if ((dirty & SPORE_VIEWS) != 0)
+            createSporeViews();
+        if (!movedTectons.isEmpty()) {
+            relocateViews(ALL_VIEWS & ~dirty);
+            movedTectons.clear();
+        }
+    }
+
+    private void createMushBodyViews() {
         mushBodyViews.removeAll(mushBodyViews);
 
         // MushBodyView-k létrehozása
         int i = 1;
         for (Mushroom mushroom : engine.getMushrooms()) {
             for (MushBody mb : mushroom.getMushBodies()) {
-                TectonView location = findTectonView(mb.getLocation());
-                MushBodyView bodyView = new MushBodyView(mb, location.getX(), location.getY());
-                bodyView.loadImage("mushroom_" + i + ".png");
-                mushBodyViews.add(bodyView);
+                mushBodyViews.add(createMushBodyView(mb, i));
             }
             i++;
         }
+    }
+
+    private MushBodyView createMushBodyView(MushBody mb, int mushroomNumber) {
+        TectonView location = findTectonView(mb.getLocation());
+        MushBodyView bodyView = new MushBodyView(mb, location.getX(), location.getY());
+        bodyView.loadImage("mushroom_" + mushroomNumber + ".png");
+        return bodyView;
+    }
 
+    private void createInsectViews() {
         insectViews.removeAll(insectViews);
         // InsectView-k létrehozása
         for (Insect insect : engine.getInsects()) {
-            TectonView location = findTectonView(insect.getPosition());
-            InsectView insectView = new InsectView(insect, location.getX(), location.getY());
-            if (insect.getName().charAt(1) == '1') {
-                insectView.loadImage("insect_1.png");
-            } else if (insect.getName().charAt(1) == '2') {
-                insectView.loadImage("insect_2.png");
-            } else {
-                insectView.loadImage("insect_3.png");
-            }
+            insectViews.add(createInsectView(insect));
+        }
+    }
 
-            insectViews.add(insectView);
+    private InsectView createInsectView(Insect insect) {
+        TectonView location = findTectonView(insect.getPosition());
+        InsectView insectView = new InsectView(insect, location.getX(), location.getY());
+        if (insect.getName().charAt(1) == '1') {
+            insectView.loadImage("insect_1.png");
+        } else if (insect.getName().charAt(1) == '2') {
+            insectView.loadImage("insect_2.png");
+        } else {
+            insectView.loadImage("insect_3.png");
         }
+        return insectView;
+    }
 
-        //ThreadViewk
+    private void createThreadViews() {
         mushThreadViews.removeAll(mushThreadViews);
         for(Tecton tecton : engine.getTectons()){
             for(MushThread thread : tecton.getThreads()){
-                TectonView locationStart = findTectonView(thread.getStart());
-                TectonView locationEnd = findTectonView(thread.getEnd());
-                Color color;
-                if(thread.getMushBody().getName().substring(0, 2).equals("m0")){
-                    color = Color.BLUE; 
-                }else if(thread.getMushBody().getName().substring(0, 2).equals("m1")){
-                    color = Color.RED;
-                }else{
-                    color = Color.GREEN;
-                }
-                MushThreadView threadView = new MushThreadView(thread, locationStart.getX(), locationStart.getY(), locationEnd.getX(), locationEnd.getY(),color);
-                mushThreadViews.add(threadView);
+                mushThreadViews.add(createThreadView(thread));
             }
         }
+    }
+
+    private MushThreadView createThreadView(MushThread thread) {
+        TectonView locationStart = findTectonView(thread.getStart());
+        TectonView locationEnd = findTectonView(thread.getEnd());
+        Color color;
+        if(thread.getMushBody().getName().substring(0, 2).equals("m0")){
+            color = Color.BLUE; 
+        }else if(thread.getMushBody().getName().substring(0, 2).equals("m1")){
+            color = Color.RED;
+        }else{
+            color = Color.GREEN;
+        }
+        return new MushThreadView(thread, locationStart.getX(), locationStart.getY(), locationEnd.getX(), locationEnd.getY(),color);
+    }
 
-        //SporeViewk
+    private void createSporeViews() {
         sporeViews.removeAll(sporeViews);
         for(Tecton tecton : engine.getTectons()){
             for(MushSpore spore : tecton.getSpores()){
-                TectonView location = findTectonView(tecton);
-                SporeView sporeView = new SporeView(spore,location.getX(),location.getY(),Color.ORANGE);
-                sporeViews.add(sporeView);
+                sporeViews.add(createSporeView(spore, tecton));
             }
         }
     }
 
+    private SporeView createSporeView(MushSpore spore, Tecton tecton) {
+        TectonView location = findTectonView(tecton);
+        SporeView sporeView = new SporeView(spore,location.getX(),location.getY(),Color.ORANGE);
+        sporeView.setTecton(tecton);
+        return sporeView;
+    }
+
     /**
-     * Véletlenszerűen generál egy síkbarajzolható gráfot a Tectonok pozícióinak meghatározásához.
-     * A gráf csúcsai a TectonView-k, élei pedig az egymáshoz közeli csúcsok közötti kapcsolatok.
+     * Az elmozdult Tectonokon lévő elemek nézeteit a helyükön újra létrehozza
+     * a Tectonok új pozíciójával. Az elemek halmaza közben nem változott (az
+     * felvételkor, törléskor és áthelyezéskor a teljes csoport újraépül), így
+     * a nézetek sorrendje megmarad, és a többi nézethez nem kell nyúlni.
+     * 
+     * @param views Az áthelyezendő nézetcsoportok (*_VIEWS bitek).
+     */
+    private void relocateViews(int views) {
+        if ((views & BODY_VIEWS) != 0) {
+            for (int k = 0; k < mushBodyViews.size(); k++) {
+                MushBody mb = mushBodyViews.get(k).getMushBody();
+                if (movedTectons.contains(mb.getLocation())) {
+                    mushBodyViews.set(k, createMushBodyView(mb, mushroomNumber(mb)));
+                }
+            }
+        }
+        if ((views & INSECT_VIEWS) != 0) {
+            for (int k = 0; k < insectViews.size(); k++) {
+                Insect insect = insectViews.get(k).getInsect();
+                if (movedTectons.contains(insect.getPosition())) {
+                    insectViews.set(k, createInsectView(insect));
+                }
+            }
+        }
+        if ((views & THREAD_VIEWS) != 0) {
+            for (int k = 0; k < mushThreadViews.size(); k++) {
+                MushThread thread = mushThreadViews.get(k).getThread();
+                if (movedTectons.contains(thread.getStart()) || movedTectons.contains(thread.getEnd())) {
+                    mushThreadViews.set(k, createThreadView(thread));
+                }
+            }
+        }
+        if ((views & SPORE_VIEWS) != 0) {
+            for (int k = 0; k < sporeViews.size(); k++) {
+                SporeView sporeView = sporeViews.get(k);
+                if (movedTectons.contains(sporeView.getTecton())) {
+                    sporeViews.set(k, createSporeView(sporeView.getSpore(), sporeView.getTecton()));
+                }
+            }
+        }
+    }
+
+    /**
+     * @param mb Egy gombatest.
+     * @return A gombatest gombájának sorszáma 1-től (a képének kiválasztásához).
+     */
+    private int mushroomNumber(MushBody mb) {
+        List<Mushroom> mushrooms = engine.getMushrooms();
+        for (int i = 0; i < mushrooms.size(); i++) {
+            if (mushrooms.get(i).getMushBodies().contains(mb)) {
+                return i + 1;
+            }
+        }
+        return mushrooms.size() + 1;
+    }
+
+    /**
+     * Elrendezi a Tectonokat a modellben (lásd {@link MapLayout}), majd a
+     * modellbeli pozíciók és szomszédságok alapján létrehozza a TectonView-kat
+     * és az éleket.
      */
     private void generateRandomGraph() {
-        Random rand = new Random();
         List<Tecton> tectons = engine.getTectons();
+        new MapLayout(GRID_SIZE, CELL_WIDTH, CELL_HEIGHT, MARGIN).apply(engine);
 
-        // 1. Véletlen node-ok
-        int idx = 0;
-        for (int row = 0; row < GRID_SIZE; row++) {
-            for (int col = 0; col < GRID_SIZE; col++) {
-                int cellX = col * CELL_WIDTH;
-                int cellY = row * CELL_HEIGHT;
-
-                // Pozíció a cellán belül, minimális margóval
-                int margin = 33;
-                int x = cellX + margin + rand.nextInt(CELL_WIDTH - 2 * margin);
-                int y = cellY + margin + rand.nextInt(CELL_HEIGHT - 2 * margin);
-                if (idx < tectons.size()) {
-                    TectonView tv = new TectonView(x, y, tectons.get(idx));
-                    tectonViews.add(tv);
-                    sporeViews.add(new SporeView(new StunSpore(10), x, y, Color.RED));
-                    idx++;
-                }
-            }
+        for (Tecton tecton : tectons) {
+            TectonView tv = new TectonView(tecton.getX(), tecton.getY(), tecton);
+            tectonViews.add(tv);
+            viewsByTecton.put(tecton, tv);
         }
 
-        // 2. Él-generálás közelség alapján
-        for (int i = 0; i < tectonViews.size(); i++) {
-            TectonView a = tectonViews.get(i);
-            for (int j = i + 1; j < tectonViews.size(); j++) {
-                TectonView b = tectonViews.get(j);
-                double dist = Math.hypot(a.getX() - b.getX(), a.getY() - b.getY());
-                if (dist <= MAX_DISTANCE) {
-                    Edge newEdge = new Edge(a, b);
-                    if (!intersect(newEdge)) { // Ha nem metsz egy korábbi élt sem
-                        edges.add(new Edge(a, b));
-                        a.getTecton().addNeighbor(b.getTecton()); // Szomszédosság beállítása a két tekton között
-                    }
+        // Minden szomszédság egyszer, a korábban felvett TectonView felől
+        Set<TectonView> done = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (TectonView a : tectonViews) {
+            done.add(a);
+            for (Tecton neighbor : a.getTecton().getNeighbors()) {
+                TectonView b = findTectonView(neighbor);
+                if (b != null && !done.contains(b)) {
+                    addEdge(new Edge(a, b));
                 }
             }
         }
@@ -177,11 +276,44 @@ public class GameBoardView extends JPanel implements Observer, NewTectonListener
      * @return A hozzá tartozó TectonView, vagy null ha nem található.
      */
     public TectonView findTectonView(Tecton t) {
-        for (TectonView tw : tectonViews) {
-            if (tw.getTecton().equals(t))
-                return tw;
+        return viewsByTecton.get(t);
+    }
+
+    /**
+     * Felvesz egy élt a rajzolt élek és a végpontjai élindexe közé.
+     * 
+     * @param edge Az új él.
+     */
+    private void addEdge(Edge edge) {
+        edge.index = edges.size();
+        edges.add(edge);
+        edgesByView.computeIfAbsent(edge.a, k -> new ArrayList<>()).add(edge);
+        edgesByView.computeIfAbsent(edge.b, k -> new ArrayList<>()).add(edge);
+    }
+
+    /**
+     * Eltávolít egy élt a rajzolt élek és a végpontjai élindexe közül. A
+     * rajzolt élek sorrendje nem számít, így a helyére az utolsó él kerül.
+     * 
+     * @param edge A törlendő él.
+     */
+    private void removeEdge(Edge edge) {
+        Edge last = edges.remove(edges.size() - 1);
+        if (last != edge) {
+            edges.set(edge.index, last);
+            last.index = edge.index;
         }
-        return null;
+        edgesByView.get(edge.a).remove(edge);
+        edgesByView.get(edge.b).remove(edge);
+    }
+
+    /**
+     * @param tv A TectonView.
+     * @return A TectonView-ra illeszkedő élek (nem módosítható).
+     */
+    private List<Edge> incidentEdges(TectonView tv) {
+        List<Edge> incident = edgesByView.get(tv);
+        return incident == null ? List.of() : incident;
     }
 
     /**
@@ -194,6 +326,9 @@ public class GameBoardView extends JPanel implements Observer, NewTectonListener
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
+        if (dirtyViews != 0) {
+            rebuildDirtyViews();
+        }
 
         // Szomszédossági élek kirajzolása
         g.setColor(Color.GRAY);
@@ -229,163 +364,160 @@ public class GameBoardView extends JPanel implements Observer, NewTectonListener
     }
 
     /**
-     * Új Tecton hozzáadásakor frissíti a gráfot, új TectonView-t hoz létre,
-     * és módosítja a kapcsolódó éleket és szomszédokat a modellben és a nézetben.
+     * Törés előtt kiválasztja az eredeti Tecton azon szomszédait, amelyek az új
+     * Tectonhoz kerülnek: az új Tecton az eredeti alá, a régi fölé kerül (lásd
+     * {@link MapLayout#CRACK_OFFSET}), így azok a szomszédok mennek át, amelyek
+     * az alsó helyhez vannak közelebb.
      * 
-     * @param original Az eredeti Tecton, amelyből új Tecton jön létre.
-     * @param newTecton Az újonnan létrehozott Tecton.
+     * @param original Az eredeti, most eltörő Tecton.
+     * @param out A kiválasztott szomszédok ide kerülnek.
      */
     @Override
-    public void onNewTectonAdded(Tecton original, Tecton newTecton) {
-        TectonView originalTectonView = null;
-        for (TectonView tv : tectonViews){
-            if (tv.getTecton().equals(original))
-                originalTectonView = tv;
-        }
-
-        //Melyik szomszédossági élek tartoznak az eredeti TectonViewhoz
-        List<Edge> originalEdges = new ArrayList<>();  //Itt az a az original
-        for (Edge e : edges){
-            if(e.a.equals(originalTectonView))
-                originalEdges.add(e);
-            if(e.b.equals(originalTectonView)){
-                TectonView tmp = e.a;
-                e.a = e.b;
-                e.b = tmp;
-                originalEdges.add(e);
+    public void selectMovedNeighbors(Tecton original, List<Tecton> out) {
+        TectonView originalTectonView = findTectonView(original);
+        if (originalTectonView == null)
+            return;
+
+        int x = original.getX();
+        int y = original.getY();
+        for (Edge edge : incidentEdges(originalTectonView)) {
+            TectonView other = edge.a == originalTectonView ? edge.b : edge.a;
+            double distToOriginal = Math.hypot(other.getX() - x, other.getY() - (y - MapLayout.CRACK_OFFSET));
+            double distToOffset = Math.hypot(other.getX() - x, other.getY() - (y + MapLayout.CRACK_OFFSET));
+            if (distToOriginal > distToOffset) {
+                out.add(other.getTecton());
             }
-                
         }
+    }
 
-        int x = originalTectonView.getX();
-        int y = originalTectonView.getY();
-        int offsetX = 0;
-        int offsetY = 24;
-
-        List<Edge> closerToOriginal = new ArrayList<>();
-        List<Edge> closerToOffset = new ArrayList<>();
-
-        for (Edge edge : originalEdges) {
-            double distToOriginal = Math.hypot(edge.b.getX() - (x - offsetX), edge.b.getY() - (y - offsetY));
-            double distToOffset = Math.hypot(edge.b.getX() - (x + offsetX), edge.b.getY() - (y + offsetY));
+    /**
+     * Új Tecton hozzáadásakor frissíti a gráfot (a modellbeli szomszédságok
+     * szétosztása nélkül).
+     * 
+     * @param original Az eredeti Tecton, amelyből új Tecton jön létre.
+     * @param newTecton Az újonnan létrehozott Tecton.
+     */
+    @Override
+    public void onNewTectonAdded(Tecton original, Tecton newTecton) {
+        onTectonCracked(new TectonCrack(original, newTecton, List.of()));
+    }
 
-            if (distToOriginal <= distToOffset) {
-                closerToOriginal.add(edge);
-            } else {
-                closerToOffset.add(edge);
-            }
-        }
+    /**
+     * Törés után csak az érintett részt frissíti: új TectonView-t hoz létre az
+     * új Tecton helyén, az eredetit a modellbeli új helyére teszi, az
+     * átkerült szomszédok éleit áthelyezi rá, és összeköti a két
+     * TectonView-t. A két Tectonon lévő elemek nézetei a következő
+     * rajzoláskor kerülnek az új helyükre; az átkerült szomszédok helye nem
+     * változik, a feléjük futó fonalakat pedig az eredeti Tecton már jelöli.
+     * 
+     * @param crack A törés eredménye.
+     */
+    @Override
+    public void onTectonCracked(TectonCrack crack) {
+        TectonView originalTectonView = findTectonView(crack.getOriginal());
+        Tecton newTecton = crack.getNewTecton();
 
-        // Új tectonView létrehozása
-        TectonView newTectonView = new TectonView(x + offsetX, y + offsetY, newTecton);
+        // Új tectonView létrehozása a modellbeli helyén
+        TectonView newTectonView = new TectonView(newTecton.getX(), newTecton.getY(), newTecton);
         tectonViews.add(newTectonView);
-        for(Edge e : closerToOffset){
-            e.b.getTecton().removeNeighbor(original);   // Modellbeli szomszédok elvétele az eredeti Tectontól
-            e.b.getTecton().addNeighbor(newTecton);     // Modellbeli szomszédok hozzáadása az új tektonhoz
-            //e.a = newTectonView;                        //View-hoz új tectonView végpont hozzáadása
-            Edge newEdge = new Edge(newTectonView, e.b);
-            edges.remove(e);
-            edges.add(newEdge);
+        viewsByTecton.put(newTecton, newTectonView);
+
+        for (Tecton moved : crack.getMovedNeighbors()) {
+            TectonView other = findTectonView(moved);
+            for (Edge e : new ArrayList<>(incidentEdges(originalTectonView))) {
+                if (e.a == other || e.b == other) {
+                    removeEdge(e);
+                    addEdge(new Edge(newTectonView, other));
+                    break;
+                }
+            }
         }
 
-        // Az eredeti TectoView koordinátáinak eltolása
-        originalTectonView.setX(x - offsetX);
-        originalTectonView.setY(y - offsetY);
+        // Az eredeti TectoView az eredeti Tecton új helyére kerül
+        originalTectonView.setX(crack.getOriginal().getX());
+        originalTectonView.setY(crack.getOriginal().getY());
 
         // Két TectonView közötti Edge létrehozása
-        edges.add(new Edge(originalTectonView, newTectonView));
-        createViews();
+        addEdge(new Edge(originalTectonView, newTectonView));
+        movedTectons.add(crack.getOriginal());
+        movedTectons.add(newTecton);
         repaint();
     }
 
     /**
-     * Segédosztály, amely a gráf éleit reprezentálja két TectonView között.
+     * Megjelöli a változások által érintett nézetcsoportokat (a kör vége után
+     * mindet); ezek a következő rajzoláskor épülnek újra. Az egyéb
+     * állapotváltozásokat (pontszám, érettség stb.) a rajzolás a modellből
+     * olvassa, ezekhez elég az újrarajzolás.
+     * 
+     * @param changes A lépés összevont változásai.
      */
-    static class Edge {
-        TectonView a, b;
-
-        Edge(TectonView a, TectonView b) {
-            this.a = a;
-            this.b = b;
+    @Override
+    public void onChanges(ChangeSet changes) {
+        if ((changes.getGlobalFlags() & ChangeBus.ROUND) != 0) {
+            dirtyViews = ALL_VIEWS;
+        } else {
+            for (int i = 0; i < changes.size(); i++) {
+                ChangeTracked entity = changes.get(i);
+                int flags = changes.getFlags(i);
+                if (entity instanceof Tecton tecton && (flags & (ChangeBus.ADDED | ChangeBus.POSITION)) != 0) {
+                    movedTectons.add(tecton); // A rajta lévő elemek is vele mozognak
+                }
+                dirtyViews |= viewsAffectedBy(entity, flags);
+            }
         }
+        repaint();
     }
 
-    // Élek rajzolásához szükséges metódusok és segédosztályok
-
     /**
-     * Ellenőrzi, hogy az adott él metszi-e a meglévő gráf éleit.
-     * 
-     * @param edge Vizsgált él.
-     * @return true, ha metszi valamelyik meglévő élt, false különben.
+     * @param entity A megváltozott modellbeli objektum.
+     * @param flags A változás bitjei.
+     * @return Az újraépítendő nézetcsoportok.
      */
-    public boolean intersect(Edge edge) {
-        for (Edge e : edges) {
-            if (edgesIntersect(e, edge))
-                return true;
+    private static int viewsAffectedBy(ChangeTracked entity, int flags) {
+        if (entity instanceof Insect) {
+            return (flags & (ChangeBus.ADDED | ChangeBus.REMOVED | ChangeBus.POSITION)) != 0 ? INSECT_VIEWS : 0;
+        }
+        if (entity instanceof MushThread) {
+            return (flags & (ChangeBus.ADDED | ChangeBus.REMOVED)) != 0 ? THREAD_VIEWS : 0;
+        }
+        if (entity instanceof MushBody) {
+            return (flags & (ChangeBus.REMOVED | ChangeBus.POSITION)) != 0 ? BODY_VIEWS : 0;
         }
-        return false;
+        int views = 0;
+        if ((flags & ChangeBus.MUSH_BODY) != 0)
+            views |= BODY_VIEWS;
+        if ((flags & ChangeBus.THREADS) != 0)
+            views |= THREAD_VIEWS;
+        if ((flags & ChangeBus.SPORES) != 0 && entity instanceof Tecton)
+            views |= SPORE_VIEWS;
+        return views;
     }
 
     /**
-     * Ellenőrzi, hogy két él (Edge) metszi-e egymást.
-     * Az éleket kissé levágja a végpontok közelében, hogy elkerülje a csúcsoknál való
-     * metszés téves detektálását, majd a levágott szakaszokat vizsgálja.
-     * 
-     * @param e1 Az első vizsgált él.
-     * @param e2 A második vizsgált él.
-     * @return true, ha az élek metszik egymást, false különben.
+     * Segédosztály, amely a gráf éleit reprezentálja két TectonView között.
      */
-    private boolean edgesIntersect(Edge e1, Edge e2) {
-        // Levágott e1 élszakasz
-        Point p1 = shortenSegment(e1.a.getX(), e1.a.getY(), e1.b.getX(), e1.b.getY(), 0.1, true);
-        Point p2 = shortenSegment(e1.b.getX(), e1.b.getY(), e1.a.getX(), e1.a.getY(), 0.1, true);
-
-        // Levágott e2 élszakasz
-        Point q1 = shortenSegment(e2.a.getX(), e2.a.getY(), e2.b.getX(), e2.b.getY(), 0.1, true);
-        Point q2 = shortenSegment(e2.b.getX(), e2.b.getY(), e2.a.getX(), e2.a.getY(), 0.1, true);
+    static class Edge {
+        TectonView a, b;
+        int index; // Az él helye a rajzolt élek listájában
 
-        return Line2D.linesIntersect(
-                p1.x, p1.y, p2.x, p2.y,
-                q1.x, q1.y, q2.x, q2.y);
+        Edge(TectonView a, TectonView b) {
+            this.a = a;
+            this.b = b;
+        }
     }
 
-    /**
-     * Egy vonalszakaszt levág a végpontjai közelében a metszés vizsgálatához.
-     * 
-     * @param x1 A szakasz kezdőpontjának X koordinátája.
-     * @param y1 A szakasz kezdőpontjának Y koordinátája.
-     * @param x2 A szakasz végpontjának X koordinátája.
-     * @param y2 A szakasz végpontjának Y koordinátája.
-     * @param cut A levágás mértéke (távolság a végponttól).
-     * @param forward Ha true, a kezdőpont felől levág; ha false, a végpont felől.
-     * @return Az új pont, amely a levágott szakaszon van.
-     */
-    private Point shortenSegment(double x1, double y1, double x2, double y2, double cut, boolean forward) {
-        double dx = x2 - x1;
-        double dy = y2 - y1;
-        double len = Math.sqrt(dx * dx + dy * dy);
-        double ratio = cut / len;
-
-        double newX = x1 + (forward ? 1 : -1) * dx * ratio;
-        double newY = y1 + (forward ? 1 : -1) * dy * ratio;
-
-        return new Point(newX, newY);
-    }
+    // Getterek, Setterek
 
     /**
-     * Egyszerű segédosztály, amely egy kétdimenziós pontot reprezentál lebegőpontos koordinátákkal.
+     * Visszaadja a játékmotort, amelynek állapotát a tábla megjeleníti.
+     * 
+     * @return a játékmotor
      */
-    private static class Point {
-        double x, y;
-
-        Point(double x, double y) {
-            this.x = x;
-            this.y = y;
-        }
+    public GameEngine getEngine() {
+        return engine;
     }
 
-    // Getterek, Setterek
-
     /**
      * Visszaadja a TectonView objektumok listáját, amelyek a játéktáblán megjelenített tectonokat reprezentálják.
      * 
@@ -447,6 +579,10 @@ public class GameBoardView extends JPanel implements Observer, NewTectonListener
      */
     public void setTectonViews(List<TectonView> tectonViews) {
         this.tectonViews = tectonViews;
+        viewsByTecton.clear();
+        for (TectonView tv : tectonViews) {
+            viewsByTecton.put(tv.getTecton(), tv);
+        }
     }
 
     /**
@@ -477,8 +613,8 @@ public class GameBoardView extends JPanel implements Observer, NewTectonListener
     }
 
     /**
-     * Frissíti a megjelenítést és újrarajzolja a gameboardot.
-     * A megfigyelő mintának megfelelően hívódik meg az engine állapotának változásakor.
+     * Újraépíti az összes nézetet és újrarajzolja a gameboardot (pl. egy
+     * betöltött állás megjelenítéséhez).
      */
     @Override
     public void update() {
@@ -1,9 +1,15 @@
 package view;
 
+import controller.ActionLog;
 import controller.GameController;
 import controller.GameWindow;
+import fungorium.GameConfig;
 import fungorium.GameEngine;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.File;
+import java.io.IOException;
 import java.net.URL;
 import javax.swing.*;
 
@@ -114,9 +120,10 @@ public class GameSetupWindow extends JFrame {
 
             if (startEngine) {
                 // Játék indítása
-                GameEngine engine = GameEngine.getInstance();
-                GameEngine.setPlayerNumber(players);
-                GameEngine.setTectonNumber(tectons);
+                GameConfig config = new GameConfig();
+                config.setPlayerNumber(players);
+                config.setTectonNumber(tectons);
+                GameEngine engine = GameEngine.create(config);
                 engine.createMap();
                 engine.generatePlayers();
                 //engine.startGame();
@@ -125,6 +132,7 @@ public class GameSetupWindow extends JFrame {
 
                 GameController controller = new GameController(engine, info, panel);
                 GameWindow window = new GameWindow(1300, 780, panel, info);
+                startActionLog(engine, window);
 
                 window.pack();
                 window.setVisible(true);
@@ -138,4 +146,33 @@ public class GameSetupWindow extends JFrame {
             errorLabel.setText("Hiba: Csak számot írj be!");
         }
     }
+
+    /**
+     * Elindítja a játék lépésnaplóját a savedgames mappában (a nézet
+     * létrehozása után, hogy a naplóba már az összekötött térkép kerüljön), és
+     * az ablak bezárásakor lezárja. Ha a napló nem hozható létre, a játék
+     * napló nélkül folytatódik.
+     *
+     * @param engine a játékmotor
+     * @param window a játék főablaka
+     */
+    private void startActionLog(GameEngine engine, GameWindow window) {
+        File dir = new File("savedgames");
+        dir.mkdirs();
+        try {
+            ActionLog log = ActionLog.start(engine, new File(dir, "game-" + System.currentTimeMillis() + ".flog"));
+            window.addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowClosing(WindowEvent e) {
+                    try {
+                        log.close();
+                    } catch (IOException ex) {
+                        ex.printStackTrace();
+                    }
+                }
+            });
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+    }
 }
@@ -16,7 +16,7 @@ import javax.swing.*;
  * lehetőséget ad a játékos számára különböző műveletek végrehajtására.
  */
 public class InfoBoardView extends JPanel implements Observer, GameStatusListener {
-    private GameEngine gameEngine = GameEngine.getInstance();
+    private final GameEngine gameEngine;
 
     private JTextField plaxerTextField;
     private JTextField logTextField;
@@ -61,6 +61,7 @@ public class InfoBoardView extends JPanel implements Observer, GameStatusListene
      */
     public InfoBoardView(GameBoardView gbv) {
         gameBoardView = gbv;
+        gameEngine = gbv.getEngine();
         setLayout(new GridBagLayout());
         setPreferredSize(new Dimension(300, 780));
         GridBagConstraints gbc = new GridBagConstraints();
@@ -86,10 +87,10 @@ public class InfoBoardView extends JPanel implements Observer, GameStatusListene
         gbc.gridwidth = 2;
         plaxerTextField = new JTextField();
         plaxerTextField.setEditable(false);
-        plaxerTextField.setText(GameEngine.getInstance().getMushrooms().get(0).getName());
+        plaxerTextField.setText(gameEngine.getMushrooms().get(0).getName());
 
         add(plaxerTextField, gbc);
-        GameEngine.getInstance().addGameStatusListener(this);
+        gameEngine.addGameStatusListener(this);
 
         y++; // Új sor #########################################
 
@@ -116,7 +117,7 @@ public class InfoBoardView extends JPanel implements Observer, GameStatusListene
         gbc.fill = GridBagConstraints.BOTH;
         gbc.weighty = 1; // Nyújtózkodhat
         String defaultText = "";
-        int playerNumber = GameEngine.getInstance().getPlayerNumber();
+        int playerNumber = gameEngine.getPlayerNumber();
         defaultText += "   i0: green     m0: blue\n";
         if(playerNumber >= 2)
             defaultText +=  "   i1: blue        m1: red\n";
@@ -224,7 +225,7 @@ public class InfoBoardView extends JPanel implements Observer, GameStatusListene
         saveButton.addActionListener(e -> save());
         add(saveButton, gbc);
 
-        updateButtonStates(GameEngine.getInstance().getMushrooms().get(0).getName());
+        updateButtonStates(gameEngine.getMushrooms().get(0).getName());
 
     }
 
@@ -243,12 +244,12 @@ public class InfoBoardView extends JPanel implements Observer, GameStatusListene
      * Megjelenít egy értesítést a sikeres mentésről.
      */
     private void save() {
-        GameEngine engine = GameEngine.getInstance();
         GameStateDTO state = new GameStateDTO();
         state.tectons = gameBoardView.getTectonViews();
-        state.insects = engine.getInsects();
-        state.mushrooms = engine.getMushrooms();
-        state.round = engine.getRound();
+        state.insects = gameEngine.getInsects();
+        state.mushrooms = gameEngine.getMushrooms();
+        state.round = gameEngine.getRound();
+        state.randomState = gameEngine.getRandomState();
 
         String fileName = "saved_state.json";
         GameStateSaver.saveToFile(state, fileName);
@@ -267,7 +268,7 @@ public class InfoBoardView extends JPanel implements Observer, GameStatusListene
     @Override
     public void update() {
         // Minden update hatására frissíti a kör kiírását
-        int roundNumber = GameEngine.getInstance().getRound();
+        int roundNumber = gameEngine.getRound();
         roundTextField.setText(Integer.toString(roundNumber));
 
         checkGameOver();
@@ -286,8 +287,9 @@ public class InfoBoardView extends JPanel implements Observer, GameStatusListene
             int iscore = gameEngine.getInsectPlayeScore("i0");
             String iw = "i0";
             for(int i = 0; i < gameEngine.getPlayerNumber(); i++){
-                if(gameEngine.getInsectPlayeScore("i" + i) > iscore){
-                    iscore = gameEngine.getInsectPlayeScore("i" + i);
+                int score = gameEngine.getInsectPlayeScore("i" + i);
+                if(score > iscore){
+                    iscore = score;
                     iw = "i" + i;
                 }
             }
@@ -421,19 +423,18 @@ public class InfoBoardView extends JPanel implements Observer, GameStatusListene
      */
     private void showComboBoxOptions() {
         String currentPlayer = plaxerTextField.getText().trim(); // vagy amit használsz
-        GameEngine engine = GameEngine.getInstance();
         if (currentPlayer.isEmpty())
             return;
 
         dynamicComboBox.removeAllItems(); // régi elemek törlése
 
         if (currentPlayer.startsWith("i")) {
-            List<Insect> insects = engine.getPlayerInsects(currentPlayer);
+            List<Insect> insects = gameEngine.getPlayerInsects(currentPlayer);
             for (Insect insect : insects) {
                 dynamicComboBox.addItem(insect.getName());
             }
         } else if (currentPlayer.startsWith("m")) {
-            for (Mushroom mushroom : engine.getMushrooms()) {
+            for (Mushroom mushroom : gameEngine.getMushrooms()) {
                 if (mushroom.getName().equals(currentPlayer)) {
                     for (MushBody body : mushroom.getMushBodies()) {
                         dynamicComboBox.addItem(body.getName());
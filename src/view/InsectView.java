@@ -28,8 +28,6 @@ public class InsectView extends JComponent implements Observer {
         this.x = x;
         this.y = y;
         this.insect = insect;
-        if(insect != null)
-            insect.addObserver(this);
     }
 
     /**
@@ -107,21 +105,7 @@ public class InsectView extends JComponent implements Observer {
      * @param insect Az új Insect objektum
      */
     public void setInsect(Insect insect) {
-        // Remove observer from old insect
-        if (this.insect != null) {
-            // If not, you'll need to handle this differently
-            try {
-                this.insect.removeObserver(this);
-            } catch (Exception e) {
-                // Handle if removeObserver doesn't exist
-            }
-        }
-        
-        // Set new insect and add observer
         this.insect = insect;
-        if (insect != null) {
-            insect.addObserver(this);
-        }
         
         // Update the view
         update();
@@ -138,8 +138,8 @@ public class Menu extends JPanel {
      */
     private void loadSelectedGame(String selectedFile) {
         String fullPath = "savedgames/" + selectedFile;
-        GameStateDTO gameState = GameStateLoader.loadFromFile(fullPath);
-        GameEngine engine = GameEngine.getInstance();
+        GameEngine engine = GameEngine.create();
+        GameStateDTO gameState = GameStateLoader.loadFromFile(fullPath, engine);
         engine.loadGameState(gameState); // Feltételezve, hogy van ilyen metódusod
 
         // Megjelenítjük a játéktáblát az állapot alapján
@@ -28,8 +28,6 @@ public class MushBodyView extends JComponent implements Observer {
         this.x = x;
         this.y = y;
         this.mushBody = mushBody;
-        if(mushBody != null)
-            mushBody.addObserver(this);
     }
 
     /**
@@ -99,21 +97,7 @@ public class MushBodyView extends JComponent implements Observer {
      * @param mushBody az új MushBody példány
      */
     public void setMushBody(MushBody mushBody) {
-        // Remove observer from old mushBody
-        if (this.mushBody != null) {
-            try {
-                this.mushBody.removeObserver(this);
-            } catch (Exception e) {
-                // Handle if removeObserver doesn't exist
-                
-            }
-        }
-        
-        // Set new mushBody and add observer
         this.mushBody = mushBody;
-        if (mushBody != null) {
-            mushBody.addObserver(this);
-        }
         
         // Update the view
         update();
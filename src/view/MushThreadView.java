@@ -33,8 +33,6 @@ public class MushThreadView extends JComponent implements Observer {
         this.pos2Y = pos2Y;
         this.threadColor = color;
         this.thread = thread;
-        if (thread != null)
-            thread.addObserver(this);
     }
 
     // Method kept for compatibility with interface
@@ -101,20 +99,7 @@ public class MushThreadView extends JComponent implements Observer {
      * @param thread az új MushThread objektum
      */
     public void setThread(MushThread thread) {
-        // Remove observer from old thread
-        if (this.thread != null) {
-            try {
-                this.thread.removeObserver(this);
-            } catch (Exception e) {
-                // Handle if removeObserver doesn't exist
-            }
-        }
-
-        // Set new thread and add observer
         this.thread = thread;
-        if (thread != null) {
-            thread.addObserver(this);
-        }
 
         // Update the view
         update();
@@ -1,6 +1,7 @@
 package view;
 
 import fungorium.MushSpore;
+import fungorium.Tecton;
 import java.awt.*;
 import javax.swing.*;
 
@@ -10,6 +11,7 @@ import javax.swing.*;
  */
 public class SporeView extends JComponent implements Observer {
     private MushSpore spore;
+    private Tecton tecton;
     private int x,y;
     private Color color = Color.BLACK;
     private boolean isSelected = false;
@@ -29,8 +31,6 @@ public class SporeView extends JComponent implements Observer {
         this.y = y;
         this.color = color;
         this.spore = spore;
-        if(spore != null)
-            spore.addObserver(this);
     }
 
     public void loadImage(String path) {
@@ -72,25 +72,31 @@ public class SporeView extends JComponent implements Observer {
      * @param spore az új MushSpore objektum
      */
     public void setSpore(MushSpore spore) {
-        // Remove observer from old spore
-        if (this.spore != null) {
-            try {
-                this.spore.removeObserver(this);
-            } catch (Exception e) {
-                // Handle if removeObserver doesn't exist
-            }
-        }
-        
-        // Set new spore and add observer
         this.spore = spore;
-        if (spore != null) {
-            spore.addObserver(this);
-        }
         
         // Update the view
         update();
     }
     
+    /**
+     * Visszaadja a Tectont, amelyen a spóra van. A spórapéldányok fajtánként
+     * közösek, így a nézet helyét ez azonosítja, nem a spóra.
+     *
+     * @return a Tecton, vagy null, ha nincs megadva
+     */
+    public Tecton getTecton() {
+        return tecton;
+    }
+
+    /**
+     * Beállítja a Tectont, amelyen a spóra van.
+     *
+     * @param tecton a Tecton
+     */
+    public void setTecton(Tecton tecton) {
+        this.tecton = tecton;
+    }
+
     /**
      * Megadja, hogy a MushSpore jelenleg ki van-e jelölve.
      *
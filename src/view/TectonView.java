@@ -1,6 +1,7 @@
 package view;
 
 import fungorium.Tecton;
+import fungorium.TectonType;
 import java.awt.Graphics;
 import java.awt.Image;
 import java.net.URL;
@@ -30,7 +31,6 @@ public class TectonView extends JComponent implements Observer {
         this.y = y;
         this.tecton = tecton;
         if(tecton != null){
-            tecton.addObserver(this);
             loadImage();
         }
     }
@@ -40,14 +40,14 @@ public class TectonView extends JComponent implements Observer {
      * A típustól függően választja ki a megfelelő képfájlt.
      */
     public void loadImage(){
-        String type = tecton.getType();
+        TectonType type = tecton.getTectonType();
         URL imgUrl;
         switch (type) {
-            case "MULTITECTON" -> imgUrl = getClass().getResource("multi_circle.png");
-            case "DRYTECTON" -> imgUrl = getClass().getResource("dry_circle.png");
-            case "ZEROTECTON" -> imgUrl = getClass().getResource("zero_circle.png");
-            case "NUTRITECTON" -> imgUrl = getClass().getResource("nutri_circle.png");
-            case "SOLOTECTON" -> imgUrl = getClass().getResource("solo_circle.png");
+            case MULTI -> imgUrl = getClass().getResource("multi_circle.png");
+            case DRY -> imgUrl = getClass().getResource("dry_circle.png");
+            case ZERO -> imgUrl = getClass().getResource("zero_circle.png");
+            case NUTRI -> imgUrl = getClass().getResource("nutri_circle.png");
+            case SOLO -> imgUrl = getClass().getResource("solo_circle.png");
             default -> { System.err.println("Wrong tecton type!");
                 return;
             }